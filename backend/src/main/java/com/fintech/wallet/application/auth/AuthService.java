@@ -5,35 +5,100 @@ import com.fintech.wallet.domain.Wallet;
 import com.fintech.wallet.infrastructure.persistence.UserRepository;
 import com.fintech.wallet.infrastructure.persistence.WalletRepository;
 import com.fintech.wallet.infrastructure.security.JwtTokenProvider;
+import com.fintech.wallet.infrastructure.security.PasswordHasher;
 import com.fintech.wallet.interfaces.dto.AuthResponseDTO;
 import com.fintech.wallet.interfaces.dto.LoginDTO;
 import com.fintech.wallet.interfaces.dto.RegisterDTO;
-import lombok.RequiredArgsConstructor;
-import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
+/**
+ * Registration and login. BCrypt runs on the {@link PasswordHasher} pool; the cheap checks
+ * (email in use, unknown email, too many failures) answer before any hashing, and the rest
+ * continues on the application executor once the hash is ready. Emails the
+ * {@link RegisteredEmails} filter has surely never seen skip the users lookup.
+ */
 @Service
-@RequiredArgsConstructor
 public class AuthService {
     
     private final UserRepository userRepository;
     private final WalletRepository walletRepository;
-    private final PasswordEncoder passwordEncoder;
+    private final PasswordHasher passwordHasher;
+    private final LoginAttemptTracker loginAttempts;
+    private final RegisteredEmails registeredEmails;
     private final JwtTokenProvider tokenProvider;
+    private final TransactionTemplate writeTransaction;
+    private final Executor executor;
     
-    @Transactional
-    public AuthResponseDTO register(RegisterDTO registerDTO) {
-        if (userRepository.existsByEmail(registerDTO.getEmail())) {
-            throw new IllegalArgumentException("Email já está em uso");
+    public AuthService(UserRepository userRepository,
+                       WalletRepository walletRepository,
+                       PasswordHasher passwordHasher,
+                       LoginAttemptTracker loginAttempts,
+                       RegisteredEmails registeredEmails,
+                       JwtTokenProvider tokenProvider,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.userRepository = userRepository;
+        this.walletRepository = walletRepository;
+        this.passwordHasher = passwordHasher;
+        this.loginAttempts = loginAttempts;
+        this.registeredEmails = registeredEmails;
+        this.tokenProvider = tokenProvider;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+    
+    public CompletableFuture<AuthResponseDTO> register(RegisterDTO registerDTO) {
+        checkEmailAvailable(registerDTO.getEmail());
+        
+        return passwordHasher.encode(registerDTO.getPassword())
+                .thenApplyAsync(hash -> {
+                    AuthResponseDTO response;
+                    try {
+                        response = writeTransaction.execute(status -> createUser(registerDTO, hash));
+                    } catch (DataIntegrityViolationException e) {
+                        // another registration took the email while hashing
+                        throw new IllegalArgumentException("Email já está em uso");
+                    }
+                    registeredEmails.add(response.getEmail());
+                    return response;
+                }, executor);
+    }
+    
+    public CompletableFuture<AuthResponseDTO> login(LoginDTO loginDTO, String clientIp) {
+        loginAttempts.checkAllowed(loginDTO.getEmail(), clientIp);
+        User user = findUser(loginDTO.getEmail());
+        if (user == null) {
+            loginAttempts.recordFailure(loginDTO.getEmail(), clientIp);
+            throw new IllegalArgumentException("Credenciais inválidas");
         }
         
+        return passwordHasher.matches(loginDTO.getPassword(), user.getPassword())
+                .thenApplyAsync(matches -> {
+                    if (!matches) {
+                        loginAttempts.recordFailure(loginDTO.getEmail(), clientIp);
+                        throw new IllegalArgumentException("Credenciais inválidas");
+                    }
+                    loginAttempts.recordSuccess(loginDTO.getEmail());
+                    
+                    Wallet wallet = walletRepository.findByUserId(user.getId())
+                            .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
+                    return toResponse(user, wallet);
+                }, executor);
+    }
+    
+    private AuthResponseDTO createUser(RegisterDTO registerDTO, String passwordHash) {
         User user = User.builder()
                 .name(registerDTO.getName())
                 .email(registerDTO.getEmail())
-                .password(passwordEncoder.encode(registerDTO.getPassword()))
+                .password(passwordHash)
                 .country(registerDTO.getCountry())
                 .postalCode(registerDTO.getPostalCode())
                 .street(registerDTO.getStreet())
@@ -44,34 +109,42 @@ public class AuthService {
                 .birthDate(registerDTO.getBirthDate())
                 .build();
         
-        user = userRepository.save(user);
+        // flushed here, so a taken email fails on the unique constraint inside the transaction
+        user = userRepository.saveAndFlush(user);
         
         Wallet wallet = Wallet.builder()
                 .userId(user.getId())
                 .balance(BigDecimal.ZERO)
                 .build();
         
-        walletRepository.save(wallet);
+        wallet = walletRepository.save(wallet);
         
-        String token = tokenProvider.generateToken(user.getId(), user.getEmail());
-        
-        return AuthResponseDTO.builder()
-                .token(token)
-                .userId(user.getId())
-                .email(user.getEmail())
-                .name(user.getName())
-                .build();
+        return toResponse(user, wallet);
     }
     
-    public AuthResponseDTO login(LoginDTO loginDTO) {
-        User user = userRepository.findByEmail(loginDTO.getEmail())
-                .orElseThrow(() -> new IllegalArgumentException("Credenciais inválidas"));
-        
-        if (!passwordEncoder.matches(loginDTO.getPassword(), user.getPassword())) {
-            throw new IllegalArgumentException("Credenciais inválidas");
+    private User findUser(String email) {
+        if (!registeredEmails.mightExist(email)) {
+            return null;
         }
-        
-        String token = tokenProvider.generateToken(user.getId(), user.getEmail());
+        User user = userRepository.findByEmail(email).orElse(null);
+        if (user == null) {
+            registeredEmails.recordFalsePositive();
+        }
+        return user;
+    }
+    
+    private void checkEmailAvailable(String email) {
+        if (!registeredEmails.mightExist(email)) {
+            return;
+        }
+        if (userRepository.existsByEmail(email)) {
+            throw new IllegalArgumentException("Email já está em uso");
+        }
+        registeredEmails.recordFalsePositive();
+    }
+    
+    private AuthResponseDTO toResponse(User user, Wallet wallet) {
+        String token = tokenProvider.generateToken(user.getId(), wallet.getId(), user.getEmail());
         
         return AuthResponseDTO.builder()
                 .token(token)
@@ -81,4 +154,3 @@ public class AuthService {
                 .build();
     }
 }
-
@@ -0,0 +1,161 @@
+package com.fintech.wallet.application.auth;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over email strings, safe for concurrent puts and lookups. Bit positions come
+ * from two 64-bit hashes of the UTF-8 bytes combined as h1 + i * h2. The filter never answers
+ * "absent" for an email that was put; "present" is wrong with the configured probability
+ * while no more than capacity emails have been put.
+ */
+final class EmailBloomFilter {
+    
+    private static final int MAGIC = 0x45424631; // "EBF1"
+    
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+    private final long capacity;
+    private final AtomicLong setBits;
+    private final AtomicLong insertions;
+    
+    private EmailBloomFilter(AtomicLongArray words, int hashes, long capacity, long setBits, long insertions) {
+        this.words = words;
+        this.bits = (long) words.length() * Long.SIZE;
+        this.hashes = hashes;
+        this.capacity = capacity;
+        this.setBits = new AtomicLong(setBits);
+        this.insertions = new AtomicLong(insertions);
+    }
+    
+    static EmailBloomFilter create(long capacity, double falsePositiveRate) {
+        if (capacity <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Invalid Bloom filter sizing: " + capacity + ", " + falsePositiveRate);
+        }
+        long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        long words = Math.max(1, (bits + Long.SIZE - 1) / Long.SIZE);
+        if (words > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Bloom filter too large for " + capacity + " emails");
+        }
+        int hashes = (int) Math.max(1, Math.round((double) words * Long.SIZE / capacity * Math.log(2)));
+        return new EmailBloomFilter(new AtomicLongArray((int) words), hashes, capacity, 0, 0);
+    }
+    
+    boolean mightContain(String email) {
+        long h1 = hash(email);
+        long h2 = secondHash(h1);
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Adds the email; returns whether any bit changed, that is whether it was surely new.
+     */
+    boolean put(String email) {
+        long h1 = hash(email);
+        long h2 = secondHash(h1);
+        boolean changed = false;
+        for (int i = 0; i < hashes; i++) {
+            long bit = Math.floorMod(h1 + i * h2, bits);
+            int index = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long word;
+            do {
+                word = words.get(index);
+                if ((word & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(index, word, word | mask));
+            if ((word & mask) == 0) {
+                setBits.incrementAndGet();
+                changed = true;
+            }
+        }
+        if (changed) {
+            insertions.incrementAndGet();
+        }
+        return changed;
+    }
+    
+    long capacity() {
+        return capacity;
+    }
+    
+    /**
+     * Distinct emails put so far, undercounted by those that collided on every bit.
+     */
+    long insertions() {
+        return insertions.get();
+    }
+    
+    /**
+     * Probability that an email never put is reported present, from the current fill.
+     */
+    double expectedFalsePositiveRate() {
+        return Math.pow((double) setBits.get() / bits, hashes);
+    }
+    
+    void writeTo(DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(hashes);
+        out.writeLong(capacity);
+        out.writeLong(setBits.get());
+        out.writeLong(insertions.get());
+        out.writeInt(words.length());
+        for (int i = 0; i < words.length(); i++) {
+            out.writeLong(words.get(i));
+        }
+    }
+    
+    static EmailBloomFilter readFrom(DataInputStream in) throws IOException {
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not an email filter snapshot");
+        }
+        int hashes = in.readInt();
+        long capacity = in.readLong();
+        long setBits = in.readLong();
+        long insertions = in.readLong();
+        int length = in.readInt();
+        if (hashes <= 0 || capacity <= 0 || length <= 0) {
+            throw new IOException("Corrupt email filter snapshot");
+        }
+        AtomicLongArray words = new AtomicLongArray(length);
+        for (int i = 0; i < length; i++) {
+            words.set(i, in.readLong());
+        }
+        return new EmailBloomFilter(words, hashes, capacity, setBits, insertions);
+    }
+    
+    private static long hash(String email) {
+        // FNV-1a, then a murmur3 finalizer to spread the low bits
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : email.getBytes(StandardCharsets.UTF_8)) {
+            hash = (hash ^ (b & 0xff)) * 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+    
+    private static long secondHash(long h1) {
+        // never zero, so the probes of one email do not all land on the same bit
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1;
+    }
+    
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xff51afd7ed558ccdL;
+        h ^= h >>> 33;
+        h *= 0xc4ceb9fe1a85ec53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
@@ -0,0 +1,73 @@
+package com.fintech.wallet.application.auth;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Failed logins counted per email and per client IP, in memory on each node. A key that
+ * reached its limit is rejected with 429 before any BCrypt work until it has gone a whole
+ * lockout period without another failure. A successful login clears its email's count.
+ */
+@Component
+public class LoginAttemptTracker {
+    
+    private final Cache<String, Integer> failuresByEmail;
+    private final Cache<String, Integer> failuresByIp;
+    private final int maxFailuresPerEmail;
+    private final int maxFailuresPerIp;
+    private final Counter blocked;
+    
+    public LoginAttemptTracker(MeterRegistry meterRegistry,
+                               @Value("${wallet.auth.max-failures-per-email:5}") int maxFailuresPerEmail,
+                               @Value("${wallet.auth.max-failures-per-ip:50}") int maxFailuresPerIp,
+                               @Value("${wallet.auth.lockout:15m}") Duration lockout,
+                               @Value("${wallet.auth.max-tracked-keys:100000}") long maxTrackedKeys) {
+        this.failuresByEmail = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterWrite(lockout).build();
+        this.failuresByIp = Caffeine.newBuilder().maximumSize(maxTrackedKeys).expireAfterWrite(lockout).build();
+        this.maxFailuresPerEmail = maxFailuresPerEmail;
+        this.maxFailuresPerIp = maxFailuresPerIp;
+        this.blocked = Counter.builder("auth.login.blocked").register(meterRegistry);
+    }
+    
+    public void checkAllowed(String email, String clientIp) {
+        if (count(failuresByEmail, normalize(email)) >= maxFailuresPerEmail
+                || (clientIp != null && count(failuresByIp, clientIp) >= maxFailuresPerIp)) {
+            blocked.increment();
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, "Muitas tentativas de login, tente novamente mais tarde");
+        }
+    }
+    
+    public void recordFailure(String email, String clientIp) {
+        increment(failuresByEmail, normalize(email));
+        if (clientIp != null) {
+            increment(failuresByIp, clientIp);
+        }
+    }
+    
+    public void recordSuccess(String email) {
+        failuresByEmail.invalidate(normalize(email));
+    }
+    
+    private static int count(Cache<String, Integer> failures, String key) {
+        Integer count = failures.getIfPresent(key);
+        return count == null ? 0 : count;
+    }
+    
+    private static void increment(Cache<String, Integer> failures, String key) {
+        // a write, so the lockout restarts from the latest failure
+        failures.asMap().merge(key, 1, Integer::sum);
+    }
+    
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+}
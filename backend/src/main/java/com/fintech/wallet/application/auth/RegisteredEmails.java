@@ -0,0 +1,245 @@
+package com.fintech.wallet.application.auth;
+
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * In-memory {@link EmailBloomFilter} of registered emails, so logins for addresses that were
+ * never registered and registrations of new addresses skip the users lookup. The unique
+ * constraint on users.email stays the source of truth: "present" answers are always checked
+ * against the database, and until the filter is loaded every email is reported present.
+ *
+ * The filter is loaded at startup from the snapshot file, or built from a streamed scan of
+ * users, and snapshotted again periodically and on shutdown. Emails registered here are
+ * added on commit; those registered on other instances are picked up by the refresh, which
+ * rescans users created since the previous one (minus an overlap for late commits). Both
+ * users.created_at and that watermark come from the database's clock, so a skewed instance
+ * clock cannot hide a user from the rescan. Until the next refresh a login on this instance
+ * for such an email is refused as unknown.
+ */
+@Slf4j
+@Component
+public class RegisteredEmails {
+    
+    private final UserRepository userRepository;
+    private final TransactionTemplate readTransaction;
+    private final boolean enabled;
+    private final Path snapshot;
+    private final long expectedEmails;
+    private final double falsePositiveRate;
+    private final Duration overlap;
+    private final Counter negatives;
+    private final Counter positives;
+    private final Counter falsePositives;
+    // reentrant, and not synchronized: refreshes and snapshots block on JDBC and file I/O,
+    // which would pin a virtual thread's carrier
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile EmailBloomFilter filter;
+    private volatile LocalDateTime scannedSince;
+    private volatile boolean dirty;
+    
+    public RegisteredEmails(UserRepository userRepository,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${wallet.auth.email-filter.enabled:true}") boolean enabled,
+                            @Value("${wallet.auth.email-filter.snapshot:./data/email-filter.bin}") String snapshot,
+                            @Value("${wallet.auth.email-filter.expected-emails:1000000}") long expectedEmails,
+                            @Value("${wallet.auth.email-filter.false-positive-rate:0.01}") double falsePositiveRate,
+                            @Value("${wallet.auth.email-filter.overlap:1m}") Duration overlap) {
+        this.userRepository = userRepository;
+        this.readTransaction = new TransactionTemplate(transactionManager);
+        this.readTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.snapshot = Path.of(snapshot);
+        this.expectedEmails = expectedEmails;
+        this.falsePositiveRate = falsePositiveRate;
+        this.overlap = overlap;
+        // observed false-positive rate: false_positive / (negative + false_positive)
+        this.negatives = Counter.builder("auth.email_filter").tag("result", "negative").register(meterRegistry);
+        this.positives = Counter.builder("auth.email_filter").tag("result", "positive").register(meterRegistry);
+        this.falsePositives = Counter.builder("auth.email_filter").tag("result", "false_positive").register(meterRegistry);
+        Gauge.builder("auth.email_filter.expected_fpp", this,
+                emails -> emails.filter == null ? Double.NaN : emails.filter.expectedFalsePositiveRate())
+                .register(meterRegistry);
+        Gauge.builder("auth.email_filter.emails", this,
+                emails -> emails.filter == null ? Double.NaN : emails.filter.insertions())
+                .register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        if (!enabled) {
+            return;
+        }
+        if (!loadSnapshot()) {
+            rebuild();
+            return;
+        }
+        refresh();
+        // a snapshot of another database, or users inserted with an older created_at
+        long users = userRepository.count();
+        if (users > filter.insertions() * (1 + falsePositiveRate) + 10) {
+            log.warn("Email filter snapshot has {} emails but users has {} rows, rebuilding", filter.insertions(), users);
+            rebuild();
+        }
+    }
+    
+    /**
+     * False only when the email is surely not registered.
+     */
+    public boolean mightExist(String email) {
+        EmailBloomFilter current = filter;
+        if (current == null) {
+            return true;
+        }
+        if (current.mightContain(email)) {
+            positives.increment();
+            return true;
+        }
+        negatives.increment();
+        return false;
+    }
+    
+    /**
+     * Called when the database did not have an email the filter reported present.
+     */
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+    
+    /**
+     * Adds an email whose user has been committed.
+     */
+    public void add(String email) {
+        EmailBloomFilter current = filter;
+        if (current != null && current.put(email)) {
+            dirty = true;
+        }
+    }
+    
+    @Scheduled(fixedDelayString = "${wallet.auth.email-filter.refresh-interval-ms:10000}",
+               initialDelayString = "${wallet.auth.email-filter.refresh-interval-ms:10000}")
+    public void refresh() {
+        lock.lock();
+        try {
+            EmailBloomFilter current = filter;
+            if (current == null) {
+                return;
+            }
+            LocalDateTime started = userRepository.databaseTime();
+            AtomicLong added = new AtomicLong();
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamEmailsCreatedSince(scannedSince)) {
+                    emails.filter(current::put).forEach(email -> added.incrementAndGet());
+                }
+            });
+            scannedSince = started.minus(overlap);
+            if (added.get() > 0) {
+                dirty = true;
+            }
+            if (current.insertions() > current.capacity()) {
+                log.warn("Email filter holds {} emails for a capacity of {}, rebuilding", current.insertions(), current.capacity());
+                rebuild();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    @PreDestroy
+    @Scheduled(fixedDelayString = "${wallet.auth.email-filter.snapshot-interval-ms:300000}")
+    public void saveSnapshot() {
+        lock.lock();
+        try {
+            EmailBloomFilter current = filter;
+            if (current == null || !dirty) {
+                return;
+            }
+            dirty = false;
+            Path directory = snapshot.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary = Files.createTempFile(directory, snapshot.getFileName().toString(), ".tmp");
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                out.writeLong(scannedSince.toEpochSecond(ZoneOffset.UTC));
+                out.writeInt(scannedSince.getNano());
+                current.writeTo(out);
+            }
+            Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            dirty = true;
+            log.warn("Could not write email filter snapshot {}", snapshot, e);
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private void rebuild() {
+        lock.lock();
+        try {
+            LocalDateTime started = userRepository.databaseTime();
+            // room to grow before the false-positive rate degrades
+            EmailBloomFilter built = EmailBloomFilter.create(
+                    Math.max(expectedEmails, userRepository.count() * 2), falsePositiveRate);
+            readTransaction.executeWithoutResult(status -> {
+                try (Stream<String> emails = userRepository.streamAllEmails()) {
+                    emails.forEach(built::put);
+                }
+            });
+            scannedSince = started.minus(overlap);
+            filter = built;
+            dirty = true;
+            log.info("Built email filter of {} emails", built.insertions());
+            saveSnapshot();
+            // registrations committed during the scan
+            refresh();
+        } finally {
+            lock.unlock();
+        }
+    }
+    
+    private boolean loadSnapshot() {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshot)))) {
+            LocalDateTime since = LocalDateTime.ofEpochSecond(in.readLong(), in.readInt(), ZoneOffset.UTC);
+            EmailBloomFilter loaded = EmailBloomFilter.readFrom(in);
+            if (loaded.insertions() > loaded.capacity()) {
+                return false;
+            }
+            scannedSince = since;
+            filter = loaded;
+            log.info("Loaded email filter of {} emails from {}", loaded.insertions(), snapshot);
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        } catch (IOException | RuntimeException e) {
+            log.warn("Ignoring unreadable email filter snapshot {}", snapshot, e);
+            return false;
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.fintech.wallet.application.category;
+
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory view of the categories. The system defaults live in an immutable snapshot that
+ * readers access without locking; a reload builds a new snapshot and swaps the reference.
+ * Categories owned by a user are kept in a bounded per-user overlay on top of the snapshot,
+ * loaded on first use and evicted when the cache is full.
+ *
+ * Every node polls a cheap fingerprint of the categories table together with the system
+ * rows themselves, which are few, and reloads when either changed. Added, removed and edited
+ * system categories, made through any node or directly in the database, reach all nodes
+ * within one refresh interval. Edits to user-owned categories do not move the fingerprint;
+ * overlays expire on their own to pick those up.
+ *
+ * Returned categories are shared between requests and must not be modified.
+ */
+@Component
+public class CategoryCatalog {
+    
+    private static final Comparator<Category> BY_ID = Comparator.comparing(Category::getId);
+    
+    private final CategoryRepository categoryRepository;
+    private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+    private final Cache<Long, UserCategories> userCategories;
+    private final Counter hits;
+    private final Counter misses;
+    private volatile List<Object> fingerprint;
+    
+    public CategoryCatalog(CategoryRepository categoryRepository,
+                           MeterRegistry meterRegistry,
+                           @Value("${wallet.categories.max-cached-users:10000}") long maxCachedUsers,
+                           @Value("${wallet.categories.user-ttl:10m}") Duration userTtl) {
+        this.categoryRepository = categoryRepository;
+        this.userCategories = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .expireAfterWrite(userTtl)
+                .recordStats()
+                .build();
+        this.hits = Counter.builder("category.catalog.lookups").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("category.catalog.lookups").tag("result", "miss").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, userCategories, "category.catalog.users");
+    }
+    
+    /**
+     * Categories the user can pick from: the system defaults plus their own, ordered by id.
+     * A null type returns both income and expense categories.
+     */
+    public List<Category> findAvailable(Long userId, TransactionType type) {
+        UserCategories categories = forUser(userId);
+        return type == null ? categories.all() : categories.byType().get(type);
+    }
+    
+    /**
+     * Looks up a category visible to the user. Categories owned by other users are not found.
+     */
+    public Optional<Category> find(Long userId, Long categoryId) {
+        if (categoryId == null) {
+            return Optional.empty();
+        }
+        Category category = snapshot().byId().get(categoryId);
+        if (category != null) {
+            hits.increment();
+            return Optional.of(category);
+        }
+        return Optional.ofNullable(forUser(userId).own().get(categoryId));
+    }
+    
+    /**
+     * Reloads the system categories into a new snapshot and drops every user overlay.
+     */
+    public void refresh() {
+        install(currentFingerprint(), categoryRepository.findByUserIdIsNull());
+    }
+    
+    /**
+     * Drops a single user's overlay, e.g. after that user's categories changed.
+     */
+    public void invalidateUser(Long userId) {
+        userCategories.invalidate(userId);
+    }
+    
+    @Scheduled(fixedDelayString = "${wallet.categories.refresh-interval-ms:30000}")
+    public void refreshIfChanged() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            return;
+        }
+        List<Object> latest = currentFingerprint();
+        List<Category> system = categoryRepository.findByUserIdIsNull();
+        // a renamed or recoloured system category keeps the count and max id
+        if (!latest.equals(fingerprint) || !Snapshot.of(system).all().equals(current.all())) {
+            install(latest, system);
+        }
+    }
+    
+    private void install(List<Object> latest, List<Category> system) {
+        fingerprint = latest;
+        snapshot.set(Snapshot.of(system));
+        userCategories.invalidateAll();
+    }
+    
+    private Snapshot snapshot() {
+        Snapshot current = snapshot.get();
+        if (current == null) {
+            refresh();
+            current = snapshot.get();
+        }
+        return current;
+    }
+    
+    private UserCategories forUser(Long userId) {
+        Snapshot current = snapshot();
+        UserCategories categories = userCategories.getIfPresent(userId);
+        // an overlay built on top of an older snapshot is rebuilt rather than served
+        if (categories != null && categories.base() == current) {
+            hits.increment();
+            return categories;
+        }
+        misses.increment();
+        categories = UserCategories.of(current, categoryRepository.findByUserId(userId));
+        userCategories.put(userId, categories);
+        return categories;
+    }
+    
+    private List<Object> currentFingerprint() {
+        Object[] countAndMaxId = categoryRepository.fingerprint().get(0);
+        return List.of(countAndMaxId);
+    }
+    
+    private record Snapshot(Map<Long, Category> byId, List<Category> all) {
+        
+        static Snapshot of(List<Category> categories) {
+            List<Category> sorted = categories.stream().sorted(BY_ID).toList();
+            return new Snapshot(index(sorted), sorted);
+        }
+    }
+    
+    private record UserCategories(Snapshot base, Map<Long, Category> own,
+                                  List<Category> all, Map<TransactionType, List<Category>> byType) {
+        
+        static UserCategories of(Snapshot base, List<Category> own) {
+            List<Category> all = new ArrayList<>(base.all());
+            all.addAll(own);
+            all.sort(BY_ID);
+            
+            Map<TransactionType, List<Category>> byType = new EnumMap<>(TransactionType.class);
+            for (TransactionType type : TransactionType.values()) {
+                byType.put(type, all.stream().filter(c -> c.getType() == type).toList());
+            }
+            return new UserCategories(base, index(own), List.copyOf(all), Map.copyOf(byType));
+        }
+    }
+    
+    private static Map<Long, Category> index(List<Category> categories) {
+        return categories.stream().collect(Collectors.toUnmodifiableMap(Category::getId, Function.identity()));
+    }
+}
@@ -0,0 +1,76 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.WalletDailyTotal;
+import com.fintech.wallet.infrastructure.persistence.WalletDailyTotalRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps wallet_daily_totals in step with the transactions table. Every posting path calls
+ * {@link #record} in the same database transaction that inserts the rows.
+ */
+@Component
+@RequiredArgsConstructor
+public class DailyTotals {
+    
+    private final WalletDailyTotalRepository dailyTotalRepository;
+    private final DashboardCache dashboardCache;
+    
+    /**
+     * Adds already persisted transactions to their daily buckets, one UPDATE per bucket and an
+     * INSERT for buckets that do not exist yet. The caller must hold the row lock of every
+     * wallet involved (the balance update takes it), so two postings can never both find a
+     * bucket missing and insert it twice. Cached dashboards of the wallets turn stale once the
+     * transaction commits.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(Collection<Transaction> transactions) {
+        Map<Bucket, WalletDailyTotal> sums = new LinkedHashMap<>();
+        for (Transaction transaction : transactions) {
+            Bucket bucket = new Bucket(
+                    transaction.getWalletId(),
+                    transaction.getCreatedAt().toLocalDate(),
+                    transaction.getType(),
+                    transaction.getCategoryId()
+            );
+            WalletDailyTotal sum = sums.computeIfAbsent(bucket, Bucket::empty);
+            sum.setTotal(sum.getTotal().add(transaction.getAmount()));
+            sum.setTransactionCount(sum.getTransactionCount() + 1);
+        }
+        
+        for (WalletDailyTotal sum : sums.values()) {
+            int updated = dailyTotalRepository.add(
+                    sum.getWalletId(), sum.getPostingDate(), sum.getType(), sum.getCategoryId(),
+                    sum.getTotal(), sum.getTransactionCount()
+            );
+            if (updated == 0) {
+                dailyTotalRepository.save(sum);
+            }
+        }
+        sums.keySet().stream().map(Bucket::walletId).distinct().forEach(dashboardCache::invalidate);
+    }
+    
+    private record Bucket(Long walletId, LocalDate postingDate, TransactionType type, Long categoryId) {
+        
+        WalletDailyTotal empty() {
+            return WalletDailyTotal.builder()
+                    .walletId(walletId)
+                    .postingDate(postingDate)
+                    .type(type)
+                    .categoryId(categoryId)
+                    .total(BigDecimal.ZERO)
+                    .transactionCount(0)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.WalletDailyTotal;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletDailyTotalRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Backfill and consistency check for wallet_daily_totals. A rebuild recomputes a wallet's
+ * rows from the raw and the archived transactions under the wallet lock, so it cannot race
+ * with postings or with the archiver.
+ * The scheduled check compares the recent days of recently active wallets against the raw
+ * sums, counts every mismatching bucket and, unless disabled, rebuilds the wallet.
+ */
+@Slf4j
+@Component
+public class DailyTotalsMaintenance {
+    
+    private static final int WALLET_PAGE_SIZE = 500;
+    
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final WalletDailyTotalRepository dailyTotalRepository;
+    private final TransactionArchive transactionArchive;
+    private final TransactionTemplate writeTransaction;
+    private final TransactionTemplate snapshotTransaction;
+    private final Counter mismatches;
+    private final int checkDays;
+    private final boolean repair;
+    private final boolean backfillOnStartup;
+    
+    public DailyTotalsMaintenance(WalletRepository walletRepository,
+                                  TransactionRepository transactionRepository,
+                                  WalletDailyTotalRepository dailyTotalRepository,
+                                  TransactionArchive transactionArchive,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${wallet.rollups.check-days:2}") int checkDays,
+                                  @Value("${wallet.rollups.repair:true}") boolean repair,
+                                  @Value("${wallet.rollups.backfill-on-startup:false}") boolean backfillOnStartup) {
+        this.walletRepository = walletRepository;
+        this.transactionRepository = transactionRepository;
+        this.dailyTotalRepository = dailyTotalRepository;
+        this.transactionArchive = transactionArchive;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        // both sides of the comparison must see the same snapshot
+        this.snapshotTransaction = new TransactionTemplate(transactionManager);
+        this.snapshotTransaction.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshotTransaction.setReadOnly(true);
+        this.mismatches = Counter.builder("wallet.rollups.mismatches").register(meterRegistry);
+        this.checkDays = checkDays;
+        this.repair = repair;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillOnStartup) {
+            rebuildAll();
+        }
+    }
+    
+    /**
+     * Rebuilds every wallet, one wallet per database transaction.
+     */
+    public int rebuildAll() {
+        int rebuilt = 0;
+        Long afterId = 0L;
+        List<Long> walletIds;
+        do {
+            walletIds = walletRepository.findIdsAfter(afterId, PageRequest.of(0, WALLET_PAGE_SIZE));
+            for (Long walletId : walletIds) {
+                rebuild(walletId);
+                rebuilt++;
+                afterId = walletId;
+            }
+        } while (walletIds.size() == WALLET_PAGE_SIZE);
+        log.info("Rebuilt daily totals of {} wallets", rebuilt);
+        return rebuilt;
+    }
+    
+    public void rebuild(Long walletId) {
+        writeTransaction.executeWithoutResult(status -> {
+            if (walletRepository.lockById(walletId).isEmpty()) {
+                return;
+            }
+            dailyTotalRepository.deleteByWalletId(walletId);
+            dailyTotalRepository.saveAll(sumDaily(walletId, TransactionRepository.EARLIEST, TransactionRepository.LATEST).values());
+        });
+    }
+    
+    /**
+     * Compares the wallet's rollups for [fromDate, toDate) with the raw transactions and
+     * returns every bucket that differs, including buckets missing on either side.
+     */
+    public List<Mismatch> verify(Long walletId, LocalDate fromDate, LocalDate toDate) {
+        return snapshotTransaction.execute(status -> {
+            Map<Bucket, WalletDailyTotal> expected = sumDaily(walletId, fromDate.atStartOfDay(), toDate.atStartOfDay());
+            Map<Bucket, WalletDailyTotal> actual = new HashMap<>();
+            for (WalletDailyTotal row : dailyTotalRepository.findByWalletIdAndPostingDateBetween(
+                    walletId, fromDate, toDate.minusDays(1))) {
+                actual.put(new Bucket(row.getPostingDate(), row.getType(), row.getCategoryId()), row);
+            }
+            
+            Set<Bucket> buckets = new HashSet<>(expected.keySet());
+            buckets.addAll(actual.keySet());
+            List<Mismatch> found = new ArrayList<>();
+            for (Bucket bucket : buckets) {
+                WalletDailyTotal raw = expected.get(bucket);
+                WalletDailyTotal rollup = actual.get(bucket);
+                BigDecimal expectedTotal = raw != null ? raw.getTotal() : BigDecimal.ZERO;
+                long expectedCount = raw != null ? raw.getTransactionCount() : 0;
+                BigDecimal actualTotal = rollup != null ? rollup.getTotal() : BigDecimal.ZERO;
+                long actualCount = rollup != null ? rollup.getTransactionCount() : 0;
+                if (expectedTotal.compareTo(actualTotal) != 0 || expectedCount != actualCount) {
+                    found.add(new Mismatch(walletId, bucket.postingDate(), bucket.type(), bucket.categoryId(),
+                            expectedTotal, expectedCount, actualTotal, actualCount));
+                }
+            }
+            return found;
+        });
+    }
+    
+    @Scheduled(cron = "${wallet.rollups.check-cron:0 30 3 * * *}")
+    public void checkRecent() {
+        LocalDate today = LocalDate.now();
+        LocalDate fromDate = today.minusDays(checkDays);
+        LocalDateTime since = fromDate.atStartOfDay();
+        
+        for (Long walletId : transactionRepository.findWalletIdsActiveSince(since)) {
+            List<Mismatch> found = verify(walletId, fromDate, today.plusDays(1));
+            if (found.isEmpty()) {
+                continue;
+            }
+            mismatches.increment(found.size());
+            log.warn("Daily totals of wallet {} differ from transactions in {} buckets, first: {}",
+                    walletId, found.size(), found.get(0));
+            if (repair) {
+                rebuild(walletId);
+            }
+        }
+    }
+    
+    /**
+     * Daily buckets of [startDate, untilDate) summed from the raw transactions plus the
+     * archived ones. An archived row still present in the database, left by an archive run
+     * that crashed before its delete committed, is only counted once.
+     */
+    private Map<Bucket, WalletDailyTotal> sumDaily(Long walletId, LocalDateTime startDate, LocalDateTime untilDate) {
+        Map<Bucket, WalletDailyTotal> buckets = new HashMap<>();
+        for (Object[] day : transactionRepository.sumDailyByTypeAndCategory(walletId, startDate, untilDate)) {
+            Long categoryId = day[2] != null ? ((Number) day[2]).longValue() : null;
+            Bucket bucket = new Bucket((LocalDate) day[0], (TransactionType) day[1], categoryId);
+            buckets.put(bucket, bucket.toRow(walletId, (BigDecimal) day[3], ((Number) day[4]).longValue()));
+        }
+        
+        YearMonth month = null;
+        Set<Long> stillInDatabase = Set.of();
+        for (Transaction transaction : transactionArchive.read(walletId, startDate, untilDate)) {
+            if (!YearMonth.from(transaction.getCreatedAt()).equals(month)) {
+                month = YearMonth.from(transaction.getCreatedAt());
+                stillInDatabase = new HashSet<>(transactionRepository.findIdsByWalletIdAndCreatedAtRange(
+                        walletId, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+            }
+            if (stillInDatabase.contains(transaction.getId())) {
+                continue;
+            }
+            Bucket bucket = new Bucket(transaction.getCreatedAt().toLocalDate(), transaction.getType(), transaction.getCategoryId());
+            buckets.merge(bucket, bucket.toRow(walletId, transaction.getAmount(), 1), (row, archived) -> {
+                row.setTotal(row.getTotal().add(archived.getTotal()));
+                row.setTransactionCount(row.getTransactionCount() + 1);
+                return row;
+            });
+        }
+        return buckets;
+    }
+    
+    public record Mismatch(Long walletId, LocalDate postingDate, TransactionType type, Long categoryId,
+                           BigDecimal expectedTotal, long expectedCount,
+                           BigDecimal actualTotal, long actualCount) {
+    }
+    
+    private record Bucket(LocalDate postingDate, TransactionType type, Long categoryId) {
+        
+        WalletDailyTotal toRow(Long walletId, BigDecimal total, long count) {
+            return WalletDailyTotal.builder()
+                    .walletId(walletId)
+                    .postingDate(postingDate)
+                    .type(type)
+                    .categoryId(categoryId)
+                    .total(total)
+                    .transactionCount(count)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Computed dashboards keyed by wallet and date range. Each entry records the wallet version
+ * it was computed at; a posting bumps the version once its transaction commits, which turns
+ * every entry of that wallet stale without touching them.
+ *
+ * A stale entry is still served while exactly one recomputation per key runs. After a write
+ * the first reader recomputes in its own thread, so a user sees their own posting, and only
+ * readers arriving during that recomputation get the previous value. Entries that are merely
+ * old are refreshed in the background. Versions come from one global sequence, so a wallet
+ * whose version was evicted can never reuse a number an entry still carries.
+ */
+@Component
+public class DashboardCache {
+    
+    private final Cache<Key, Entry> entries;
+    private final Cache<Long, Long> versions;
+    private final ConcurrentMap<Key, CompletableFuture<Entry>> recomputing = new ConcurrentHashMap<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Executor executor;
+    private final long refreshAfterNanos;
+    private final Counter hits;
+    private final Counter staleHits;
+    private final Counter misses;
+    private final Timer recomputeTimer;
+    
+    public DashboardCache(MeterRegistry meterRegistry,
+                          @Qualifier("applicationTaskExecutor") Executor executor,
+                          @Value("${wallet.dashboard.cache.max-entries:10000}") long maxEntries,
+                          @Value("${wallet.dashboard.cache.ttl:10m}") Duration ttl,
+                          @Value("${wallet.dashboard.cache.refresh-after:1m}") Duration refreshAfter) {
+        this.executor = executor;
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.entries = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        // outlives the entries it guards; an evicted version only costs a recomputation
+        this.versions = Caffeine.newBuilder()
+                .maximumSize(maxEntries * 4)
+                .expireAfterAccess(ttl.multipliedBy(2))
+                .build();
+        this.hits = Counter.builder("dashboard.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.staleHits = Counter.builder("dashboard.cache.requests").tag("result", "stale").register(meterRegistry);
+        this.misses = Counter.builder("dashboard.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.recomputeTimer = Timer.builder("dashboard.cache.recompute").register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, entries, "dashboard.cache.entries");
+    }
+    
+    /**
+     * Returns the cached dashboard of the range, computing it with {@code loader} when there
+     * is no usable entry. The range must already be normalized by the caller.
+     */
+    public DashboardDTO get(Long walletId, LocalDateTime startDate, LocalDateTime endDate,
+                            Supplier<DashboardDTO> loader) {
+        Key key = new Key(walletId, startDate, endDate);
+        long version = version(walletId);
+        Entry entry = entries.getIfPresent(key);
+        
+        if (entry == null) {
+            misses.increment();
+            return await(recompute(key, version, loader, false));
+        }
+        if (entry.version() == version) {
+            if (System.nanoTime() - entry.computedAt() < refreshAfterNanos) {
+                hits.increment();
+            } else {
+                staleHits.increment();
+                recompute(key, version, loader, true);
+            }
+            return entry.dashboard();
+        }
+        
+        // written to since: recompute here unless another reader already is
+        CompletableFuture<Entry> running = recomputing.get(key);
+        if (running != null) {
+            staleHits.increment();
+            return entry.dashboard();
+        }
+        misses.increment();
+        return await(recompute(key, version, loader, false));
+    }
+    
+    /**
+     * Marks every cached dashboard of the wallet stale. Inside a transaction this happens
+     * after commit, so a reader can never cache what the transaction had not yet written
+     * under the new version.
+     */
+    public void invalidate(Long walletId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(walletId);
+                }
+            });
+        } else {
+            bump(walletId);
+        }
+    }
+    
+    private void bump(Long walletId) {
+        versions.put(walletId, sequence.incrementAndGet());
+    }
+    
+    private long version(Long walletId) {
+        return versions.get(walletId, id -> sequence.incrementAndGet());
+    }
+    
+    private CompletableFuture<Entry> recompute(Key key, long version, Supplier<DashboardDTO> loader, boolean async) {
+        CompletableFuture<Entry> future = new CompletableFuture<>();
+        CompletableFuture<Entry> running = recomputing.putIfAbsent(key, future);
+        if (running != null) {
+            return running;
+        }
+        
+        Runnable task = () -> {
+            try {
+                DashboardDTO dashboard = recomputeTimer.record(loader);
+                Entry computed = new Entry(version, System.nanoTime(), dashboard);
+                // a slow recomputation must not replace a newer one
+                entries.asMap().merge(key, computed, (old, fresh) -> old.version() > fresh.version() ? old : fresh);
+                future.complete(computed);
+            } catch (RuntimeException e) {
+                future.completeExceptionally(e);
+            } finally {
+                recomputing.remove(key, future);
+            }
+        };
+        if (async) {
+            try {
+                executor.execute(task);
+            } catch (RejectedExecutionException e) {
+                // keep serving the current entry and let a later reader retry
+                recomputing.remove(key, future);
+            }
+        } else {
+            task.run();
+        }
+        return future;
+    }
+    
+    private static DashboardDTO await(CompletableFuture<Entry> future) {
+        try {
+            return future.join().dashboard();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private record Key(Long walletId, LocalDateTime startDate, LocalDateTime endDate) {
+    }
+    
+    private record Entry(long version, long computedAt, DashboardDTO dashboard) {
+    }
+}
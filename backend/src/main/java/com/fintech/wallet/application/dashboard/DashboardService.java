@@ -1,62 +1,87 @@
 package com.fintech.wallet.application.dashboard;
 
+import com.fintech.wallet.application.category.CategoryCatalog;
 import com.fintech.wallet.application.wallet.WalletService;
 import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.Transaction;
 import com.fintech.wallet.domain.TransactionType;
 import com.fintech.wallet.domain.Wallet;
-import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
 import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletDailyTotalRepository;
 import com.fintech.wallet.interfaces.dto.CategorySummaryDTO;
 import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import com.fintech.wallet.interfaces.dto.DashboardSeriesDTO;
+import com.fintech.wallet.interfaces.dto.SeriesPointDTO;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
 
 import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class DashboardService {
     
+    private static final int MAX_SERIES_POINTS = 1000;
+    // created_at is written with the server's local clock
+    private static final ZoneId STORAGE_ZONE = ZoneId.systemDefault();
+    
     private final WalletService walletService;
     private final TransactionRepository transactionRepository;
-    private final CategoryRepository categoryRepository;
+    private final WalletDailyTotalRepository dailyTotalRepository;
+    private final TransactionArchive transactionArchive;
+    private final CategoryCatalog categoryCatalog;
+    private final DashboardCache dashboardCache;
     
-    public DashboardDTO getDashboardData(Long userId, LocalDateTime startDate, LocalDateTime endDate) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
+    /**
+     * Serves the dashboard from {@link DashboardCache}. The range is widened to whole minutes
+     * so the repeated "last month until now" requests of the frontend share an entry; the end
+     * is rounded up, so a transaction posted a moment ago is still inside the range.
+     */
+    public DashboardDTO getDashboardData(Long userId, Long walletId, LocalDateTime startDate, LocalDateTime endDate) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = (startDate != null ? startDate : now.minusMonths(1)).truncatedTo(ChronoUnit.MINUTES);
+        LocalDateTime end = ceilToMinute(endDate != null ? endDate : now);
         
-        if (startDate == null) {
-            startDate = LocalDateTime.now().minusMonths(1);
-        }
-        if (endDate == null) {
-            endDate = LocalDateTime.now();
-        }
+        return dashboardCache.get(walletId, start, end, () -> computeDashboard(userId, walletId, start, end));
+    }
+    
+    private DashboardDTO computeDashboard(Long userId, Long walletId, LocalDateTime startDate, LocalDateTime endDate) {
+        // read the balance here: the cached value must not predate the version it is stored under
+        Wallet wallet = walletService.getWallet(walletId);
         
-        BigDecimal totalIncome = transactionRepository.sumAmountByWalletIdAndTypeAndDateRange(
-                wallet.getId(), TransactionType.INCOME, startDate, endDate
-        );
-        if (totalIncome == null) {
-            totalIncome = BigDecimal.ZERO;
-        }
+        Map<Group, BigDecimal> groups = sumByTypeAndCategory(walletId, startDate, endDate);
         
-        BigDecimal totalExpense = transactionRepository.sumAmountByWalletIdAndTypeAndDateRange(
-                wallet.getId(), TransactionType.EXPENSE, startDate, endDate
-        );
-        if (totalExpense == null) {
-            totalExpense = BigDecimal.ZERO;
-        }
+        BigDecimal totalIncome = BigDecimal.ZERO;
+        BigDecimal totalExpense = BigDecimal.ZERO;
+        List<CategorySummaryDTO> expensesByCategory = new ArrayList<>();
+        List<CategorySummaryDTO> incomeByCategory = new ArrayList<>();
         
-        List<CategorySummaryDTO> expensesByCategory = getCategorySummaries(
-                wallet.getId(), TransactionType.EXPENSE, startDate, endDate
-        );
-        
-        List<CategorySummaryDTO> incomeByCategory = getCategorySummaries(
-                wallet.getId(), TransactionType.INCOME, startDate, endDate
-        );
+        for (Map.Entry<Group, BigDecimal> group : groups.entrySet()) {
+            BigDecimal total = group.getValue();
+            
+            CategorySummaryDTO summary = toCategorySummary(userId, group.getKey().categoryId(), total);
+            if (group.getKey().type() == TransactionType.INCOME) {
+                totalIncome = totalIncome.add(total);
+                incomeByCategory.add(summary);
+            } else {
+                totalExpense = totalExpense.add(total);
+                expensesByCategory.add(summary);
+            }
+        }
         
         return DashboardDTO.builder()
                 .totalIncome(totalIncome)
@@ -67,30 +92,170 @@ public class DashboardService {
                 .build();
     }
     
-    private List<CategorySummaryDTO> getCategorySummaries(Long walletId, TransactionType type, 
-                                                          LocalDateTime startDate, LocalDateTime endDate) {
-        List<Object[]> results = transactionRepository.sumAmountByCategoryAndType(
-                walletId, type, startDate, endDate
-        );
+    /**
+     * Income, expense and net per day, week or month between two dates of the given time zone,
+     * both inclusive and widened to whole buckets. Every bucket is present, zero when nothing
+     * was posted. Stored days that fall inside one bucket are read from wallet_daily_totals;
+     * only the days a bucket boundary cuts through (none when the zone matches the server's)
+     * are summed from the raw and archived rows, by hour or, for zones with a fractional
+     * offset, by minute.
+     */
+    public DashboardSeriesDTO getSeries(Long walletId, SeriesGranularity granularity,
+                                        LocalDate startDate, LocalDate endDate, String zoneId) {
+        ZoneId zone = parseZone(zoneId);
+        LocalDate end = endDate != null ? endDate : LocalDate.now(zone);
+        LocalDate start = startDate != null ? startDate : granularity.defaultStart(end);
+        if (start.isAfter(end)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Data inicial deve ser anterior à data final");
+        }
         
-        List<CategorySummaryDTO> summaries = new ArrayList<>();
-        for (Object[] result : results) {
-            Long categoryId = ((Number) result[0]).longValue();
-            BigDecimal total = (BigDecimal) result[1];
-            
-            Category category = categoryRepository.findById(categoryId).orElse(null);
-            String categoryName = category != null ? category.getName() : "Sem categoria";
-            String categoryColor = category != null ? category.getColor() : "#6b7280";
-            
-            summaries.add(CategorySummaryDTO.builder()
-                    .categoryId(categoryId)
-                    .categoryName(categoryName)
-                    .categoryColor(categoryColor)
-                    .total(total)
+        // counted before any bucket is built, so a range of centuries costs nothing to refuse
+        if (granularity.buckets(start, end) > MAX_SERIES_POINTS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Período muito longo: máximo de " + MAX_SERIES_POINTS + " pontos por série");
+        }
+        SeriesBuckets buckets = SeriesBuckets.of(granularity, start, end, zone, STORAGE_ZONE);
+        int size = buckets.starts().size();
+        BigDecimal[] income = zeros(size);
+        BigDecimal[] expense = zeros(size);
+        
+        for (Object[] row : dailyTotalRepository.sumTotalByDayAndType(
+                walletId, buckets.firstDay(), buckets.lastDayExclusive())) {
+            LocalDate day = (LocalDate) row[0];
+            if (!buckets.isSplit(day)) {
+                add(buckets.indexOf(day.atStartOfDay()), (TransactionType) row[1], (BigDecimal) row[2], income, expense);
+            }
+        }
+        for (LocalDateTime[] range : buckets.splitRanges()) {
+            if (buckets.hourAligned()) {
+                for (Object[] row : transactionRepository.sumAmountByHourAndType(walletId, range[0], range[1])) {
+                    LocalDateTime hour = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), 0);
+                    add(buckets.indexOf(hour), (TransactionType) row[2], (BigDecimal) row[3], income, expense);
+                }
+            } else {
+                for (Object[] row : transactionRepository.sumAmountByMinuteAndType(walletId, range[0], range[1])) {
+                    LocalDateTime minute = ((LocalDate) row[0]).atTime(((Number) row[1]).intValue(), ((Number) row[2]).intValue());
+                    add(buckets.indexOf(minute), (TransactionType) row[3], (BigDecimal) row[4], income, expense);
+                }
+            }
+            ChronoUnit unit = buckets.hourAligned() ? ChronoUnit.HOURS : ChronoUnit.MINUTES;
+            for (Transaction transaction : transactionArchive.read(walletId, range[0], range[1])) {
+                add(buckets.indexOf(transaction.getCreatedAt().truncatedTo(unit)),
+                        transaction.getType(), transaction.getAmount(), income, expense);
+            }
+        }
+        
+        List<SeriesPointDTO> points = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            points.add(SeriesPointDTO.builder()
+                    .start(buckets.starts().get(i))
+                    .income(income[i])
+                    .expense(expense[i])
+                    .net(income[i].subtract(expense[i]))
                     .build());
         }
+        return DashboardSeriesDTO.builder()
+                .granularity(granularity.name().toLowerCase(Locale.ROOT))
+                .zone(zone.getId())
+                .points(points)
+                .build();
+    }
+    
+    private static ZoneId parseZone(String zoneId) {
+        if (zoneId == null || zoneId.isBlank()) {
+            return STORAGE_ZONE;
+        }
+        try {
+            return ZoneId.of(zoneId);
+        } catch (DateTimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Fuso horário inválido: " + zoneId);
+        }
+    }
+    
+    private static BigDecimal[] zeros(int size) {
+        BigDecimal[] values = new BigDecimal[size];
+        Arrays.fill(values, BigDecimal.ZERO);
+        return values;
+    }
+    
+    private static void add(int index, TransactionType type, BigDecimal amount, BigDecimal[] income, BigDecimal[] expense) {
+        if (index < 0) {
+            return;
+        }
+        if (type == TransactionType.INCOME) {
+            income[index] = income[index].add(amount);
+        } else {
+            expense[index] = expense[index].add(amount);
+        }
+    }
+    
+    /**
+     * Sums the period per (type, category). Whole days come from wallet_daily_totals, so the
+     * cost depends on the number of days rather than on the number of transactions; only the
+     * partial days at either end of the range are summed from the raw and archived rows. The
+     * range is inclusive on both ends, like the raw query.
+     */
+    private Map<Group, BigDecimal> sumByTypeAndCategory(Long walletId, LocalDateTime startDate, LocalDateTime endDate) {
+        Map<Group, BigDecimal> groups = new LinkedHashMap<>();
+        LocalDate firstFullDay = startDate.toLocalDate().atStartOfDay().equals(startDate)
+                ? startDate.toLocalDate()
+                : startDate.toLocalDate().plusDays(1);
+        LocalDate lastDayExclusive = endDate.toLocalDate();
+        
+        if (!firstFullDay.isBefore(lastDayExclusive)) {
+            merge(groups, transactionRepository.sumAmountByTypeAndCategory(walletId, startDate, endDate));
+            mergeArchived(groups, walletId, startDate, endDate.plus(1, ChronoUnit.MICROS));
+            return groups;
+        }
+        
+        if (startDate.isBefore(firstFullDay.atStartOfDay())) {
+            merge(groups, transactionRepository.sumAmountByTypeAndCategoryUntil(
+                    walletId, startDate, firstFullDay.atStartOfDay()));
+            mergeArchived(groups, walletId, startDate, firstFullDay.atStartOfDay());
+        }
+        merge(groups, dailyTotalRepository.sumTotalByTypeAndCategory(walletId, firstFullDay, lastDayExclusive));
+        merge(groups, transactionRepository.sumAmountByTypeAndCategory(
+                walletId, lastDayExclusive.atStartOfDay(), endDate));
+        mergeArchived(groups, walletId, lastDayExclusive.atStartOfDay(), endDate.plus(1, ChronoUnit.MICROS));
+        return groups;
+    }
+    
+    /**
+     * Adds archived rows of [startDate, untilDate); rollups keep covering archived days, so
+     * only the partial days need this. Timestamps are stored to the microsecond, which is how
+     * the callers turn an inclusive end into an exclusive one.
+     */
+    private void mergeArchived(Map<Group, BigDecimal> groups, Long walletId, LocalDateTime startDate, LocalDateTime untilDate) {
+        for (Transaction transaction : transactionArchive.read(walletId, startDate, untilDate)) {
+            groups.merge(new Group(transaction.getType(), transaction.getCategoryId()), transaction.getAmount(), BigDecimal::add);
+        }
+    }
+    
+    private static LocalDateTime ceilToMinute(LocalDateTime value) {
+        LocalDateTime floor = value.truncatedTo(ChronoUnit.MINUTES);
+        return floor.equals(value) ? value : floor.plusMinutes(1);
+    }
+    
+    private static void merge(Map<Group, BigDecimal> groups, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            Long categoryId = row[1] != null ? ((Number) row[1]).longValue() : null;
+            groups.merge(new Group((TransactionType) row[0], categoryId), (BigDecimal) row[2], BigDecimal::add);
+        }
+    }
+    
+    private CategorySummaryDTO toCategorySummary(Long userId, Long categoryId, BigDecimal total) {
+        Category category = categoryCatalog.find(userId, categoryId).orElse(null);
+        String categoryName = category != null ? category.getName() : "Sem categoria";
+        String categoryColor = category != null ? category.getColor() : "#6b7280";
         
-        return summaries;
+        return CategorySummaryDTO.builder()
+                .categoryId(categoryId)
+                .categoryName(categoryName)
+                .categoryColor(categoryColor)
+                .total(total)
+                .build();
+    }
+    
+    private record Group(TransactionType type, Long categoryId) {
     }
 }
-
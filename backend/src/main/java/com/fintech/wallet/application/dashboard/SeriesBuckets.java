@@ -0,0 +1,110 @@
+package com.fintech.wallet.application.dashboard;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Bucket boundaries of a series, computed in the caller's time zone and converted to the
+ * zone transactions are stored in. A stored day whose midnight-to-midnight span lies inside
+ * one bucket can be read from the daily rollups; a stored day crossed by a boundary has to
+ * be split using the raw rows.
+ */
+class SeriesBuckets {
+    
+    private final List<LocalDate> starts;
+    private final LocalDateTime[] bounds;
+    private final Set<LocalDate> splitDays = new TreeSet<>();
+    private final boolean hourAligned;
+    
+    private SeriesBuckets(List<LocalDate> starts, LocalDateTime[] bounds) {
+        this.starts = starts;
+        this.bounds = bounds;
+        boolean aligned = true;
+        for (LocalDateTime bound : bounds) {
+            if (!bound.toLocalTime().equals(LocalTime.MIDNIGHT)) {
+                splitDays.add(bound.toLocalDate());
+            }
+            aligned &= bound.getMinute() == 0 && bound.getSecond() == 0 && bound.getNano() == 0;
+        }
+        this.hourAligned = aligned;
+    }
+    
+    static SeriesBuckets of(SeriesGranularity granularity, LocalDate startDate, LocalDate endDate,
+                            ZoneId zone, ZoneId storageZone) {
+        List<LocalDate> starts = new ArrayList<>();
+        for (LocalDate start = granularity.truncate(startDate); !start.isAfter(endDate); start = granularity.next(start)) {
+            starts.add(start);
+        }
+        LocalDateTime[] bounds = new LocalDateTime[starts.size() + 1];
+        for (int i = 0; i <= starts.size(); i++) {
+            LocalDate day = i < starts.size() ? starts.get(i) : granularity.next(starts.get(i - 1));
+            bounds[i] = day.atStartOfDay(zone).withZoneSameInstant(storageZone).toLocalDateTime();
+        }
+        return new SeriesBuckets(starts, bounds);
+    }
+    
+    List<LocalDate> starts() {
+        return starts;
+    }
+    
+    /**
+     * Index of the bucket holding the stored time, or -1 when it is outside the series.
+     */
+    int indexOf(LocalDateTime time) {
+        if (time.isBefore(bounds[0]) || !time.isBefore(bounds[bounds.length - 1])) {
+            return -1;
+        }
+        int position = Arrays.binarySearch(bounds, time);
+        return position >= 0 ? position : -position - 2;
+    }
+    
+    boolean isSplit(LocalDate day) {
+        return splitDays.contains(day);
+    }
+    
+    /**
+     * Whether every boundary falls on a whole stored hour, so hourly sums can be split exactly.
+     */
+    boolean hourAligned() {
+        return hourAligned;
+    }
+    
+    LocalDate firstDay() {
+        return bounds[0].toLocalDate();
+    }
+    
+    LocalDate lastDayExclusive() {
+        return bounds[bounds.length - 1].toLocalDate().plusDays(1);
+    }
+    
+    /**
+     * Consecutive split days merged into [start, end) ranges, so each range is one query.
+     */
+    List<LocalDateTime[]> splitRanges() {
+        List<LocalDateTime[]> ranges = new ArrayList<>();
+        LocalDate runStart = null;
+        LocalDate runEnd = null;
+        for (LocalDate day : splitDays) {
+            if (runEnd != null && day.equals(runEnd)) {
+                runEnd = day.plusDays(1);
+                continue;
+            }
+            if (runStart != null) {
+                ranges.add(new LocalDateTime[]{runStart.atStartOfDay(), runEnd.atStartOfDay()});
+            }
+            runStart = day;
+            runEnd = day.plusDays(1);
+        }
+        if (runStart != null) {
+            ranges.add(new LocalDateTime[]{runStart.atStartOfDay(), runEnd.atStartOfDay()});
+        }
+        return ranges;
+    }
+}
@@ -0,0 +1,70 @@
+package com.fintech.wallet.application.dashboard;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Bucket size of a dashboard series. Weeks start on Monday.
+ */
+public enum SeriesGranularity {
+    DAY,
+    WEEK,
+    MONTH;
+    
+    public static SeriesGranularity parse(String value) {
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Granularidade inválida: " + value);
+        }
+    }
+    
+    /**
+     * First day of the bucket containing the date.
+     */
+    public LocalDate truncate(LocalDate date) {
+        return switch (this) {
+            case DAY -> date;
+            case WEEK -> date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> date.withDayOfMonth(1);
+        };
+    }
+    
+    public LocalDate next(LocalDate bucketStart) {
+        return switch (this) {
+            case DAY -> bucketStart.plusDays(1);
+            case WEEK -> bucketStart.plusWeeks(1);
+            case MONTH -> bucketStart.plusMonths(1);
+        };
+    }
+    
+    /**
+     * Number of buckets from the one containing {@code startDate} to the one containing
+     * {@code endDate}, counted without building them.
+     */
+    public long buckets(LocalDate startDate, LocalDate endDate) {
+        ChronoUnit unit = switch (this) {
+            case DAY -> ChronoUnit.DAYS;
+            case WEEK -> ChronoUnit.WEEKS;
+            case MONTH -> ChronoUnit.MONTHS;
+        };
+        return unit.between(truncate(startDate), endDate) + 1;
+    }
+    
+    /**
+     * Start of the default range ending on {@code endDate}: 30 days, 12 weeks or 12 months.
+     */
+    public LocalDate defaultStart(LocalDate endDate) {
+        return switch (this) {
+            case DAY -> endDate.minusDays(29);
+            case WEEK -> endDate.minusWeeks(11);
+            case MONTH -> endDate.minusMonths(11);
+        };
+    }
+}
@@ -0,0 +1,261 @@
+package com.fintech.wallet.application.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.DecimalNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fintech.wallet.domain.IdempotencyRecord;
+import com.fintech.wallet.infrastructure.persistence.IdempotencyRecordRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Runs a write at most once per user and Idempotency-Key, and answers retries with the
+ * recorded response. A retry with the same key but a different body is refused with 422;
+ * bodies are compared as JSON with sorted properties and numbers without trailing zeros, so
+ * {@code 10} and {@code 10.00} are the same amount.
+ *
+ * Keys in use on this instance live in a bounded in-memory tier, where a duplicate arriving
+ * while the first request is still running waits on its result instead of running again.
+ * Every key is also claimed in idempotency_keys before the write runs, which covers other
+ * instances and restarts: a finished key replays its stored response, a key still in progress
+ * elsewhere gets 409. A write that fails releases its key so it can be retried; one whose
+ * instance died mid-way keeps answering 409 until the key expires, as it may have been posted.
+ */
+@Slf4j
+@Component
+public class IdempotencyStore {
+    
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final int MAX_KEY_LENGTH = 255;
+    
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate writeTransaction;
+    private final Duration retention;
+    private final Cache<Key, InFlight> hot;
+    private final Counter executed;
+    private final Counter replayed;
+    
+    public IdempotencyStore(IdempotencyRecordRepository repository,
+                            ObjectMapper objectMapper,
+                            PlatformTransactionManager transactionManager,
+                            MeterRegistry meterRegistry,
+                            @Value("${wallet.idempotency.max-cached-keys:10000}") long maxCachedKeys,
+                            @Value("${wallet.idempotency.cache-ttl:10m}") Duration cacheTtl,
+                            @Value("${wallet.idempotency.retention:24h}") Duration retention) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.retention = retention;
+        this.hot = Caffeine.newBuilder()
+                .maximumSize(maxCachedKeys)
+                .expireAfterWrite(cacheTtl)
+                .build();
+        this.executed = Counter.builder("idempotency.requests").tag("result", "executed").register(meterRegistry);
+        this.replayed = Counter.builder("idempotency.requests").tag("result", "replayed").register(meterRegistry);
+    }
+    
+    /**
+     * Runs {@code action} unless the key was already used for this user, in which case the
+     * recorded response is returned, its body read back as {@code bodyType}. Without a key the
+     * action just runs. {@code operation} and {@code request} make up the request fingerprint.
+     */
+    public <T> CompletableFuture<ResponseEntity<T>> execute(Long userId, String idempotencyKey,
+                                                            String operation, Object request, Class<T> bodyType,
+                                                            Supplier<CompletableFuture<ResponseEntity<T>>> action) {
+        if (idempotencyKey == null) {
+            return action.get();
+        }
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Idempotency-Key inválida");
+        }
+        
+        String fingerprint = fingerprint(operation, request);
+        Key key = new Key(userId, idempotencyKey);
+        InFlight mine = new InFlight(fingerprint, new CompletableFuture<>());
+        InFlight first = hot.asMap().putIfAbsent(key, mine);
+        if (first != null) {
+            checkFingerprint(first.fingerprint(), fingerprint);
+            replayed.increment();
+            return first.response().thenApply(stored -> replay(stored, bodyType));
+        }
+        
+        Long recordId;
+        try {
+            IdempotencyRecord claimed = claim(userId, idempotencyKey, fingerprint);
+            if (claimed.getResponseStatus() != null) {
+                StoredResponse stored = new StoredResponse(claimed.getResponseStatus(), claimed.getResponseBody());
+                mine.response().complete(stored);
+                replayed.increment();
+                return CompletableFuture.completedFuture(replay(stored, bodyType));
+            }
+            recordId = claimed.getId();
+        } catch (RuntimeException e) {
+            hot.asMap().remove(key, mine);
+            mine.response().completeExceptionally(e);
+            throw e;
+        }
+        
+        executed.increment();
+        CompletableFuture<ResponseEntity<T>> result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            result = CompletableFuture.failedFuture(e);
+        }
+        return result.whenComplete((response, error) -> {
+            if (error != null) {
+                release(recordId);
+                hot.asMap().remove(key, mine);
+                mine.response().completeExceptionally(error);
+                return;
+            }
+            try {
+                StoredResponse stored = new StoredResponse(response.getStatusCode().value(), serialize(response.getBody()));
+                writeTransaction.executeWithoutResult(status -> repository.complete(recordId, stored.status(), stored.body()));
+                mine.response().complete(stored);
+            } catch (RuntimeException e) {
+                // the write went through, so the key stays in progress rather than released
+                log.error("Could not record response for idempotency key {}", recordId, e);
+                hot.asMap().remove(key, mine);
+                mine.response().completeExceptionally(inProgress());
+            }
+        });
+    }
+    
+    @Scheduled(cron = "${wallet.idempotency.cleanup-cron:0 15 * * * *}")
+    public void deleteExpired() {
+        int deleted = writeTransaction.execute(status ->
+                repository.deleteCreatedBefore(LocalDateTime.now().minus(retention)));
+        if (deleted > 0) {
+            log.info("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+    
+    /**
+     * Inserts the key as in progress, or returns the row already holding it.
+     */
+    private IdempotencyRecord claim(Long userId, String idempotencyKey, String fingerprint) {
+        try {
+            return writeTransaction.execute(status -> repository.saveAndFlush(IdempotencyRecord.builder()
+                    .userId(userId)
+                    .idempotencyKey(idempotencyKey)
+                    .fingerprint(fingerprint)
+                    .build()));
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = repository.findByUserIdAndIdempotencyKey(userId, idempotencyKey)
+                    .orElseThrow(() -> inProgress());
+            checkFingerprint(existing.getFingerprint(), fingerprint);
+            if (existing.getResponseStatus() == null) {
+                throw inProgress();
+            }
+            return existing;
+        }
+    }
+    
+    private void release(Long recordId) {
+        try {
+            writeTransaction.executeWithoutResult(status -> repository.deleteById(recordId));
+        } catch (RuntimeException e) {
+            log.error("Could not release idempotency key {}", recordId, e);
+        }
+    }
+    
+    private <T> ResponseEntity<T> replay(StoredResponse stored, Class<T> bodyType) {
+        try {
+            T body = stored.body() == null ? null : objectMapper.readValue(stored.body(), bodyType);
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable stored response", e);
+        }
+    }
+    
+    private String serialize(Object body) {
+        try {
+            return body == null ? null : objectMapper.writeValueAsString(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize response", e);
+        }
+    }
+    
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) '\n');
+            digest.update(objectMapper.writeValueAsBytes(canonical(objectMapper.valueToTree(request))));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+    
+    private JsonNode canonical(JsonNode node) {
+        if (node.isObject()) {
+            TreeMap<String, JsonNode> sorted = new TreeMap<>();
+            node.fields().forEachRemaining(field -> sorted.put(field.getKey(), canonical(field.getValue())));
+            ObjectNode object = objectMapper.createObjectNode();
+            sorted.forEach(object::set);
+            return object;
+        }
+        if (node.isArray()) {
+            ArrayNode array = objectMapper.createArrayNode();
+            for (Iterator<JsonNode> elements = node.elements(); elements.hasNext(); ) {
+                array.add(canonical(elements.next()));
+            }
+            return array;
+        }
+        if (node.isNumber()) {
+            return DecimalNode.valueOf(node.decimalValue().stripTrailingZeros());
+        }
+        return node;
+    }
+    
+    private static void checkFingerprint(String recorded, String fingerprint) {
+        if (!recorded.equals(fingerprint)) {
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY,
+                    "Idempotency-Key já usada com outra requisição");
+        }
+    }
+    
+    private static ResponseStatusException inProgress() {
+        return new ResponseStatusException(HttpStatus.CONFLICT,
+                "Requisição com esta Idempotency-Key ainda em processamento");
+    }
+    
+    private record Key(Long userId, String idempotencyKey) {
+    }
+    
+    private record InFlight(String fingerprint, CompletableFuture<StoredResponse> response) {
+    }
+    
+    private record StoredResponse(int status, String body) {
+    }
+}
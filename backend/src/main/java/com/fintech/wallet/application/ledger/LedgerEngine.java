@@ -0,0 +1,71 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * In-process ledger: wallets are hashed onto single-threaded shards, each of which keeps
+ * the balances of its wallets in memory and group-commits its postings to the database.
+ * Because a wallet always lands on the same shard, postings for it are applied in order
+ * without any row contention between application threads.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.ledger.mode", havingValue = "sharded")
+public class LedgerEngine {
+    
+    private final LedgerShard[] shards;
+    
+    public LedgerEngine(LedgerWriter ledgerWriter,
+                        WalletRepository walletRepository,
+                        @Value("${wallet.ledger.shards:4}") int shardCount,
+                        @Value("${wallet.ledger.queue-capacity:4096}") int queueCapacity,
+                        @Value("${wallet.ledger.batch-size:256}") int batchSize) {
+        this.shards = new LedgerShard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new LedgerShard(i, ledgerWriter, walletRepository, queueCapacity, batchSize);
+        }
+    }
+    
+    @PostConstruct
+    public void start() {
+        for (LedgerShard shard : shards) {
+            shard.start();
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        for (LedgerShard shard : shards) {
+            shard.stop();
+        }
+    }
+    
+    /**
+     * Enqueues the transaction on its wallet's shard. The future completes with the persisted
+     * transaction once the batch holding it commits, or exceptionally if it is rejected.
+     */
+    public CompletableFuture<Transaction> post(Transaction transaction) {
+        transaction.validate();
+        
+        LedgerShard shard = shardFor(transaction.getWalletId());
+        CompletableFuture<Transaction> future = new CompletableFuture<>();
+        if (!shard.offer(new Posting(transaction, future))) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Ledger sobrecarregado, tente novamente");
+        }
+        return future;
+    }
+    
+    private LedgerShard shardFor(Long walletId) {
+        long h = walletId * 0x9E3779B97F4A7C15L;
+        return shards[(int) Math.floorMod(h ^ (h >>> 32), (long) shards.length)];
+    }
+}
@@ -0,0 +1,50 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.infrastructure.mappers.TransactionMapper;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Entry point for postings coming from the API. With {@code wallet.ledger.mode=sharded}
+ * they go through the {@link LedgerEngine}; otherwise they take the direct path through
+ * {@link TransactionService#createTransaction}, one database transaction per posting.
+ */
+@Service
+public class LedgerService {
+    
+    private final TransactionService transactionService;
+    private final TransactionMapper transactionMapper;
+    private final ObjectProvider<LedgerEngine> ledgerEngine;
+    private final Executor executor;
+    
+    public LedgerService(TransactionService transactionService,
+                         TransactionMapper transactionMapper,
+                         ObjectProvider<LedgerEngine> ledgerEngine,
+                         @Qualifier("applicationTaskExecutor") Executor executor) {
+        this.transactionService = transactionService;
+        this.transactionMapper = transactionMapper;
+        this.ledgerEngine = ledgerEngine;
+        this.executor = executor;
+    }
+    
+    public CompletableFuture<TransactionDTO> post(Long userId, Long walletId, CreateTransactionDTO createDTO) {
+        LedgerEngine engine = ledgerEngine.getIfAvailable();
+        if (engine == null) {
+            return CompletableFuture.completedFuture(transactionService.createTransaction(userId, walletId, createDTO));
+        }
+        
+        Transaction transaction = transactionService.newTransaction(walletId, createDTO);
+        
+        // Map off the shard thread so it can move on to the next batch right away.
+        return engine.post(transaction)
+                .thenApplyAsync(posted -> transactionMapper.toDTO(posted, userId), executor);
+    }
+}
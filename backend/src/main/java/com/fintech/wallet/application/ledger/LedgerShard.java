@@ -0,0 +1,157 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One writer thread draining a bounded ring buffer. Balances are only touched by that
+ * thread, so the cache needs no synchronization; it is dropped for a wallet whenever a
+ * commit fails, and reloaded before rejecting an expense in case another write path
+ * (payments, imports) credited the wallet behind the ledger's back. The cached amounts are
+ * spendable balances; a payment reserving funds behind the ledger's back makes the group
+ * debit fail, and the batch is then retried posting by posting against reloaded balances.
+ */
+@Slf4j
+class LedgerShard implements Runnable {
+    
+    private final int index;
+    private final LedgerWriter ledgerWriter;
+    private final WalletRepository walletRepository;
+    private final ArrayBlockingQueue<Posting> queue;
+    private final int batchSize;
+    private final Map<Long, BigDecimal> balances = new HashMap<>();
+    
+    private volatile boolean running;
+    private Thread thread;
+    
+    LedgerShard(int index, LedgerWriter ledgerWriter, WalletRepository walletRepository,
+                int queueCapacity, int batchSize) {
+        this.index = index;
+        this.ledgerWriter = ledgerWriter;
+        this.walletRepository = walletRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+    }
+    
+    void start() {
+        running = true;
+        thread = new Thread(this, "ledger-shard-" + index);
+        thread.setDaemon(true);
+        thread.start();
+    }
+    
+    void stop() throws InterruptedException {
+        running = false;
+        thread.join(TimeUnit.SECONDS.toMillis(30));
+    }
+    
+    boolean offer(Posting posting) {
+        return running && queue.offer(posting);
+    }
+    
+    @Override
+    public void run() {
+        List<Posting> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                Posting first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Ledger shard {} failed to process batch", index, e);
+                batch.forEach(posting -> posting.future().completeExceptionally(e));
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    private void process(List<Posting> batch) {
+        List<Posting> accepted = new ArrayList<>(batch.size());
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        
+        for (Posting posting : batch) {
+            if (apply(posting, deltas)) {
+                accepted.add(posting);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return;
+        }
+        
+        try {
+            List<Transaction> saved = ledgerWriter.commit(
+                    accepted.stream().map(Posting::transaction).toList(), deltas);
+            for (int i = 0; i < accepted.size(); i++) {
+                accepted.get(i).future().complete(saved.get(i));
+            }
+        } catch (RuntimeException e) {
+            log.warn("Ledger shard {} group commit failed, retrying {} postings one by one", index, accepted.size(), e);
+            deltas.keySet().forEach(balances::remove);
+            accepted.forEach(this::commitAlone);
+        }
+    }
+    
+    private void commitAlone(Posting posting) {
+        Map<Long, BigDecimal> deltas = new TreeMap<>();
+        if (!apply(posting, deltas)) {
+            return;
+        }
+        try {
+            List<Transaction> saved = ledgerWriter.commit(List.of(posting.transaction()), deltas);
+            posting.future().complete(saved.get(0));
+        } catch (RuntimeException e) {
+            balances.remove(posting.walletId());
+            posting.future().completeExceptionally(e);
+        }
+    }
+    
+    /**
+     * Applies the posting to the in-memory balance and accumulates its delta, or completes
+     * the posting's future exceptionally when the wallet cannot cover it.
+     */
+    private boolean apply(Posting posting, Map<Long, BigDecimal> deltas) {
+        Long walletId = posting.walletId();
+        BigDecimal pending = deltas.getOrDefault(walletId, BigDecimal.ZERO);
+        BigDecimal balance = balances.get(walletId);
+        
+        if (balance == null || balance.add(posting.signedAmount()).signum() < 0) {
+            Wallet wallet = walletRepository.findById(walletId).orElse(null);
+            if (wallet == null) {
+                posting.future().completeExceptionally(new IllegalArgumentException("Carteira não encontrada"));
+                return false;
+            }
+            balance = wallet.getAvailableBalance().add(pending);
+        }
+        
+        BigDecimal next = balance.add(posting.signedAmount());
+        if (next.signum() < 0) {
+            balances.put(walletId, balance);
+            posting.future().completeExceptionally(
+                    new IllegalArgumentException("Saldo insuficiente. Saldo atual: " + balance));
+            return false;
+        }
+        
+        balances.put(walletId, next);
+        deltas.put(walletId, pending.add(posting.signedAmount()));
+        return true;
+    }
+}
@@ -0,0 +1,53 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.application.dashboard.DailyTotals;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Group commit of a shard batch: one net balance delta per wallet plus every transaction
+ * row of the batch, all in a single database transaction.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "wallet.ledger.mode", havingValue = "sharded")
+public class LedgerWriter {
+    
+    private final WalletRepository walletRepository;
+    private final TransactionRepository transactionRepository;
+    private final DailyTotals dailyTotals;
+    
+    @Transactional
+    public List<Transaction> commit(List<Transaction> transactions, Map<Long, BigDecimal> deltas) {
+        LocalDateTime now = LocalDateTime.now();
+        
+        deltas.forEach((walletId, delta) -> {
+            int updated;
+            if (delta.signum() > 0) {
+                updated = walletRepository.credit(walletId, delta, now);
+            } else if (delta.signum() < 0) {
+                updated = walletRepository.debit(walletId, delta.negate(), now);
+            } else {
+                // no balance change, but the daily totals below still need the wallet lock
+                updated = walletRepository.lockById(walletId).isPresent() ? 1 : 0;
+            }
+            if (updated == 0) {
+                throw new IllegalStateException("Saldo da carteira " + walletId + " divergiu do ledger");
+            }
+        });
+        
+        List<Transaction> saved = transactionRepository.saveAll(transactions);
+        dailyTotals.record(saved);
+        return saved;
+    }
+}
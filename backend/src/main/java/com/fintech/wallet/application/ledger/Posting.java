@@ -0,0 +1,20 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+
+import java.math.BigDecimal;
+import java.util.concurrent.CompletableFuture;
+
+record Posting(Transaction transaction, CompletableFuture<Transaction> future) {
+    
+    Long walletId() {
+        return transaction.getWalletId();
+    }
+    
+    BigDecimal signedAmount() {
+        return transaction.getType() == TransactionType.INCOME
+                ? transaction.getAmount()
+                : transaction.getAmount().negate();
+    }
+}
@@ -19,6 +19,7 @@ public class PaymentResult {
     private String recipient;
     private String description;
     private String status;
+    private String failureReason;
     private LocalDateTime createdAt;
 }
 
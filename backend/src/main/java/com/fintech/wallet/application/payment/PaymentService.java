@@ -1,80 +1,155 @@
 package com.fintech.wallet.application.payment;
 
-import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.application.transaction.TransactionCursor;
 import com.fintech.wallet.application.wallet.WalletService;
-import com.fintech.wallet.domain.TransactionType;
-import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.domain.Payment;
+import com.fintech.wallet.domain.PaymentStatus;
+import com.fintech.wallet.infrastructure.persistence.PaymentRepository;
 import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
-import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
-import lombok.RequiredArgsConstructor;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.PaymentDTO;
+import com.fintech.wallet.interfaces.dto.PaymentPageDTO;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.server.ResponseStatusException;
 
-import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class PaymentService {
     
     private final WalletService walletService;
-    private final TransactionService transactionService;
-    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectProvider<SettlementWorkers> settlementWorkers;
+    private final int defaultPageSize;
+    private final int maxPageSize;
     
+    public PaymentService(WalletService walletService,
+                          WalletRepository walletRepository,
+                          PaymentRepository paymentRepository,
+                          ObjectProvider<SettlementWorkers> settlementWorkers,
+                          @Value("${wallet.payments.page-size:50}") int defaultPageSize,
+                          @Value("${wallet.payments.max-page-size:200}") int maxPageSize) {
+        this.walletService = walletService;
+        this.walletRepository = walletRepository;
+        this.paymentRepository = paymentRepository;
+        this.settlementWorkers = settlementWorkers;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
+    
+    /**
+     * Accepts a payment for settlement: holds the amount on the wallet and queues the payment
+     * as PENDING. The debit is posted when the gateway confirms it; see {@link PaymentSettlement}.
+     */
     @Transactional
-    public PaymentResult processPayment(Long userId, CreatePaymentRequest request) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
-        
-        if (wallet.getBalance().compareTo(request.getAmount()) < 0) {
+    public PaymentResult processPayment(Long userId, Long walletId, CreatePaymentRequest request) {
+        if (walletRepository.reserve(walletId, request.getAmount(), LocalDateTime.now()) == 0) {
+            walletService.getWallet(walletId);
             throw new IllegalArgumentException("Saldo insuficiente");
         }
         
-        String description = buildPaymentDescription(request);
+        Payment payment = paymentRepository.save(Payment.builder()
+                .walletId(walletId)
+                .userId(userId)
+                .amount(request.getAmount())
+                .method(request.getMethod())
+                .recipient(request.getRecipient())
+                .description(buildPaymentDescription(request))
+                .pixKey(request.getPixKey())
+                .bankCode(request.getBankCode())
+                .bankAgency(request.getBankAgency())
+                .bankAccount(request.getBankAccount())
+                .status(PaymentStatus.PENDING)
+                .build());
         
-        CreateTransactionDTO createDTO = new CreateTransactionDTO();
-        createDTO.setType(TransactionType.EXPENSE);
-        createDTO.setAmount(request.getAmount());
-        createDTO.setDescription(description);
-        createDTO.setCategoryId(null);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                settlementWorkers.ifAvailable(SettlementWorkers::wakeUp);
+            }
+        });
         
-        var transactionDTO = transactionService.createTransaction(userId, createDTO);
+        return toResult(payment);
+    }
+    
+    @Transactional(readOnly = true)
+    public PaymentResult getPayment(Long walletId, Long paymentId) {
+        return paymentRepository.findByIdAndWalletId(paymentId, walletId)
+                .map(this::toResult)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Pagamento não encontrado"));
+    }
+    
+    /**
+     * Returns one page of the wallet's payments, newest first, resuming after the cursor of
+     * the previous page.
+     */
+    @Transactional(readOnly = true)
+    public PaymentPageDTO getPayments(Long walletId, String method, PaymentStatus status,
+                                      LocalDateTime startDate, LocalDateTime endDate,
+                                      String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        PageRequest fetch = PageRequest.of(0, pageSize + 1);
+        LocalDateTime from = startDate != null ? startDate : TransactionRepository.EARLIEST;
+        LocalDateTime to = endDate != null ? endDate : TransactionRepository.LATEST;
         
-        return PaymentResult.builder()
-                .id(transactionDTO.getId())
-                .amount(transactionDTO.getAmount())
-                .method(request.getMethod())
-                .recipient(request.getRecipient())
-                .description(description)
-                .status("COMPLETED")
-                .createdAt(transactionDTO.getCreatedAt())
+        List<Payment> payments;
+        if (cursor == null || cursor.isBlank()) {
+            payments = paymentRepository.findFiltered(walletId, method, status, from, to, fetch);
+        } else {
+            TransactionCursor after = TransactionCursor.decode(cursor);
+            payments = paymentRepository.findFilteredAfter(
+                    walletId, after.createdAt(), after.id(), method, status, from, to, fetch);
+        }
+        
+        boolean hasMore = payments.size() > pageSize;
+        List<Payment> page = hasMore ? payments.subList(0, pageSize) : payments;
+        Payment last = hasMore ? page.get(pageSize - 1) : null;
+        
+        return PaymentPageDTO.builder()
+                .items(page.stream().map(this::toDTO).toList())
+                .nextCursor(last != null ? new TransactionCursor(last.getCreatedAt(), last.getId()).encode() : null)
+                .hasMore(hasMore)
                 .build();
     }
     
-    public List<PaymentResult> getPayments(Long userId) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
-        
-        return transactionRepository.findByWalletIdAndTypeOrderByCreatedAtDesc(
-            wallet.getId(),
-            TransactionType.EXPENSE
-        ).stream()
-        .map(t -> PaymentResult.builder()
-            .id(t.getId())
-            .amount(t.getAmount())
-            .method(extractPaymentMethod(t.getDescription()))
-            .recipient(extractRecipient(t.getDescription()))
-            .description(t.getDescription())
-            .status("COMPLETED")
-            .createdAt(t.getCreatedAt())
-            .build())
-        .collect(Collectors.toList());
+    private PaymentResult toResult(Payment payment) {
+        return PaymentResult.builder()
+                .id(payment.getId())
+                .amount(payment.getAmount())
+                .method(payment.getMethod())
+                .recipient(payment.getRecipient())
+                .description(payment.getDescription())
+                .status(payment.getStatus().name())
+                .failureReason(payment.getFailureReason())
+                .createdAt(payment.getCreatedAt())
+                .build();
     }
     
-    public String generatePixQrCode(BigDecimal amount, String description) {
-        return String.format(
-            "<svg xmlns='http://www.w3.org/2000/svg' width='200' height='200'><rect width='200' height='200' fill='white'/><text x='100' y='100' text-anchor='middle' font-size='12'>QR Code PIX</text><text x='100' y='120' text-anchor='middle' font-size='10'>R$ %.2f</text></svg>",
-            amount
-        );
+    private PaymentDTO toDTO(Payment payment) {
+        return PaymentDTO.builder()
+                .id(payment.getId())
+                .amount(payment.getAmount())
+                .method(payment.getMethod())
+                .recipient(payment.getRecipient())
+                .description(payment.getDescription())
+                .pixKey(payment.getPixKey())
+                .bankCode(payment.getBankCode())
+                .bankAgency(payment.getBankAgency())
+                .bankAccount(payment.getBankAccount())
+                .status(payment.getStatus().name())
+                .failureReason(payment.getFailureReason())
+                .transactionId(payment.getTransactionId())
+                .createdAt(payment.getCreatedAt())
+                .build();
     }
     
     private String buildPaymentDescription(CreatePaymentRequest request) {
@@ -89,23 +164,4 @@ public class PaymentService {
                 return request.getDescription() != null ? request.getDescription() : "Pagamento";
         }
     }
-    
-    private String extractPaymentMethod(String description) {
-        if (description != null) {
-            if (description.contains("PIX")) return "PIX";
-            if (description.contains("Transferência")) return "TRANSFER";
-            if (description.contains("boleto")) return "BILL";
-        }
-        return "UNKNOWN";
-    }
-    
-    private String extractRecipient(String description) {
-        if (description != null) {
-            if (description.contains("para ")) {
-                return description.substring(description.indexOf("para ") + 5);
-            }
-        }
-        return "N/A";
-    }
 }
-
@@ -0,0 +1,200 @@
+package com.fintech.wallet.application.payment;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Payment;
+import com.fintech.wallet.domain.PaymentStatus;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.persistence.PaymentRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Takes batches of PENDING payments off the queue and settles them through the
+ * {@link SettlementGateway}. Claiming leases the rows in a short transaction of its own, so
+ * no database transaction stays open during the gateway call. Each outcome is then recorded
+ * in its own transaction: a completed payment turns its reservation into an EXPENSE posting,
+ * a rejected one just releases it. A payment whose outcome was not recorded (gateway error,
+ * crash) is claimed again once its lease ends and resubmitted under the same reference, up to
+ * max-attempts claims. Gateway calls are cut off at gateway-timeout, inside the lease. A failed
+ * or timed-out call may still have moved the money, so a payment whose last attempt ends that
+ * way is not rejected: it turns UNCONFIRMED and keeps its amount reserved for reconciliation.
+ */
+@Slf4j
+@Component
+public class PaymentSettlement {
+    
+    private final PaymentRepository paymentRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionService transactionService;
+    private final SettlementGateway gateway;
+    private final TransactionTemplate writeTransaction;
+    private final Duration lease;
+    private final Duration gatewayTimeout;
+    private final int maxAttempts;
+    private final ExecutorService gatewayCalls;
+    private final Counter completed;
+    private final Counter failed;
+    private final Counter unconfirmed;
+    private final Counter gatewayErrors;
+    private final Timer gatewayTimer;
+    
+    public PaymentSettlement(PaymentRepository paymentRepository,
+                             WalletRepository walletRepository,
+                             TransactionService transactionService,
+                             SettlementGateway gateway,
+                             PlatformTransactionManager transactionManager,
+                             MeterRegistry meterRegistry,
+                             @Value("${wallet.payments.settlement.lease:30s}") Duration lease,
+                             @Value("${wallet.payments.settlement.gateway-timeout:20s}") Duration gatewayTimeout,
+                             @Value("${wallet.payments.settlement.max-attempts:5}") int maxAttempts) {
+        if (gatewayTimeout.compareTo(lease) >= 0) {
+            throw new IllegalArgumentException("gateway-timeout deve ser menor que o lease da liquidação");
+        }
+        this.paymentRepository = paymentRepository;
+        this.walletRepository = walletRepository;
+        this.transactionService = transactionService;
+        this.gateway = gateway;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.lease = lease;
+        this.gatewayTimeout = gatewayTimeout;
+        this.maxAttempts = maxAttempts;
+        this.gatewayCalls = Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(runnable, "settlement-gateway");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.completed = Counter.builder("payments.settled").tag("result", "completed").register(meterRegistry);
+        this.failed = Counter.builder("payments.settled").tag("result", "failed").register(meterRegistry);
+        this.unconfirmed = Counter.builder("payments.settled").tag("result", "unconfirmed").register(meterRegistry);
+        this.gatewayErrors = Counter.builder("payments.settlement.gateway.errors").register(meterRegistry);
+        this.gatewayTimer = Timer.builder("payments.settlement.gateway").register(meterRegistry);
+    }
+    
+    /**
+     * Claims and settles up to {@code limit} payments. Returns how many were claimed.
+     */
+    public int settleBatch(int limit) {
+        List<Payment> batch = claim(limit);
+        if (batch.isEmpty()) {
+            return 0;
+        }
+        
+        List<SettlementResult> results;
+        try {
+            results = gatewayTimer.record(() -> callGateway(batch));
+        } catch (RuntimeException e) {
+            gatewayErrors.increment();
+            log.warn("Settlement gateway failed for {} payments", batch.size(), e);
+            for (Payment payment : batch) {
+                if (payment.getAttempts() >= maxAttempts) {
+                    leaveUnconfirmed(payment);
+                }
+            }
+            return batch.size();
+        }
+        
+        for (int i = 0; i < batch.size(); i++) {
+            record(batch.get(i), results.get(i));
+        }
+        return batch.size();
+    }
+    
+    @PreDestroy
+    public void stop() {
+        gatewayCalls.shutdownNow();
+    }
+    
+    private List<SettlementResult> callGateway(List<Payment> batch) {
+        Future<List<SettlementResult>> call = gatewayCalls.submit(() -> gateway.settle(batch));
+        try {
+            return call.get(gatewayTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            call.cancel(true);
+            throw new IllegalStateException("Settlement gateway did not answer within " + gatewayTimeout, e);
+        } catch (InterruptedException e) {
+            call.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while settling", e);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException cause ? cause : new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private List<Payment> claim(int limit) {
+        return writeTransaction.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = paymentRepository.lockClaimable(now, limit);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            paymentRepository.lease(ids, now.plus(lease));
+            return paymentRepository.findAllById(ids).stream()
+                    .sorted(Comparator.comparing(Payment::getId))
+                    .toList();
+        });
+    }
+    
+    private void record(Payment payment, SettlementResult result) {
+        try {
+            writeTransaction.executeWithoutResult(status -> {
+                LocalDateTime now = LocalDateTime.now();
+                PaymentStatus outcome = result.completed() ? PaymentStatus.COMPLETED : PaymentStatus.FAILED;
+                if (paymentRepository.finish(payment.getId(), outcome, result.failureReason(), now) == 0) {
+                    return;
+                }
+                if (walletRepository.release(payment.getWalletId(), payment.getAmount(), now) == 0) {
+                    throw new IllegalStateException("Carteira " + payment.getWalletId()
+                            + " não tem reservado o valor do pagamento " + payment.getId());
+                }
+                if (result.completed()) {
+                    // the amount was held until now, so the debit cannot run short
+                    CreateTransactionDTO expense = new CreateTransactionDTO();
+                    expense.setType(TransactionType.EXPENSE);
+                    expense.setAmount(payment.getAmount());
+                    expense.setDescription(payment.getDescription());
+                    Long transactionId = transactionService.createTransaction(
+                            payment.getUserId(), payment.getWalletId(), expense).getId();
+                    paymentRepository.attachTransaction(payment.getId(), transactionId);
+                }
+            });
+            (result.completed() ? completed : failed).increment();
+        } catch (RuntimeException e) {
+            // stays PENDING and is claimed again when the lease ends
+            log.error("Could not record settlement of payment {}", payment.getId(), e);
+        }
+    }
+    
+    private void leaveUnconfirmed(Payment payment) {
+        try {
+            Integer finished = writeTransaction.execute(status -> paymentRepository.finish(
+                    payment.getId(), PaymentStatus.UNCONFIRMED, null, LocalDateTime.now()));
+            if (finished != null && finished > 0) {
+                unconfirmed.increment();
+                log.error("Payment {} left unconfirmed after {} attempts, its amount stays reserved until reconciled",
+                        payment.getId(), payment.getAttempts());
+            }
+        } catch (RuntimeException e) {
+            log.error("Could not record payment {} as unconfirmed", payment.getId(), e);
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.fintech.wallet.application.payment;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Static PIX BR Code: the EMV QR Code merchant-presented payload of the Banco Central do
+ * Brasil's PIX specification, ending in its CRC16 (CCITT-FALSE). The result is both the QR
+ * Code content and the "Pix Copia e Cola" text.
+ */
+public final class PixBrCode {
+    
+    private static final String PIX_GUI = "br.gov.bcb.pix";
+    private static final int MAX_NAME = 25;
+    private static final int MAX_CITY = 15;
+    private static final int MAX_TXID = 25;
+    private static final int MAX_TEMPLATE = 99;
+    
+    private PixBrCode() {
+    }
+    
+    /**
+     * @param amount optional; without it the payer types the amount
+     * @param txid optional reference of up to 25 letters and digits
+     */
+    public static String build(String pixKey, String merchantName, String merchantCity,
+                               BigDecimal amount, String description, String txid) {
+        if (pixKey == null || pixKey.isBlank()) {
+            throw new IllegalArgumentException("Chave PIX é obrigatória");
+        }
+        String key = pixKey.trim();
+        String account = field("00", PIX_GUI) + field("01", key);
+        if (account.length() > MAX_TEMPLATE) {
+            throw new IllegalArgumentException("Chave PIX longa demais");
+        }
+        String info = description == null ? "" : ascii(description);
+        // whatever of the description fits in the 99 characters of the account template
+        int room = MAX_TEMPLATE - account.length() - 4;
+        if (!info.isEmpty() && room > 0) {
+            account += field("02", info.substring(0, Math.min(info.length(), room)));
+        }
+        
+        StringBuilder payload = new StringBuilder(160)
+                .append(field("00", "01"))
+                .append(field("26", account))
+                .append(field("52", "0000"))
+                .append(field("53", "986"));
+        if (amount != null) {
+            if (amount.signum() <= 0) {
+                throw new IllegalArgumentException("Valor deve ser maior que zero");
+            }
+            String value = amount.setScale(2, RoundingMode.HALF_UP).toPlainString();
+            if (value.length() > 13) {
+                throw new IllegalArgumentException("Valor acima do permitido");
+            }
+            payload.append(field("54", value));
+        }
+        payload.append(field("58", "BR"))
+                .append(field("59", truncate(ascii(merchantName), MAX_NAME, "Recebedor")))
+                .append(field("60", truncate(ascii(merchantCity).toUpperCase(Locale.ROOT), MAX_CITY, "BRASIL")))
+                .append(field("62", field("05", reference(txid))))
+                .append("6304");
+        return payload.append(crc16(payload)).toString();
+    }
+    
+    static String crc16(CharSequence payload) {
+        int crc = 0xFFFF;
+        for (byte b : payload.toString().getBytes(StandardCharsets.UTF_8)) {
+            crc ^= (b & 0xFF) << 8;
+            for (int i = 0; i < 8; i++) {
+                crc = (crc & 0x8000) != 0 ? (crc << 1) ^ 0x1021 : crc << 1;
+            }
+            crc &= 0xFFFF;
+        }
+        return String.format("%04X", crc);
+    }
+    
+    private static String field(String id, String value) {
+        if (value.length() > 99) {
+            throw new IllegalArgumentException("Campo " + id + " do BR Code longo demais");
+        }
+        return id + (value.length() < 10 ? "0" : "") + value.length() + value;
+    }
+    
+    private static String reference(String txid) {
+        if (txid == null || txid.isBlank()) {
+            return "***";
+        }
+        if (txid.length() > MAX_TXID || !txid.chars().allMatch(c -> c < 128 && Character.isLetterOrDigit(c))) {
+            throw new IllegalArgumentException("Identificador da cobrança inválido");
+        }
+        return txid;
+    }
+    
+    /**
+     * Strips accents and anything outside printable ASCII, which payer apps do not all accept.
+     */
+    private static String ascii(String value) {
+        if (value == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(value, Normalizer.Form.NFD);
+        StringBuilder result = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (c >= 0x20 && c < 0x7F) {
+                result.append(c);
+            }
+        }
+        return result.toString().trim();
+    }
+    
+    private static String truncate(String value, int max, String fallback) {
+        if (value.isEmpty()) {
+            return fallback;
+        }
+        return value.length() > max ? value.substring(0, max).trim() : value;
+    }
+}
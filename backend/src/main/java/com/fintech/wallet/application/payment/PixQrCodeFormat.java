@@ -0,0 +1,18 @@
+package com.fintech.wallet.application.payment;
+
+import org.springframework.http.MediaType;
+
+public enum PixQrCodeFormat {
+    SVG(MediaType.parseMediaType("image/svg+xml")),
+    PNG(MediaType.IMAGE_PNG);
+    
+    private final MediaType mediaType;
+    
+    PixQrCodeFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+    
+    public MediaType mediaType() {
+        return mediaType;
+    }
+}
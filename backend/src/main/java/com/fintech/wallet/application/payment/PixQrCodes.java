@@ -0,0 +1,94 @@
+package com.fintech.wallet.application.payment;
+
+import com.fintech.wallet.domain.User;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.qrcode.QrCode;
+import com.fintech.wallet.infrastructure.qrcode.QrCodeImages;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * PIX QR Codes for receiving into the user's wallet. Rendering is deterministic in the
+ * payload, and checkout screens ask for the same codes over and over, so rendered images are
+ * cached by the SHA-256 of the payload and the format, bounded by their total size.
+ */
+@Component
+public class PixQrCodes {
+    
+    private final UserRepository userRepository;
+    private final String defaultCity;
+    private final int pngScale;
+    private final Cache<RenderKey, byte[]> rendered;
+    
+    public PixQrCodes(UserRepository userRepository,
+                      MeterRegistry meterRegistry,
+                      @Value("${wallet.pix.default-city:SAO PAULO}") String defaultCity,
+                      @Value("${wallet.pix.png-scale:8}") int pngScale,
+                      @Value("${wallet.pix.cache.max-bytes:33554432}") long maxBytes) {
+        this.userRepository = userRepository;
+        this.defaultCity = defaultCity;
+        this.pngScale = pngScale;
+        this.rendered = Caffeine.newBuilder()
+                .maximumWeight(maxBytes)
+                .weigher((RenderKey key, byte[] image) -> image.length + 64)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, rendered, "pix.qrcodes");
+    }
+    
+    /**
+     * QR Code for paying {@code amount} to the user, under their PIX key (the account email
+     * unless given).
+     */
+    public PixQrCode generate(Long userId, BigDecimal amount, String description, String pixKey, PixQrCodeFormat format) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
+        String payload = PixBrCode.build(
+                pixKey != null && !pixKey.isBlank() ? pixKey : user.getEmail(),
+                user.getName(),
+                user.getCity() != null && !user.getCity().isBlank() ? user.getCity() : defaultCity,
+                amount, description, null);
+        return new PixQrCode(payload, render(payload, format), format);
+    }
+    
+    public byte[] render(String payload, PixQrCodeFormat format) {
+        return rendered.get(new RenderKey(sha256(payload), format), key -> {
+            QrCode code = QrCode.encode(payload);
+            return format == PixQrCodeFormat.PNG ? QrCodeImages.png(code, pngScale) : QrCodeImages.svg(code);
+        });
+    }
+    
+    private static byte[] sha256(String payload) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public record PixQrCode(String payload, byte[] image, PixQrCodeFormat format) {
+    }
+    
+    private record RenderKey(byte[] hash, PixQrCodeFormat format) {
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof RenderKey key && key.format == format && Arrays.equals(key.hash, hash);
+        }
+        
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(hash) * 31 + format.hashCode();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.fintech.wallet.application.payment;
+
+import com.fintech.wallet.domain.Payment;
+
+import java.util.List;
+
+/**
+ * The payment network that settles accepted payments. A payment can be submitted more than
+ * once, when a call fails or times out without an answer, so implementations send each one
+ * under its {@link #reference} as the network's idempotency key: a payment submitted again is
+ * answered with the outcome of its first submission instead of being settled twice.
+ */
+public interface SettlementGateway {
+    
+    /**
+     * Settles the batch and returns one result per payment, in the same order. Throwing leaves
+     * the outcome unknown: part of the batch may have been settled before the call failed.
+     */
+    List<SettlementResult> settle(List<Payment> payments);
+    
+    static String reference(Payment payment) {
+        return "payment-" + payment.getId();
+    }
+}
@@ -0,0 +1,15 @@
+package com.fintech.wallet.application.payment;
+
+/**
+ * Outcome of one payment at the gateway; a rejected payment carries the reason shown to the user.
+ */
+public record SettlementResult(boolean completed, String failureReason) {
+    
+    public static SettlementResult ok() {
+        return new SettlementResult(true, null);
+    }
+    
+    public static SettlementResult rejected(String failureReason) {
+        return new SettlementResult(false, failureReason);
+    }
+}
@@ -0,0 +1,95 @@
+package com.fintech.wallet.application.payment;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Worker threads draining the payments queue through {@link PaymentSettlement}. Workers on
+ * any number of instances can share the queue since claims skip rows locked by others, so
+ * throughput grows with wallet.payments.settlement.workers until the gateway or the database
+ * saturates. An idle worker polls every idle-interval, or sooner when a payment is accepted
+ * on this instance.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wallet.payments.settlement.enabled", havingValue = "true", matchIfMissing = true)
+public class SettlementWorkers {
+    
+    private final PaymentSettlement settlement;
+    private final int workers;
+    private final int batchSize;
+    private final long idleMillis;
+    private final Semaphore wakeUps = new Semaphore(0);
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+    
+    public SettlementWorkers(PaymentSettlement settlement,
+                             @Value("${wallet.payments.settlement.workers:4}") int workers,
+                             @Value("${wallet.payments.settlement.batch-size:50}") int batchSize,
+                             @Value("${wallet.payments.settlement.idle-interval-ms:1000}") long idleMillis) {
+        this.settlement = settlement;
+        this.workers = workers;
+        this.batchSize = batchSize;
+        this.idleMillis = idleMillis;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        running = true;
+        for (int i = 0; i < workers; i++) {
+            Thread thread = new Thread(this::work, "payment-settlement-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+    }
+    
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        wakeUps.release(threads.size());
+        for (Thread thread : threads) {
+            thread.join(TimeUnit.SECONDS.toMillis(30));
+        }
+    }
+    
+    /**
+     * Wakes an idle worker, e.g. right after a payment is accepted.
+     */
+    public void wakeUp() {
+        if (wakeUps.availablePermits() < workers) {
+            wakeUps.release();
+        }
+    }
+    
+    private void work() {
+        while (running) {
+            try {
+                if (settlement.settleBatch(batchSize) < batchSize) {
+                    wakeUps.tryAcquire(idleMillis, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Settlement worker failed", e);
+                try {
+                    Thread.sleep(idleMillis);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.fintech.wallet.application.transaction;
+
+/**
+ * The import body as a whole cannot be read, as opposed to a single bad row, which is
+ * reported and skipped.
+ */
+public class ImportFileException extends RuntimeException {
+    
+    public ImportFileException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fintech.wallet.application.transaction;
+
+import lombok.Data;
+
+/**
+ * One raw row of an import file, before any conversion or validation.
+ */
+@Data
+class ImportRow {
+    private String type;
+    private String amount;
+    private String description;
+    private String categoryId;
+    private String createdAt;
+}
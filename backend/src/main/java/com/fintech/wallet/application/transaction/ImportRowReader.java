@@ -0,0 +1,184 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Reads an import body one row at a time, so only the current row is ever held in
+ * memory. CSV files need a header row naming the columns (type, amount, description,
+ * categoryId, createdAt); quoted fields may span lines, as the export writes descriptions
+ * holding line breaks, and come back with each break as \n. NDJSON files hold one JSON
+ * object per line with the same field names.
+ */
+class ImportRowReader implements Closeable {
+    
+    // a row still open past this is taken for a stray quote rather than read to the end
+    private static final int MAX_ROW_LENGTH = 64 * 1024;
+    
+    private final BufferedReader reader;
+    private final TransactionFileFormat format;
+    private final ObjectMapper objectMapper;
+    private Map<String, Integer> columns;
+    private long lineNumber;
+    private long rowLineNumber;
+    
+    ImportRowReader(InputStream body, TransactionFileFormat format, ObjectMapper objectMapper) {
+        this.reader = new BufferedReader(new InputStreamReader(body, StandardCharsets.UTF_8));
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+    
+    /**
+     * The line the last row started on.
+     */
+    long lineNumber() {
+        return rowLineNumber;
+    }
+    
+    /**
+     * Returns the next row, or null at the end of the body. A malformed line throws
+     * {@link IllegalArgumentException} after being consumed, so the caller can record
+     * the error and keep reading.
+     */
+    ImportRow next() throws IOException {
+        String line;
+        do {
+            line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+        } while (line.isBlank());
+        rowLineNumber = lineNumber;
+        
+        if (format == TransactionFileFormat.NDJSON) {
+            return parseJson(line);
+        }
+        if (openQuote(line)) {
+            line = readQuotedLines(line);
+        }
+        if (columns == null) {
+            columns = parseHeader(line);
+            return next();
+        }
+        return parseCsv(line);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+    
+    private String readQuotedLines(String first) throws IOException {
+        StringBuilder row = new StringBuilder(first);
+        boolean open = true;
+        while (open) {
+            String line = reader.readLine();
+            if (line == null) {
+                throw new IllegalArgumentException("Aspas não fechadas na linha CSV");
+            }
+            lineNumber++;
+            row.append('\n').append(line);
+            if (row.length() > MAX_ROW_LENGTH) {
+                throw new IllegalArgumentException("Aspas não fechadas na linha CSV");
+            }
+            // each quote, doubled ones included, toggles whether the field is still open
+            open = openQuote(line) != open;
+        }
+        return row.toString();
+    }
+    
+    private static boolean openQuote(String line) {
+        int quotes = 0;
+        for (int i = 0; i < line.length(); i++) {
+            if (line.charAt(i) == '"') {
+                quotes++;
+            }
+        }
+        return quotes % 2 == 1;
+    }
+    
+    private ImportRow parseJson(String line) {
+        try {
+            return objectMapper.readValue(line, ImportRow.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("JSON inválido: " + e.getOriginalMessage());
+        }
+    }
+    
+    private Map<String, Integer> parseHeader(String line) {
+        List<String> names = splitCsv(line.startsWith("\uFEFF") ? line.substring(1) : line);
+        Map<String, Integer> header = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            header.put(names.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+        if (!header.containsKey("type") || !header.containsKey("amount")) {
+            throw new ImportFileException("Cabeçalho CSV deve conter as colunas type e amount");
+        }
+        return header;
+    }
+    
+    private ImportRow parseCsv(String line) {
+        List<String> fields = splitCsv(line);
+        ImportRow row = new ImportRow();
+        row.setType(field(fields, "type"));
+        row.setAmount(field(fields, "amount"));
+        row.setDescription(field(fields, "description"));
+        row.setCategoryId(field(fields, "categoryid"));
+        row.setCreatedAt(field(fields, "createdat"));
+        return row;
+    }
+    
+    private String field(List<String> fields, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+    
+    private static List<String> splitCsv(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        boolean quoted = false;
+        
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    current.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    current.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(current.toString());
+                current.setLength(0);
+            } else {
+                current.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha CSV");
+        }
+        fields.add(current.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,57 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.domain.Transaction;
+
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Merges the database rows and the archived rows of a wallet, both already in the listings'
+ * (createdAt DESC, id DESC) order. A row present on both sides, left behind by an archive run
+ * that crashed before its delete committed, comes out once, from the database.
+ */
+class NewestFirstMerge implements Iterator<Transaction> {
+    
+    private static final Comparator<Transaction> NEWEST_FIRST = Comparator
+            .comparing(Transaction::getCreatedAt)
+            .thenComparing(Transaction::getId)
+            .reversed();
+    
+    private final Iterator<Transaction> database;
+    private final Iterator<Transaction> archived;
+    private Transaction nextDatabase;
+    private Transaction nextArchived;
+    
+    NewestFirstMerge(Iterator<Transaction> database, Iterator<Transaction> archived) {
+        this.database = database;
+        this.archived = archived;
+        this.nextDatabase = database.hasNext() ? database.next() : null;
+        this.nextArchived = archived.hasNext() ? archived.next() : null;
+    }
+    
+    @Override
+    public boolean hasNext() {
+        return nextDatabase != null || nextArchived != null;
+    }
+    
+    @Override
+    public Transaction next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        int order = nextDatabase == null ? 1 : nextArchived == null ? -1 : NEWEST_FIRST.compare(nextDatabase, nextArchived);
+        if (order == 0) {
+            nextArchived = archived.hasNext() ? archived.next() : null;
+        }
+        Transaction next;
+        if (order <= 0) {
+            next = nextDatabase;
+            nextDatabase = database.hasNext() ? database.next() : null;
+        } else {
+            next = nextArchived;
+            nextArchived = archived.hasNext() ? archived.next() : null;
+        }
+        return next;
+    }
+}
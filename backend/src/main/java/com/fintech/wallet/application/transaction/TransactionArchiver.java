@@ -0,0 +1,114 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+/**
+ * Moves whole months of transactions older than wallet.archive.after-months out of the
+ * database into the {@link TransactionArchive}, one wallet-month per database transaction.
+ * The wallet is locked like a posting, so no backdated import can land in the month while it
+ * moves, and rows are deleted only after their file is forced to disk; a crash in between
+ * leaves them in both places, which readers and the next run tolerate. Balances and
+ * wallet_daily_totals are not touched, so dashboards keep their numbers.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wallet.archive.enabled", havingValue = "true")
+public class TransactionArchiver {
+    
+    private final TransactionRepository transactionRepository;
+    private final WalletRepository walletRepository;
+    private final TransactionArchive archive;
+    private final TransactionTemplate writeTransaction;
+    private final Counter archivedRows;
+    private final Counter failures;
+    private final int afterMonths;
+    
+    public TransactionArchiver(TransactionRepository transactionRepository,
+                               WalletRepository walletRepository,
+                               TransactionArchive archive,
+                               PlatformTransactionManager transactionManager,
+                               MeterRegistry meterRegistry,
+                               @Value("${wallet.archive.after-months:24}") int afterMonths) {
+        this.transactionRepository = transactionRepository;
+        this.walletRepository = walletRepository;
+        this.archive = archive;
+        this.writeTransaction = new TransactionTemplate(transactionManager);
+        this.archivedRows = Counter.builder("wallet.archive.rows").register(meterRegistry);
+        this.failures = Counter.builder("wallet.archive.failures").register(meterRegistry);
+        this.afterMonths = afterMonths;
+    }
+    
+    /**
+     * Archives every month that ended more than after-months ago. A wallet that fails is
+     * counted and logged, and the run goes on with the next one.
+     */
+    @Scheduled(cron = "${wallet.archive.cron:0 0 5 * * *}")
+    public int archiveOld() {
+        LocalDateTime before = YearMonth.now().minusMonths(afterMonths).atDay(1).atStartOfDay();
+        int archived = 0;
+        for (Long walletId : transactionRepository.findWalletIdsWithTransactionsBetween(
+                TransactionRepository.EARLIEST, before)) {
+            try {
+                archived += archiveWallet(walletId, before);
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.error("Could not archive transactions of wallet {}", walletId, e);
+            }
+        }
+        log.info("Archived {} transactions created before {}", archived, before);
+        return archived;
+    }
+    
+    /**
+     * Archives the wallet's transactions of the months before {@code before}, which must be
+     * the first instant of a month. Empty months are skipped without a query each.
+     */
+    public int archiveWallet(Long walletId, LocalDateTime before) {
+        int archived = 0;
+        LocalDateTime from = TransactionRepository.EARLIEST;
+        LocalDateTime first;
+        while ((first = transactionRepository.findFirstCreatedAt(walletId, from, before)) != null) {
+            YearMonth month = YearMonth.from(first);
+            archived += archiveMonth(walletId, month);
+            from = month.plusMonths(1).atDay(1).atStartOfDay();
+        }
+        return archived;
+    }
+    
+    private int archiveMonth(Long walletId, YearMonth month) {
+        LocalDateTime start = month.atDay(1).atStartOfDay();
+        LocalDateTime until = month.plusMonths(1).atDay(1).atStartOfDay();
+        Integer moved = writeTransaction.execute(status -> {
+            if (walletRepository.lockById(walletId).isEmpty()) {
+                return 0;
+            }
+            List<Transaction> transactions = transactionRepository.findByWalletIdAndCreatedAtRange(walletId, start, until);
+            archive.append(walletId, month, transactions);
+            int deleted = transactionRepository.deleteByWalletIdAndCreatedAtRange(walletId, start, until);
+            if (deleted != transactions.size()) {
+                // cannot happen under the wallet lock; never delete what was not archived
+                throw new IllegalStateException("Deleted " + deleted + " rows of " + walletId + "/" + month
+                        + " but archived " + transactions.size());
+            }
+            return deleted;
+        });
+        archivedRows.increment(moved);
+        return moved;
+    }
+}
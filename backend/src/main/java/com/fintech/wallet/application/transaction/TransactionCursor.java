@@ -0,0 +1,47 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.domain.Transaction;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position in the (createdAt DESC, id DESC) ordering of a wallet's transactions. Clients
+ * only see it as an opaque token and hand it back unchanged to fetch the next page.
+ */
+public record TransactionCursor(LocalDateTime createdAt, Long id) {
+    
+    public static TransactionCursor of(Transaction transaction) {
+        return new TransactionCursor(transaction.getCreatedAt(), transaction.getId());
+    }
+    
+    public static TransactionCursor decode(String token) {
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int separator = value.lastIndexOf('|');
+            return new TransactionCursor(
+                    LocalDateTime.parse(value.substring(0, separator)),
+                    Long.valueOf(value.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Cursor inválido");
+        }
+    }
+    
+    /**
+     * Whether the transaction comes after this position, i.e. belongs to a later page.
+     */
+    public boolean isBefore(Transaction transaction) {
+        int order = transaction.getCreatedAt().compareTo(createdAt);
+        return order < 0 || (order == 0 && transaction.getId() < id);
+    }
+    
+    public String encode() {
+        String value = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,132 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.MinimalPrettyPrinter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a wallet's transaction history straight from a database cursor into the response.
+ * Each row is written and detached before the next one is read, so memory use stays flat
+ * however long the history is. Archived months are read through month by month and merged
+ * into the same order. The CSV layout is the one accepted by the import endpoint.
+ */
+@Service
+@RequiredArgsConstructor
+public class TransactionExportService {
+    
+    private static final String CSV_HEADER = "id,type,amount,description,categoryId,createdAt";
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final TransactionRepository transactionRepository;
+    private final TransactionArchive transactionArchive;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    
+    @Transactional(readOnly = true)
+    public void export(Long walletId, TransactionType type, Long categoryId,
+                       LocalDateTime startDate, LocalDateTime endDate,
+                       TransactionFileFormat format, boolean gzip, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = gzip ? new GZIPOutputStream(out, BUFFER_SIZE) : null;
+        Writer writer = new BufferedWriter(
+                new OutputStreamWriter(gzip ? compressed : out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        
+        LocalDateTime from = startDate != null ? startDate : TransactionRepository.EARLIEST;
+        LocalDateTime to = endDate != null ? endDate : TransactionRepository.LATEST;
+        try (Stream<Transaction> transactions = transactionRepository.streamFilteredTransactions(
+                walletId, type, categoryId, from, to)) {
+            Iterator<Transaction> rows = new NewestFirstMerge(transactions.iterator(),
+                    transactionArchive.streamNewestFirst(walletId, from, to)
+                            .filter(transaction -> TransactionService.matches(transaction, type, categoryId))
+                            .iterator());
+            if (format == TransactionFileFormat.CSV) {
+                writeCsv(rows, writer);
+            } else {
+                writeNdjson(rows, writer);
+            }
+        }
+        
+        writer.flush();
+        if (compressed != null) {
+            compressed.finish();
+        }
+    }
+    
+    private void writeCsv(Iterator<Transaction> rows, Writer writer) throws IOException {
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            Transaction transaction = rows.next();
+            writer.write(String.valueOf(transaction.getId()));
+            writer.write(',');
+            writer.write(transaction.getType().name());
+            writer.write(',');
+            writer.write(transaction.getAmount().toPlainString());
+            writer.write(',');
+            writer.write(csvField(transaction.getDescription()));
+            writer.write(',');
+            writer.write(transaction.getCategoryId() == null ? "" : transaction.getCategoryId().toString());
+            writer.write(',');
+            writer.write(transaction.getCreatedAt().toString());
+            writer.write('\n');
+            entityManager.detach(transaction);
+        }
+    }
+    
+    private void writeNdjson(Iterator<Transaction> rows, Writer writer) throws IOException {
+        JsonGenerator json = objectMapper.getFactory().createGenerator(writer);
+        json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // puts a newline between root-level objects instead of the default space
+        json.setPrettyPrinter(new MinimalPrettyPrinter("\n"));
+        boolean empty = true;
+        while (rows.hasNext()) {
+            Transaction transaction = rows.next();
+            json.writeStartObject();
+            json.writeNumberField("id", transaction.getId());
+            json.writeStringField("type", transaction.getType().name());
+            json.writeNumberField("amount", transaction.getAmount());
+            json.writeStringField("description", transaction.getDescription());
+            if (transaction.getCategoryId() != null) {
+                json.writeNumberField("categoryId", transaction.getCategoryId());
+            } else {
+                json.writeNullField("categoryId");
+            }
+            json.writeStringField("createdAt", transaction.getCreatedAt().toString());
+            json.writeEndObject();
+            entityManager.detach(transaction);
+            empty = false;
+        }
+        json.flush();
+        if (!empty) {
+            writer.write('\n');
+        }
+    }
+    
+    private static String csvField(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
@@ -0,0 +1,34 @@
+package com.fintech.wallet.application.transaction;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum TransactionFileFormat {
+    CSV(MediaType.parseMediaType("text/csv")),
+    NDJSON(MediaType.APPLICATION_NDJSON);
+    
+    private final MediaType mediaType;
+    
+    TransactionFileFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+    
+    public MediaType mediaType() {
+        return mediaType;
+    }
+    
+    public String fileName() {
+        return "transactions." + name().toLowerCase(Locale.ROOT);
+    }
+    
+    public static TransactionFileFormat fromContentType(String contentType) {
+        MediaType requested = MediaType.parseMediaType(contentType);
+        for (TransactionFileFormat format : values()) {
+            if (requested.isCompatibleWith(format.mediaType)) {
+                return format;
+            }
+        }
+        throw new IllegalArgumentException("Formato de importação não suportado: " + contentType);
+    }
+}
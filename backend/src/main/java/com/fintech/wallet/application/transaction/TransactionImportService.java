@@ -0,0 +1,246 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.application.category.CategoryCatalog;
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.interfaces.dto.ImportResultDTO;
+import com.fintech.wallet.interfaces.dto.ImportRowErrorDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Bulk import of historical transactions. The body is parsed as a stream and written in
+ * chunks, each chunk in its own database transaction with a single net balance update,
+ * so memory use depends on the chunk size and not on the size of the file. A file whose
+ * header cannot be read fails with {@link ImportFileException}; problems with single rows are
+ * returned in the report. Categories are resolved through {@link CategoryCatalog}, so a row
+ * can only use a category the user sees, and only one of its own type.
+ */
+@Slf4j
+@Service
+public class TransactionImportService {
+    
+    private static final int MAX_REPORTED_ERRORS = 1000;
+    
+    private final TransactionService transactionService;
+    private final CategoryCatalog categoryCatalog;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final LocalDateTime earliestDate;
+    
+    public TransactionImportService(TransactionService transactionService,
+                                    CategoryCatalog categoryCatalog,
+                                    ObjectMapper objectMapper,
+                                    @Value("${wallet.import.chunk-size:1000}") int chunkSize,
+                                    @Value("${wallet.import.earliest-date:2000-01-01}") String earliestDate) {
+        this.transactionService = transactionService;
+        this.categoryCatalog = categoryCatalog;
+        this.objectMapper = objectMapper;
+        this.chunkSize = chunkSize;
+        this.earliestDate = LocalDate.parse(earliestDate).atStartOfDay();
+    }
+    
+    public ImportResultDTO importTransactions(Long userId, Long walletId, InputStream body, TransactionFileFormat format) {
+        Report report = new Report();
+        List<Transaction> chunk = new ArrayList<>(chunkSize);
+        List<Long> chunkLines = new ArrayList<>(chunkSize);
+        
+        try (ImportRowReader reader = new ImportRowReader(body, format, objectMapper)) {
+            while (true) {
+                ImportRow row;
+                try {
+                    row = reader.next();
+                } catch (IllegalArgumentException e) {
+                    report.totalRows++;
+                    report.reject(reader.lineNumber(), e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    break;
+                }
+                
+                report.totalRows++;
+                try {
+                    chunk.add(toTransaction(userId, walletId, row));
+                    chunkLines.add(reader.lineNumber());
+                } catch (IllegalArgumentException e) {
+                    report.reject(reader.lineNumber(), e.getMessage());
+                }
+                
+                if (chunk.size() == chunkSize) {
+                    writeChunk(walletId, chunk, chunkLines, report);
+                }
+            }
+            writeChunk(walletId, chunk, chunkLines, report);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler arquivo de importação", e);
+        }
+        
+        return ImportResultDTO.builder()
+                .totalRows(report.totalRows)
+                .importedRows(report.importedRows)
+                .failedRows(report.failedRows)
+                .errors(report.errors)
+                .errorsTruncated(report.failedRows > report.errors.size())
+                .build();
+    }
+    
+    private void writeChunk(Long walletId, List<Transaction> chunk, List<Long> chunkLines, Report report) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        write(walletId, chunk, chunkLines, report);
+        chunk.clear();
+        chunkLines.clear();
+    }
+    
+    /**
+     * Writes the rows in one database transaction. When that is refused, each half is written
+     * on its own, down to single rows, so only the rows at fault are reported.
+     */
+    private void write(Long walletId, List<Transaction> rows, List<Long> lines, Report report) {
+        try {
+            transactionService.importChunk(walletId, rows);
+            report.importedRows += rows.size();
+            return;
+        } catch (IllegalArgumentException e) {
+            if (rows.size() == 1) {
+                report.reject(lines.get(0), e.getMessage());
+                return;
+            }
+        } catch (DataIntegrityViolationException e) {
+            if (rows.size() == 1) {
+                report.reject(lines.get(0), "Linha recusada pelo banco de dados");
+                return;
+            }
+        } catch (DataAccessException e) {
+            // not caused by the rows themselves; splitting the chunk would only repeat it
+            log.warn("Import chunk of wallet {} failed", walletId, e);
+            lines.forEach(line -> report.reject(line, "Falha ao gravar no banco de dados, tente novamente"));
+            return;
+        }
+        
+        // ids handed out to the rolled-back attempt must not make the retry look like an update
+        rows.forEach(row -> row.setId(null));
+        int half = rows.size() / 2;
+        write(walletId, rows.subList(0, half), lines.subList(0, half), report);
+        write(walletId, rows.subList(half, rows.size()), lines.subList(half, lines.size()), report);
+    }
+    
+    private Transaction toTransaction(Long userId, Long walletId, ImportRow row) {
+        TransactionType type = parseType(row.getType());
+        Transaction transaction = Transaction.builder()
+                .walletId(walletId)
+                .type(type)
+                .amount(parseAmount(row.getAmount()))
+                .description(row.getDescription())
+                .categoryId(parseCategory(userId, row.getCategoryId(), type))
+                .createdAt(parseDate(row.getCreatedAt()))
+                .build();
+        
+        transaction.validate();
+        if (transaction.getDescription() != null && transaction.getDescription().length() > 500) {
+            throw new IllegalArgumentException("Descrição deve ter no máximo 500 caracteres");
+        }
+        return transaction;
+    }
+    
+    private TransactionType parseType(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return TransactionType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Tipo de transação inválido: " + value);
+        }
+    }
+    
+    private BigDecimal parseAmount(String value) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            BigDecimal amount = new BigDecimal(value.trim());
+            if (amount.stripTrailingZeros().scale() > 2) {
+                throw new IllegalArgumentException("Valor deve ter no máximo 2 casas decimais: " + value);
+            }
+            return amount;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Valor inválido: " + value);
+        }
+    }
+    
+    private Long parseCategory(Long userId, String value, TransactionType type) {
+        if (value == null) {
+            return null;
+        }
+        Long categoryId;
+        try {
+            categoryId = Long.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Categoria inválida: " + value);
+        }
+        Category category = categoryCatalog.find(userId, categoryId)
+                .orElseThrow(() -> new IllegalArgumentException("Categoria não encontrada: " + categoryId));
+        // a missing type is reported by Transaction.validate
+        if (type != null && category.getType() != type) {
+            throw new IllegalArgumentException("Categoria " + categoryId + " não é do tipo " + type);
+        }
+        return categoryId;
+    }
+    
+    private LocalDateTime parseDate(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        LocalDateTime date;
+        try {
+            date = trimmed.length() == 10
+                    ? LocalDate.parse(trimmed).atStartOfDay()
+                    : LocalDateTime.parse(trimmed);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Data inválida: " + value);
+        }
+        // history only: future rows would sit in months without a partition yet, and typos
+        // in the year would each get a partition of their own
+        if (!date.isBefore(LocalDate.now().plusDays(1).atStartOfDay())) {
+            throw new IllegalArgumentException("Data no futuro: " + value);
+        }
+        if (date.isBefore(earliestDate)) {
+            throw new IllegalArgumentException("Data anterior a " + earliestDate.toLocalDate() + ": " + value);
+        }
+        return date;
+    }
+    
+    private static class Report {
+        private long totalRows;
+        private long importedRows;
+        private long failedRows;
+        private final List<ImportRowErrorDTO> errors = new ArrayList<>();
+        
+        void reject(long line, String message) {
+            failedRows++;
+            if (errors.size() < MAX_REPORTED_ERRORS) {
+                errors.add(ImportRowErrorDTO.builder().line(line).message(message).build());
+            }
+        }
+    }
+}
@@ -1,37 +1,98 @@
 package com.fintech.wallet.application.transaction;
 
+import com.fintech.wallet.application.dashboard.DailyTotals;
 import com.fintech.wallet.application.wallet.WalletService;
 import com.fintech.wallet.domain.Transaction;
 import com.fintech.wallet.domain.TransactionType;
-import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
 import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
 import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
 import com.fintech.wallet.infrastructure.mappers.TransactionMapper;
 import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
 import com.fintech.wallet.interfaces.dto.TransactionDTO;
-import lombok.RequiredArgsConstructor;
+import com.fintech.wallet.interfaces.dto.TransactionPageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
-@RequiredArgsConstructor
 public class TransactionService {
     
     private final TransactionRepository transactionRepository;
     private final WalletService walletService;
     private final CategoryRepository categoryRepository;
     private final TransactionMapper transactionMapper;
+    private final DailyTotals dailyTotals;
+    private final TransactionArchive transactionArchive;
+    private final int defaultPageSize;
+    private final int maxPageSize;
+    
+    public TransactionService(TransactionRepository transactionRepository,
+                              WalletService walletService,
+                              CategoryRepository categoryRepository,
+                              TransactionMapper transactionMapper,
+                              DailyTotals dailyTotals,
+                              TransactionArchive transactionArchive,
+                              @Value("${wallet.transactions.page-size:50}") int defaultPageSize,
+                              @Value("${wallet.transactions.max-page-size:200}") int maxPageSize) {
+        this.transactionRepository = transactionRepository;
+        this.walletService = walletService;
+        this.categoryRepository = categoryRepository;
+        this.transactionMapper = transactionMapper;
+        this.dailyTotals = dailyTotals;
+        this.transactionArchive = transactionArchive;
+        this.defaultPageSize = defaultPageSize;
+        this.maxPageSize = maxPageSize;
+    }
     
     @Transactional
-    public TransactionDTO createTransaction(Long userId, CreateTransactionDTO createDTO) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
+    public TransactionDTO createTransaction(Long userId, Long walletId, CreateTransactionDTO createDTO) {
+        
+        Transaction transaction = newTransaction(walletId, createDTO);
+        
+        walletService.updateBalance(walletId, createDTO.getAmount(), createDTO.getType());
+        
+        transaction = transactionRepository.save(transaction);
+        dailyTotals.record(List.of(transaction));
+        
+        return transactionMapper.toDTO(transaction, userId);
+    }
+    
+    /**
+     * Persists a chunk of imported transactions with one net balance update for the whole
+     * chunk. Rejects the chunk if the net effect would leave the wallet negative.
+     */
+    @Transactional
+    public void importChunk(Long walletId, List<Transaction> transactions) {
+        BigDecimal net = BigDecimal.ZERO;
+        for (Transaction transaction : transactions) {
+            net = transaction.getType() == TransactionType.INCOME
+                    ? net.add(transaction.getAmount())
+                    : net.subtract(transaction.getAmount());
+        }
+        
+        if (net.signum() != 0) {
+            TransactionType type = net.signum() > 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            walletService.updateBalance(walletId, net.abs(), type);
+        } else {
+            walletService.lockWallet(walletId);
+        }
         
+        transactionRepository.saveAll(transactions);
+        dailyTotals.record(transactions);
+    }
+    
+    public Transaction newTransaction(Long walletId, CreateTransactionDTO createDTO) {
         Transaction transaction = Transaction.builder()
-                .walletId(wallet.getId())
+                .walletId(walletId)
                 .type(createDTO.getType())
                 .amount(createDTO.getAmount())
                 .description(createDTO.getDescription())
@@ -40,33 +101,69 @@ public class TransactionService {
         
         transaction.validate();
         
-        walletService.updateBalance(wallet.getId(), createDTO.getAmount(), createDTO.getType());
-        
-        transaction = transactionRepository.save(transaction);
-        
-        return transactionMapper.toDTO(transaction);
+        return transaction;
     }
     
-    public List<TransactionDTO> getTransactions(Long userId, TransactionType type, Long categoryId, 
-                                                LocalDateTime startDate, LocalDateTime endDate) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
+    /**
+     * Returns one page of the wallet's transactions, newest first. The cursor from the previous
+     * page resumes the listing right after its last row, so deep pages cost the same as the first.
+     * When the range reaches archived months, their rows are merged in as if never moved.
+     */
+    @Transactional(readOnly = true)
+    public TransactionPageDTO getTransactions(Long userId, Long walletId, TransactionType type, Long categoryId,
+                                              LocalDateTime startDate, LocalDateTime endDate,
+                                              String cursor, Integer limit) {
+        int pageSize = limit == null ? defaultPageSize : Math.max(1, Math.min(limit, maxPageSize));
+        // one extra row tells whether there is a next page without a COUNT query
+        Pageable fetch = PageRequest.of(0, pageSize + 1);
+        LocalDateTime from = startDate != null ? startDate : TransactionRepository.EARLIEST;
+        LocalDateTime to = endDate != null ? endDate : TransactionRepository.LATEST;
+        TransactionCursor after = cursor == null || cursor.isBlank() ? null : TransactionCursor.decode(cursor);
         
-        List<Transaction> transactions = transactionRepository.findFilteredTransactions(
-                wallet.getId(), type, categoryId, startDate, endDate
-        );
+        List<Transaction> transactions;
+        if (after == null) {
+            transactions = transactionRepository.findFilteredTransactions(
+                    walletId, type, categoryId, from, to, fetch
+            );
+        } else {
+            transactions = transactionRepository.findFilteredTransactionsAfter(
+                    walletId, after.createdAt(), after.id(), type, categoryId, from, to, fetch
+            );
+        }
         
-        return transactions.stream()
-                .map(transactionMapper::toDTO)
-                .collect(Collectors.toList());
+        // a full page leaves no room for archived rows older than its last one, so the archive
+        // is only read when the page reaches back to archived months
+        LocalDateTime archivedFrom = from;
+        if (transactions.size() > pageSize) {
+            LocalDateTime oldest = transactions.get(pageSize).getCreatedAt();
+            archivedFrom = oldest.isAfter(from) ? oldest : from;
+        }
+        Iterator<Transaction> archived = transactionArchive.streamNewestFirst(
+                        walletId, archivedFrom, after != null && after.createdAt().isBefore(to) ? after.createdAt() : to)
+                .filter(transaction -> matches(transaction, type, categoryId))
+                .filter(transaction -> after == null || after.isBefore(transaction))
+                .limit(pageSize + 1L)
+                .iterator();
+        if (archived.hasNext()) {
+            Iterator<Transaction> merged = new NewestFirstMerge(transactions.iterator(), archived);
+            transactions = new ArrayList<>(pageSize + 1);
+            while (merged.hasNext() && transactions.size() <= pageSize) {
+                transactions.add(merged.next());
+            }
+        }
+        
+        boolean hasMore = transactions.size() > pageSize;
+        List<Transaction> page = hasMore ? transactions.subList(0, pageSize) : transactions;
+        
+        return TransactionPageDTO.builder()
+                .items(transactionMapper.toDTOs(page, userId))
+                .nextCursor(hasMore ? TransactionCursor.of(page.get(pageSize - 1)).encode() : null)
+                .hasMore(hasMore)
+                .build();
     }
     
-    public List<TransactionDTO> getAllTransactions(Long userId) {
-        Wallet wallet = walletService.getWalletByUserId(userId);
-        List<Transaction> transactions = transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId());
-        
-        return transactions.stream()
-                .map(transactionMapper::toDTO)
-                .collect(Collectors.toList());
+    static boolean matches(Transaction transaction, TransactionType type, Long categoryId) {
+        return (type == null || transaction.getType() == type)
+                && (categoryId == null || categoryId.equals(transaction.getCategoryId()));
     }
 }
-
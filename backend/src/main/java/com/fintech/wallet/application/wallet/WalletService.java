@@ -1,56 +1,100 @@
 package com.fintech.wallet.application.wallet;
 
+import com.fintech.wallet.application.dashboard.DashboardCache;
 import com.fintech.wallet.domain.TransactionType;
 import com.fintech.wallet.domain.Wallet;
 import com.fintech.wallet.infrastructure.persistence.WalletRepository;
 import com.fintech.wallet.interfaces.dto.WalletDTO;
-import lombok.RequiredArgsConstructor;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Optional;
 
 @Service
-@RequiredArgsConstructor
 public class WalletService {
     
     private final WalletRepository walletRepository;
+    private final DashboardCache dashboardCache;
+    private final Cache<Long, Long> walletIdsByUser;
     
-    public WalletDTO getBalance(Long userId) {
-        Wallet wallet = walletRepository.findByUserId(userId)
-                .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
+    public WalletService(WalletRepository walletRepository,
+                         DashboardCache dashboardCache,
+                         @Value("${wallet.wallet-ids.max-cached-users:10000}") long maxCachedUsers) {
+        this.walletRepository = walletRepository;
+        this.dashboardCache = dashboardCache;
+        // a user's wallet is created with the user and never reassigned, so entries never go stale
+        this.walletIdsByUser = Caffeine.newBuilder()
+                .maximumSize(maxCachedUsers)
+                .build();
+    }
+    
+    public WalletDTO getBalance(Long walletId) {
+        Wallet wallet = getWallet(walletId);
         
         return WalletDTO.builder()
                 .id(wallet.getId())
                 .userId(wallet.getUserId())
                 .balance(wallet.getBalance())
+                .reserved(wallet.getReserved())
                 .build();
     }
     
+    /**
+     * Applies the movement with a single conditional UPDATE instead of read-modify-write,
+     * so concurrent postings on the same wallet never lose updates. The returned wallet
+     * carries the balance and version written by this call.
+     */
     @Transactional
     public Wallet updateBalance(Long walletId, BigDecimal amount, TransactionType type) {
-        Wallet wallet = walletRepository.findById(walletId)
-                .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
+        LocalDateTime now = LocalDateTime.now();
         
-        BigDecimal newBalance;
         if (type == TransactionType.INCOME) {
-            newBalance = wallet.getBalance().add(amount);
-        } else {
-            newBalance = wallet.getBalance().subtract(amount);
-            if (newBalance.compareTo(BigDecimal.ZERO) < 0) {
-                throw new IllegalArgumentException("Saldo insuficiente. Saldo atual: " + wallet.getBalance());
+            if (walletRepository.credit(walletId, amount, now) == 0) {
+                throw new IllegalArgumentException("Carteira não encontrada");
             }
+        } else if (walletRepository.debit(walletId, amount, now) == 0) {
+            Wallet wallet = walletRepository.findById(walletId)
+                    .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
+            throw new IllegalArgumentException("Saldo insuficiente. Saldo atual: " + wallet.getAvailableBalance());
         }
+        dashboardCache.invalidate(walletId);
         
-        wallet.setBalance(newBalance);
-        wallet.validateBalance();
-        
-        return walletRepository.save(wallet);
+        return walletRepository.findById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
     }
     
-    public Wallet getWalletByUserId(Long userId) {
-        return walletRepository.findByUserId(userId)
+    /**
+     * Serializes a write that does not move the balance with the wallet's other postings.
+     */
+    @Transactional
+    public void lockWallet(Long walletId) {
+        walletRepository.lockById(walletId)
                 .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
     }
+    
+    public Wallet getWallet(Long walletId) {
+        return walletRepository.findById(walletId)
+                .orElseThrow(() -> new IllegalArgumentException("Carteira não encontrada"));
+    }
+    
+    /**
+     * Wallet of the user, for tokens that do not carry it in their wid claim. Hits are
+     * answered from memory; a user without a wallet is not cached.
+     */
+    public Optional<Long> findWalletIdByUserId(Long userId) {
+        Long walletId = walletIdsByUser.getIfPresent(userId);
+        if (walletId == null) {
+            walletId = walletRepository.findByUserId(userId).map(Wallet::getId).orElse(null);
+            if (walletId != null) {
+                walletIdsByUser.put(userId, walletId);
+            }
+        }
+        return Optional.ofNullable(walletId);
+    }
 }
 
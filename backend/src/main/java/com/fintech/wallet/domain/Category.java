@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "categories_seq")
+    @SequenceGenerator(name = "categories_seq", sequenceName = "categories_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(nullable = false)
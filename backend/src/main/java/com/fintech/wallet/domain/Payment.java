@@ -0,0 +1,92 @@
+package com.fintech.wallet.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A payment accepted with its amount reserved on the wallet. PENDING rows are the settlement
+ * queue; a worker holds one while {@code leaseUntil} is in the future.
+ */
+@Entity
+@Table(name = "payments")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class Payment {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payments_seq")
+    @SequenceGenerator(name = "payments_seq", sequenceName = "payments_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal amount;
+    
+    @Column(nullable = false, length = 20)
+    private String method;
+    
+    @Column
+    private String recipient;
+    
+    @Column(length = 500)
+    private String description;
+    
+    @Column(name = "pix_key")
+    private String pixKey;
+    
+    @Column(name = "bank_code", length = 10)
+    private String bankCode;
+    
+    @Column(name = "bank_agency", length = 20)
+    private String bankAgency;
+    
+    @Column(name = "bank_account", length = 30)
+    private String bankAccount;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private PaymentStatus status;
+    
+    @Column(name = "failure_reason")
+    private String failureReason;
+    
+    @Column(name = "transaction_id")
+    private Long transactionId;
+    
+    @Column(nullable = false)
+    private int attempts;
+    
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+    
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = LocalDateTime.now();
+        createdAt = now;
+        updatedAt = now;
+    }
+    
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+}
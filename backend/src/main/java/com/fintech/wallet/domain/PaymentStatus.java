@@ -0,0 +1,9 @@
+package com.fintech.wallet.domain;
+
+public enum PaymentStatus {
+    PENDING,
+    COMPLETED,
+    FAILED,
+    // the gateway never confirmed either way; the amount stays reserved until reconciled
+    UNCONFIRMED
+}
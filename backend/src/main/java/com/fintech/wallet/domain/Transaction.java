@@ -21,7 +21,8 @@ import java.time.LocalDateTime;
 public class Transaction {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "transactions_seq")
+    @SequenceGenerator(name = "transactions_seq", sequenceName = "transactions_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "wallet_id", nullable = false)
@@ -50,7 +51,9 @@ public class Transaction {
     
     @PrePersist
     protected void onCreate() {
-        createdAt = LocalDateTime.now();
+        if (createdAt == null) {
+            createdAt = LocalDateTime.now();
+        }
     }
     
     public void validate() {
@@ -20,7 +20,8 @@ import java.time.LocalDateTime;
 public class Wallet {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallets_seq")
+    @SequenceGenerator(name = "wallets_seq", sequenceName = "wallets_id_seq", allocationSize = 50)
     private Long id;
     
     @Column(name = "user_id", nullable = false)
@@ -32,12 +33,20 @@ public class Wallet {
     @DecimalMin(value = "0.00", message = "Saldo não pode ser negativo")
     private BigDecimal balance;
     
+    // held by accepted payments that have not settled; balance - reserved can be spent
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal reserved;
+    
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
     
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
     
+    @Version
+    @Column(nullable = false)
+    private Long version;
+    
     @PrePersist
     protected void onCreate() {
         LocalDateTime now = LocalDateTime.now();
@@ -46,6 +55,9 @@ public class Wallet {
         if (balance == null) {
             balance = BigDecimal.ZERO;
         }
+        if (reserved == null) {
+            reserved = BigDecimal.ZERO;
+        }
     }
     
     @PreUpdate
@@ -53,6 +65,10 @@ public class Wallet {
         updatedAt = LocalDateTime.now();
     }
     
+    public BigDecimal getAvailableBalance() {
+        return reserved == null ? balance : balance.subtract(reserved);
+    }
+    
     public void validateBalance() {
         if (balance == null || balance.compareTo(BigDecimal.ZERO) < 0) {
             throw new IllegalArgumentException("Saldo não pode ser negativo");
@@ -0,0 +1,46 @@
+package com.fintech.wallet.domain;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * Sum and count of a wallet's transactions for one day, type and category.
+ */
+@Entity
+@Table(name = "wallet_daily_totals")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletDailyTotal {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "wallet_daily_totals_seq")
+    @SequenceGenerator(name = "wallet_daily_totals_seq", sequenceName = "wallet_daily_totals_id_seq", allocationSize = 50)
+    private Long id;
+    
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+    
+    @Column(name = "posting_date", nullable = false)
+    private LocalDate postingDate;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private TransactionType type;
+    
+    @Column(name = "category_id")
+    private Long categoryId;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total;
+    
+    @Column(name = "transaction_count", nullable = false)
+    private long transactionCount;
+}
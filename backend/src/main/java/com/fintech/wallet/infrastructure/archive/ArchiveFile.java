@@ -0,0 +1,275 @@
+package com.fintech.wallet.infrastructure.archive;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+
+/**
+ * One wallet-month of archived transactions: a magic number followed by appended blocks.
+ * A block holds up to {@link #BLOCK_ROWS} rows sorted by (createdAt, id), stored column by
+ * column and deflated, behind a fixed-size header with its row count, time range, sizes and
+ * CRC. The block headers are the file's sparse index: opening a file maps it and walks the
+ * headers only, and a read inflates just the blocks whose time range overlaps the query.
+ *
+ * Blocks are never rewritten. A crash while appending can leave a torn block at the end; it
+ * is ignored when it runs past the end of the file, and otherwise fails its CRC on decode.
+ */
+final class ArchiveFile {
+    
+    static final int MAGIC = 0x54584131; // "TXA1"
+    static final int BLOCK_ROWS = 1024;
+    static final int HEADER_BYTES = 4 + 8 + 8 + 4 + 4 + 4;
+    
+    static final Comparator<Transaction> ORDER =
+            Comparator.comparing(Transaction::getCreatedAt).thenComparing(Transaction::getId);
+    
+    private final Path path;
+    private final ByteBuffer buffer;
+    private final List<Block> blocks;
+    private final long validLength;
+    
+    private ArchiveFile(Path path, ByteBuffer buffer, List<Block> blocks, long validLength) {
+        this.path = path;
+        this.buffer = buffer;
+        this.blocks = blocks;
+        this.validLength = validLength;
+    }
+    
+    static ArchiveFile open(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException("Archive file too large: " + path);
+            }
+            ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            if (size < 4 || buffer.getInt(0) != MAGIC) {
+                throw new IOException("Not an archive file: " + path);
+            }
+            
+            List<Block> blocks = new ArrayList<>();
+            int position = 4;
+            while (position + HEADER_BYTES <= size) {
+                int rows = buffer.getInt(position);
+                long minMicros = buffer.getLong(position + 4);
+                long maxMicros = buffer.getLong(position + 12);
+                int rawLength = buffer.getInt(position + 20);
+                int length = buffer.getInt(position + 24);
+                int crc = buffer.getInt(position + 28);
+                if (rows <= 0 || rawLength <= 0 || length <= 0 || position + HEADER_BYTES + (long) length > size) {
+                    break;
+                }
+                blocks.add(new Block(position + HEADER_BYTES, length, rawLength, crc, rows, minMicros, maxMicros));
+                position += HEADER_BYTES + length;
+            }
+            return new ArchiveFile(path, buffer, List.copyOf(blocks), position);
+        }
+    }
+    
+    List<Block> blocks() {
+        return blocks;
+    }
+    
+    /**
+     * Length of the well-formed prefix; anything after it is a torn append.
+     */
+    long validLength() {
+        return validLength;
+    }
+    
+    /**
+     * Rows of the block with createdAt in [fromMicros, untilMicros), in (createdAt, id) order.
+     */
+    List<Transaction> read(Block block, Long walletId, long fromMicros, long untilMicros) throws IOException {
+        ByteBuffer payload = buffer.slice(block.offset(), block.length());
+        CRC32 crc = new CRC32();
+        crc.update(payload.duplicate());
+        if ((int) crc.getValue() != block.crc()) {
+            throw new IOException("Corrupt block at " + block.offset() + " of " + path);
+        }
+        
+        byte[] raw = new byte[block.rawLength()];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(payload);
+            if (inflater.inflate(raw) != raw.length || !inflater.finished()) {
+                throw new IOException("Corrupt block at " + block.offset() + " of " + path);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Corrupt block at " + block.offset() + " of " + path, e);
+        } finally {
+            inflater.end();
+        }
+        
+        int rows = block.rows();
+        ByteBuffer in = ByteBuffer.wrap(raw);
+        long[] ids = new long[rows];
+        long[] micros = new long[rows];
+        long previousId = 0;
+        long previousMicros = 0;
+        for (int i = 0; i < rows; i++) {
+            previousId += readSignedVarLong(in);
+            ids[i] = previousId;
+        }
+        for (int i = 0; i < rows; i++) {
+            previousMicros += readSignedVarLong(in);
+            micros[i] = previousMicros;
+        }
+        byte[] types = new byte[rows];
+        in.get(types);
+        long[] amounts = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            amounts[i] = readSignedVarLong(in);
+        }
+        long[] categories = new long[rows];
+        for (int i = 0; i < rows; i++) {
+            categories[i] = readVarLong(in);
+        }
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            int length = (int) readVarLong(in);
+            String description = null;
+            if (length > 0) {
+                description = new String(raw, in.position(), length - 1, StandardCharsets.UTF_8);
+                in.position(in.position() + length - 1);
+            }
+            if (micros[i] < fromMicros || micros[i] >= untilMicros) {
+                continue;
+            }
+            transactions.add(Transaction.builder()
+                    .id(ids[i])
+                    .walletId(walletId)
+                    .type(types[i] == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .amount(BigDecimal.valueOf(amounts[i], 2))
+                    .description(description)
+                    .categoryId(categories[i] == 0 ? null : categories[i])
+                    .createdAt(toDateTime(micros[i]))
+                    .build());
+        }
+        return transactions;
+    }
+    
+    /**
+     * Encodes rows, already sorted by (createdAt, id), as one block with its header.
+     */
+    static ByteBuffer encode(List<Transaction> rows) throws IOException {
+        ByteArrayOutputStream columns = new ByteArrayOutputStream(rows.size() * 16);
+        long previousId = 0;
+        for (Transaction row : rows) {
+            writeSignedVarLong(columns, row.getId() - previousId);
+            previousId = row.getId();
+        }
+        long previousMicros = 0;
+        for (Transaction row : rows) {
+            long micros = toMicros(row.getCreatedAt());
+            writeSignedVarLong(columns, micros - previousMicros);
+            previousMicros = micros;
+        }
+        for (Transaction row : rows) {
+            columns.write(row.getType() == TransactionType.INCOME ? 0 : 1);
+        }
+        for (Transaction row : rows) {
+            // numeric(19, 2); amounts beyond a long of cents fail the archive run
+            writeSignedVarLong(columns, row.getAmount().setScale(2).unscaledValue().longValueExact());
+        }
+        for (Transaction row : rows) {
+            writeVarLong(columns, row.getCategoryId() == null ? 0 : row.getCategoryId());
+        }
+        for (Transaction row : rows) {
+            if (row.getDescription() == null) {
+                writeVarLong(columns, 0);
+            } else {
+                byte[] bytes = row.getDescription().getBytes(StandardCharsets.UTF_8);
+                writeVarLong(columns, bytes.length + 1L);
+                columns.write(bytes);
+            }
+        }
+        byte[] raw = columns.toByteArray();
+        
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(raw.length / 2);
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed, deflater)) {
+            out.write(raw);
+        } finally {
+            deflater.end();
+        }
+        byte[] payload = compressed.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        
+        ByteBuffer block = ByteBuffer.allocate(HEADER_BYTES + payload.length);
+        block.putInt(rows.size());
+        block.putLong(toMicros(rows.get(0).getCreatedAt()));
+        block.putLong(toMicros(rows.get(rows.size() - 1).getCreatedAt()));
+        block.putInt(raw.length);
+        block.putInt(payload.length);
+        block.putInt((int) crc.getValue());
+        block.put(payload);
+        return block.flip();
+    }
+    
+    static long toMicros(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + dateTime.getNano() / 1_000;
+    }
+    
+    private static LocalDateTime toDateTime(long micros) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(micros, 1_000_000L),
+                (int) Math.floorMod(micros, 1_000_000L) * 1_000, ZoneOffset.UTC);
+    }
+    
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static void writeSignedVarLong(ByteArrayOutputStream out, long value) {
+        writeVarLong(out, (value << 1) ^ (value >> 63));
+    }
+    
+    private static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+    
+    private static long readSignedVarLong(ByteBuffer in) {
+        long value = readVarLong(in);
+        return (value >>> 1) ^ -(value & 1);
+    }
+    
+    /**
+     * Sparse index entry: where a block's payload is and which createdAt range it covers.
+     */
+    record Block(int offset, int length, int rawLength, int crc, int rows, long minMicros, long maxMicros) {
+        
+        boolean overlaps(long fromMicros, long untilMicros) {
+            return maxMicros >= fromMicros && minMicros < untilMicros;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.fintech.wallet.infrastructure.archive;
+
+import com.fintech.wallet.domain.Transaction;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only cold storage for transactions moved out of the database, one
+ * {@link ArchiveFile} per wallet and month under {@code <directory>/<walletId>/<yyyy-MM>.txa}.
+ * The archived months of a wallet and the open (memory-mapped) files are cached, so a read
+ * for a wallet with nothing archived costs a cache lookup and a stat of its directory.
+ *
+ * Every instance serving reads must see the same directory. A cached listing is used only
+ * while the wallet's directory has the modification time it was listed at, and a mapped file
+ * only while it has the size and modification time it was mapped at, so rows another
+ * instance archives are seen on the next read. Files are never truncated, since a reader may
+ * have them mapped.
+ */
+@Component
+public class TransactionArchive {
+    
+    private static final String SUFFIX = ".txa";
+    // backstop for file systems whose timestamps are too coarse to show every change
+    private static final Duration MAX_STALENESS = Duration.ofMinutes(1);
+    
+    private final Path directory;
+    private final Cache<Long, Listing> months;
+    private final Cache<Path, Mapped> files;
+    private final ReentrantLock appendLock = new ReentrantLock();
+    private final AtomicLong appends = new AtomicLong();
+    
+    public TransactionArchive(@Value("${wallet.archive.directory:./data/archive}") String directory,
+                              @Value("${wallet.archive.max-open-files:256}") long maxOpenFiles) {
+        this.directory = Path.of(directory);
+        this.months = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterWrite(MAX_STALENESS)
+                .build();
+        this.files = Caffeine.newBuilder()
+                .maximumSize(maxOpenFiles)
+                .expireAfterWrite(MAX_STALENESS)
+                .build();
+    }
+    
+    /**
+     * Months of the wallet that have archived transactions.
+     */
+    public NavigableSet<YearMonth> months(Long walletId) {
+        Path walletDirectory = directory.resolve(walletId.toString());
+        FileTime modified = lastModified(walletDirectory);
+        Listing cached = months.getIfPresent(walletId);
+        if (cached != null && Objects.equals(cached.modified(), modified)) {
+            return cached.months();
+        }
+        // listed outside the cache's compute, whose lock would pin a virtual thread's carrier
+        // during the I/O; a listing that may predate a concurrent append is dropped again
+        long generation = appends.get();
+        NavigableSet<YearMonth> listed = listMonths(walletId);
+        months.put(walletId, new Listing(listed, modified));
+        if (appends.get() != generation) {
+            months.invalidate(walletId);
+        }
+        return listed;
+    }
+    
+    /**
+     * Archived rows with createdAt in [startDate, untilDate), in (createdAt, id) order.
+     */
+    public List<Transaction> read(Long walletId, LocalDateTime startDate, LocalDateTime untilDate) {
+        if (!startDate.isBefore(untilDate)) {
+            return List.of();
+        }
+        long fromMicros = ArchiveFile.toMicros(startDate);
+        long untilMicros = ArchiveFile.toMicros(untilDate);
+        List<Transaction> transactions = new ArrayList<>();
+        for (YearMonth month : months(walletId).subSet(
+                YearMonth.from(startDate), true, YearMonth.from(untilDate), true)) {
+            transactions.addAll(readMonth(walletId, month, fromMicros, untilMicros));
+        }
+        return transactions;
+    }
+    
+    /**
+     * Archived rows with createdAt in [startDate, endDate], newest first like the listing
+     * queries. Months are read lazily, so a consumer that stops early only pays for the
+     * months it reached.
+     */
+    public Stream<Transaction> streamNewestFirst(Long walletId, LocalDateTime startDate, LocalDateTime endDate) {
+        if (startDate.isAfter(endDate)) {
+            return Stream.empty();
+        }
+        long fromMicros = ArchiveFile.toMicros(startDate);
+        long untilMicros = ArchiveFile.toMicros(endDate) + 1;
+        return months(walletId).subSet(YearMonth.from(startDate), true, YearMonth.from(endDate), true)
+                .descendingSet()
+                .stream()
+                .flatMap(month -> {
+                    List<Transaction> rows = new ArrayList<>(readMonth(walletId, month, fromMicros, untilMicros));
+                    Collections.reverse(rows);
+                    return rows.stream();
+                });
+    }
+    
+    /**
+     * Appends the rows, all of the given wallet and month, to the month's file and forces it
+     * to disk. Rows whose id the file already holds are skipped, so re-archiving after a crash
+     * between this call and the database delete writes nothing twice. A torn block left by an
+     * earlier crash is zeroed and written over. Returns the number of rows written.
+     */
+    public int append(Long walletId, YearMonth month, List<Transaction> transactions) {
+        // a lock rather than synchronized: the file I/O would pin a virtual thread's carrier
+        appendLock.lock();
+        try {
+            return appendLocked(walletId, month, transactions);
+        } finally {
+            appendLock.unlock();
+        }
+    }
+    
+    private int appendLocked(Long walletId, YearMonth month, List<Transaction> transactions) {
+        for (Transaction transaction : transactions) {
+            if (!transaction.getWalletId().equals(walletId) || !YearMonth.from(transaction.getCreatedAt()).equals(month)) {
+                throw new IllegalArgumentException(
+                        "Transaction " + transaction.getId() + " does not belong to " + walletId + "/" + month);
+            }
+        }
+        Path path = path(walletId, month);
+        try {
+            Files.createDirectories(path.getParent());
+            // also covers a file whose creation was cut short before its magic number
+            boolean created = !Files.exists(path) || Files.size(path) < 4;
+            
+            Set<Long> archivedIds = new HashSet<>();
+            long validLength = 4;
+            if (!created) {
+                ArchiveFile file = ArchiveFile.open(path);
+                validLength = file.validLength();
+                List<ArchiveFile.Block> blocks = file.blocks();
+                for (int i = 0; i < blocks.size(); i++) {
+                    ArchiveFile.Block block = blocks.get(i);
+                    List<Transaction> rows;
+                    try {
+                        rows = file.read(block, walletId, Long.MIN_VALUE, Long.MAX_VALUE);
+                    } catch (IOException e) {
+                        if (i < blocks.size() - 1) {
+                            throw e;
+                        }
+                        // a torn last block: write over it, its rows are still in the database
+                        validLength = block.offset() - ArchiveFile.HEADER_BYTES;
+                        break;
+                    }
+                    rows.forEach(row -> archivedIds.add(row.getId()));
+                }
+            }
+            
+            List<Transaction> rows = new ArrayList<>();
+            for (Transaction transaction : transactions) {
+                if (!archivedIds.contains(transaction.getId())) {
+                    rows.add(transaction);
+                }
+            }
+            rows.sort(ArchiveFile.ORDER);
+            
+            try (FileChannel channel = FileChannel.open(path,
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+                // zeroed rather than truncated: a reader still mapping the old length would fault
+                // on the pages cut off, while zeros only end the block walk of the next open
+                long end = channel.size();
+                if (created) {
+                    channel.write(ByteBuffer.allocate(4).putInt(0, ArchiveFile.MAGIC), 0);
+                }
+                for (long position = validLength; position < end; ) {
+                    position += channel.write(ByteBuffer.allocate((int) Math.min(8192, end - position)), position);
+                }
+                channel.position(validLength);
+                for (int from = 0; from < rows.size(); from += ArchiveFile.BLOCK_ROWS) {
+                    ByteBuffer block = ArchiveFile.encode(rows.subList(from, Math.min(rows.size(), from + ArchiveFile.BLOCK_ROWS)));
+                    while (block.hasRemaining()) {
+                        channel.write(block);
+                    }
+                }
+                channel.force(true);
+            }
+            if (created) {
+                // makes the new directory entry durable too
+                try (FileChannel parent = FileChannel.open(path.getParent(), StandardOpenOption.READ)) {
+                    parent.force(true);
+                }
+            }
+            return rows.size();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive " + path, e);
+        } finally {
+            appends.incrementAndGet();
+            files.invalidate(path);
+            months.invalidate(walletId);
+        }
+    }
+    
+    private List<Transaction> readMonth(Long walletId, YearMonth month, long fromMicros, long untilMicros) {
+        Path path = path(walletId, month);
+        try {
+            // read before mapping, so a change racing the open only costs another one
+            BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+            Mapped cached = files.getIfPresent(path);
+            ArchiveFile file;
+            if (cached != null && cached.matches(attributes)) {
+                file = cached.file();
+            } else {
+                file = ArchiveFile.open(path);
+                files.put(path, new Mapped(file, attributes.size(), attributes.lastModifiedTime()));
+            }
+            List<Transaction> rows = new ArrayList<>();
+            for (ArchiveFile.Block block : file.blocks()) {
+                if (block.overlaps(fromMicros, untilMicros)) {
+                    rows.addAll(file.read(block, walletId, fromMicros, untilMicros));
+                }
+            }
+            // blocks appended by later runs can interleave with earlier ones
+            rows.sort(ArchiveFile.ORDER);
+            return rows;
+        } catch (NoSuchFileException e) {
+            months.invalidate(walletId);
+            return List.of();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not read " + path, e);
+        }
+    }
+    
+    private NavigableSet<YearMonth> listMonths(Long walletId) {
+        NavigableSet<YearMonth> found = new TreeSet<>();
+        try (Stream<Path> entries = Files.list(directory.resolve(walletId.toString()))) {
+            entries.map(entry -> entry.getFileName().toString())
+                    .filter(name -> name.endsWith(SUFFIX))
+                    .forEach(name -> {
+                        try {
+                            found.add(YearMonth.parse(name.substring(0, name.length() - SUFFIX.length())));
+                        } catch (DateTimeParseException e) {
+                            // not ours
+                        }
+                    });
+        } catch (NoSuchFileException e) {
+            return Collections.emptyNavigableSet();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not list archive of wallet " + walletId, e);
+        }
+        return Collections.unmodifiableNavigableSet(found);
+    }
+    
+    private static FileTime lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stat " + path, e);
+        }
+    }
+    
+    private Path path(Long walletId, YearMonth month) {
+        return directory.resolve(walletId.toString()).resolve(month + SUFFIX);
+    }
+    
+    private record Listing(NavigableSet<YearMonth> months, FileTime modified) {
+    }
+    
+    private record Mapped(ArchiveFile file, long size, FileTime modified) {
+        
+        boolean matches(BasicFileAttributes attributes) {
+            return size == attributes.size() && modified.equals(attributes.lastModifiedTime());
+        }
+    }
+}
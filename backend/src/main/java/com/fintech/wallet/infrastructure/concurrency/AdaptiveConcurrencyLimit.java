@@ -0,0 +1,106 @@
+package com.fintech.wallet.infrastructure.concurrency;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit that follows latency, in the manner of the gradient limiters of
+ * Netflix's concurrency-limits: every window compares the average latency of the calls that
+ * finished in it with a slowly moving baseline, and shrinks the limit by their ratio once it
+ * exceeds {@code tolerance}. While latency stays near the baseline the limit grows by about its
+ * square root per window, as long as calls are actually using half of it.
+ */
+final class AdaptiveConcurrencyLimit {
+    
+    private static final int MIN_WINDOW_SAMPLES = 10;
+    // windows over which the baseline latency averages
+    private static final int BASELINE_WINDOWS = 100;
+    private static final double SMOOTHING = 0.2;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final long windowNanos;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile double limit;
+    
+    // guarded by this
+    private long windowStart;
+    private long windowLatencySum;
+    private int windowSamples;
+    private int windowMaxInFlight;
+    private double baselineLatency;
+    
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, Duration window) {
+        if (minLimit < 1 || minLimit > initialLimit || initialLimit > maxLimit || tolerance < 1) {
+            throw new IllegalArgumentException("Limites de concorrência inválidos");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.windowNanos = window.toNanos();
+    }
+    
+    /**
+     * Admits a call while fewer than {@code share} of the limit are in flight; the caller
+     * must {@link #release} it.
+     */
+    boolean tryAcquire(double share) {
+        while (true) {
+            int current = inFlight.get();
+            if (current >= Math.max(1, limit * share)) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    void release(long latencyNanos, long nowNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        synchronized (this) {
+            if (windowSamples == 0) {
+                windowStart = nowNanos;
+            }
+            windowLatencySum += latencyNanos;
+            windowSamples++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightBefore);
+            if (windowSamples < MIN_WINDOW_SAMPLES || nowNanos - windowStart < windowNanos) {
+                return;
+            }
+            update((double) windowLatencySum / windowSamples, windowMaxInFlight);
+            windowLatencySum = 0;
+            windowSamples = 0;
+            windowMaxInFlight = 0;
+        }
+    }
+    
+    private void update(double latency, int maxInFlight) {
+        if (baselineLatency == 0) {
+            baselineLatency = latency;
+        } else {
+            baselineLatency += (latency - baselineLatency) / BASELINE_WINDOWS;
+        }
+        // once a slowdown is over, bring the baseline back down instead of averaging it out
+        if (baselineLatency > latency * 2) {
+            baselineLatency = Math.max(latency, baselineLatency * 0.95);
+        }
+        // a window that never came close to the limit says nothing about it
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * baselineLatency / latency));
+        double target = limit * gradient + Math.sqrt(limit);
+        limit = Math.max(minLimit, Math.min(maxLimit, limit * (1 - SMOOTHING) + target * SMOOTHING));
+    }
+    
+    int limit() {
+        return (int) limit;
+    }
+    
+    int inFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,165 @@
+package com.fintech.wallet.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Sheds requests with 503 before they reach the database once the application services slow
+ * down. Wraps the calls controllers make into the application services (see
+ * LoadSheddingConfig) in an {@link AdaptiveConcurrencyLimit}, one for reads (GET) and one for
+ * writes, so a backlog of one does not starve the other. Within a limit, payments may use all
+ * of it while dashboards and listings are turned away first. File imports run for minutes in a
+ * single call, so they get a fixed limit of their own instead: counted as writes, one import
+ * would hold a slot throughout and then drag the write limit down with its latency.
+ *
+ * Only the outermost service call of a request is counted; calls from filters, scheduled jobs
+ * and settlement workers are not limited, and neither are logins and registrations.
+ */
+@Component
+public class LoadShedder implements MethodInterceptor {
+    
+    enum Kind {
+        READ, WRITE, IMPORT;
+        
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    enum Priority {
+        HIGH(1.0),
+        NORMAL(0.9),
+        LOW(0.7);
+        
+        // of the limit a call of this priority may be admitted into
+        private final double share;
+        
+        Priority(double share) {
+            this.share = share;
+        }
+        
+        static Priority of(String method, String pattern) {
+            boolean listing = "GET".equals(method)
+                    && (pattern.equals("/api/transactions") || pattern.equals("/api/payments"));
+            if (listing || pattern.startsWith("/api/dashboard")) {
+                return LOW;
+            }
+            return pattern.startsWith("/api/payments") ? HIGH : NORMAL;
+        }
+        
+        String tag() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    private static final ThreadLocal<Boolean> IN_SERVICE_CALL = new ThreadLocal<>();
+    private static final String IMPORT_PATTERN = "/api/transactions/import";
+    
+    private final boolean enabled;
+    private final AdaptiveConcurrencyLimit reads;
+    private final AdaptiveConcurrencyLimit writes;
+    private final AdaptiveConcurrencyLimit imports;
+    private final MeterRegistry meterRegistry;
+    
+    public LoadShedder(MeterRegistry meterRegistry,
+                       @Value("${wallet.load-shedding.enabled:true}") boolean enabled,
+                       @Value("${wallet.load-shedding.reads.initial-limit:20}") int readInitialLimit,
+                       @Value("${wallet.load-shedding.reads.min-limit:4}") int readMinLimit,
+                       @Value("${wallet.load-shedding.reads.max-limit:200}") int readMaxLimit,
+                       @Value("${wallet.load-shedding.writes.initial-limit:10}") int writeInitialLimit,
+                       @Value("${wallet.load-shedding.writes.min-limit:2}") int writeMinLimit,
+                       @Value("${wallet.load-shedding.writes.max-limit:100}") int writeMaxLimit,
+                       @Value("${wallet.load-shedding.imports.max-concurrent:4}") int importMaxConcurrent,
+                       @Value("${wallet.load-shedding.tolerance:1.5}") double tolerance,
+                       @Value("${wallet.load-shedding.window:100ms}") Duration window) {
+        this.enabled = enabled;
+        this.reads = new AdaptiveConcurrencyLimit(readInitialLimit, readMinLimit, readMaxLimit, tolerance, window);
+        this.writes = new AdaptiveConcurrencyLimit(writeInitialLimit, writeMinLimit, writeMaxLimit, tolerance, window);
+        // minimum and maximum pinned together: a fixed limit
+        this.imports = new AdaptiveConcurrencyLimit(importMaxConcurrent, importMaxConcurrent, importMaxConcurrent, tolerance, window);
+        this.meterRegistry = meterRegistry;
+        register(Kind.READ, reads);
+        register(Kind.WRITE, writes);
+        register(Kind.IMPORT, imports);
+    }
+    
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        ServletRequestAttributes request = handlerRequest();
+        if (!enabled || request == null || IN_SERVICE_CALL.get() != null) {
+            return invocation.proceed();
+        }
+        String method = request.getRequest().getMethod();
+        String pattern = String.valueOf(request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST));
+        Kind kind = "GET".equals(method) || "HEAD".equals(method) ? Kind.READ
+                : pattern.equals(IMPORT_PATTERN) ? Kind.IMPORT : Kind.WRITE;
+        Priority priority = Priority.of(method, pattern);
+        AdaptiveConcurrencyLimit limit = limit(kind);
+        if (!limit.tryAcquire(kind == Kind.IMPORT ? 1.0 : priority.share)) {
+            meterRegistry.counter("loadshedding.shed", "kind", kind.tag(), "priority", priority.tag()).increment();
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Serviço sobrecarregado, tente novamente");
+        }
+        
+        long start = System.nanoTime();
+        boolean releaseOnCompletion = false;
+        IN_SERVICE_CALL.set(Boolean.TRUE);
+        try {
+            Object result = invocation.proceed();
+            // asynchronous services hold their slot until the work they started is done
+            if (result instanceof CompletionStage<?> stage) {
+                releaseOnCompletion = true;
+                stage.whenComplete((value, error) -> release(limit, start));
+            }
+            return result;
+        } finally {
+            IN_SERVICE_CALL.remove();
+            if (!releaseOnCompletion) {
+                release(limit, start);
+            }
+        }
+    }
+    
+    AdaptiveConcurrencyLimit limit(Kind kind) {
+        return switch (kind) {
+            case READ -> reads;
+            case WRITE -> writes;
+            case IMPORT -> imports;
+        };
+    }
+    
+    private static void release(AdaptiveConcurrencyLimit limit, long start) {
+        long now = System.nanoTime();
+        limit.release(now - start, now);
+    }
+    
+    /**
+     * The current request once DispatcherServlet has picked its handler, so service calls made
+     * from filters in front of it are left alone.
+     */
+    private static ServletRequestAttributes handlerRequest() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes
+                && attributes.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null) {
+            return attributes;
+        }
+        return null;
+    }
+    
+    private void register(Kind kind, AdaptiveConcurrencyLimit limit) {
+        Gauge.builder("loadshedding.limit", limit, AdaptiveConcurrencyLimit::limit).tag("kind", kind.tag()).register(meterRegistry);
+        Gauge.builder("loadshedding.inflight", limit, AdaptiveConcurrencyLimit::inFlight).tag("kind", kind.tag()).register(meterRegistry);
+    }
+}
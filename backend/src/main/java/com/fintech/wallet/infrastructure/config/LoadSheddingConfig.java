@@ -0,0 +1,57 @@
+package com.fintech.wallet.infrastructure.config;
+
+import com.fintech.wallet.infrastructure.concurrency.LoadShedder;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.framework.autoproxy.AbstractBeanFactoryAwareAdvisingPostProcessor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.stereotype.Service;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+
+/**
+ * Puts {@link LoadShedder} around the public methods of the {@code @Service} classes of the
+ * application package, outside their transactions so a shed call never takes a connection.
+ * Authentication is left out: PasswordHasher's bounded queue already sheds it, and counted
+ * here a login would hold a write slot for as long as its hash waits on that pool.
+ */
+@Configuration
+public class LoadSheddingConfig {
+    
+    private static final String APPLICATION_PACKAGE = "com.fintech.wallet.application.";
+    private static final String AUTH_PACKAGE = APPLICATION_PACKAGE + "auth.";
+    
+    // static and lazy: post-processors are created before the meter registry the shedder needs
+    @Bean
+    public static LoadSheddingPostProcessor loadSheddingPostProcessor(ObjectProvider<LoadShedder> loadShedder) {
+        return new LoadSheddingPostProcessor(invocation -> loadShedder.getObject().invoke(invocation));
+    }
+    
+    static class LoadSheddingPostProcessor extends AbstractBeanFactoryAwareAdvisingPostProcessor {
+        
+        LoadSheddingPostProcessor(MethodInterceptor interceptor) {
+            this.advisor = new DefaultPointcutAdvisor(new ServicePointcut(), interceptor);
+            setBeforeExistingAdvisors(true);
+            setProxyTargetClass(true);
+        }
+    }
+    
+    static class ServicePointcut extends StaticMethodMatcherPointcut {
+        
+        ServicePointcut() {
+            setClassFilter(type -> type.getName().startsWith(APPLICATION_PACKAGE)
+                    && !type.getName().startsWith(AUTH_PACKAGE)
+                    && AnnotatedElementUtils.hasAnnotation(type, Service.class));
+        }
+        
+        @Override
+        public boolean matches(Method method, Class<?> targetClass) {
+            return Modifier.isPublic(method.getModifiers()) && method.getDeclaringClass() != Object.class;
+        }
+    }
+}
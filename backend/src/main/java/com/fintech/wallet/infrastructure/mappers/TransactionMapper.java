@@ -1,25 +1,29 @@
 package com.fintech.wallet.infrastructure.mappers;
 
+import com.fintech.wallet.application.category.CategoryCatalog;
 import com.fintech.wallet.domain.Category;
 import com.fintech.wallet.domain.Transaction;
-import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
 import com.fintech.wallet.interfaces.dto.TransactionDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.stream.Collectors;
+
 @Component
 @RequiredArgsConstructor
 public class TransactionMapper {
     
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
     
-    public TransactionDTO toDTO(Transaction transaction) {
-        String categoryName = null;
-        if (transaction.getCategoryId() != null) {
-            categoryName = categoryRepository.findById(transaction.getCategoryId())
-                    .map(Category::getName)
-                    .orElse(null);
-        }
+    /**
+     * Maps a transaction of the given user; the category name is resolved from the
+     * in-memory catalog.
+     */
+    public TransactionDTO toDTO(Transaction transaction, Long userId) {
+        String categoryName = categoryCatalog.find(userId, transaction.getCategoryId())
+                .map(Category::getName)
+                .orElse(null);
         
         return TransactionDTO.builder()
                 .id(transaction.getId())
@@ -32,5 +36,10 @@ public class TransactionMapper {
                 .createdAt(transaction.getCreatedAt())
                 .build();
     }
+    
+    public List<TransactionDTO> toDTOs(List<Transaction> transactions, Long userId) {
+        return transactions.stream()
+                .map(transaction -> toDTO(transaction, userId))
+                .collect(Collectors.toList());
+    }
 }
-
@@ -0,0 +1,54 @@
+package com.fintech.wallet.infrastructure.payment;
+
+import com.fintech.wallet.application.payment.SettlementGateway;
+import com.fintech.wallet.application.payment.SettlementResult;
+import com.fintech.wallet.domain.Payment;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * In-process stand-in for the payment network: one simulated round trip per batch, and every
+ * payment above the configured limit rejected. Outcomes are remembered by reference, so a
+ * payment submitted again gets its first answer.
+ */
+@Component
+@ConditionalOnProperty(name = "wallet.payments.gateway", havingValue = "simulated", matchIfMissing = true)
+public class SimulatedSettlementGateway implements SettlementGateway {
+    
+    private final Duration latency;
+    private final BigDecimal maxAmount;
+    private final Cache<String, SettlementResult> outcomes = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .build();
+    
+    public SimulatedSettlementGateway(@Value("${wallet.payments.simulated.latency:50ms}") Duration latency,
+                                      @Value("${wallet.payments.simulated.max-amount:50000}") BigDecimal maxAmount) {
+        this.latency = latency;
+        this.maxAmount = maxAmount;
+    }
+    
+    @Override
+    public List<SettlementResult> settle(List<Payment> payments) {
+        if (!latency.isZero()) {
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while settling", e);
+            }
+        }
+        return payments.stream()
+                .map(payment -> outcomes.get(SettlementGateway.reference(payment), reference ->
+                        payment.getAmount().compareTo(maxAmount) > 0
+                                ? SettlementResult.rejected("Valor acima do limite permitido pelo arranjo de pagamento")
+                                : SettlementResult.ok()))
+                .toList();
+    }
+}
@@ -14,8 +14,13 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByType(TransactionType type);
     List<Category> findByUserId(Long userId);
     List<Category> findByUserIdOrUserIdIsNull(Long userId);
+    List<Category> findByUserIdIsNull();
     
     @Query("SELECT c FROM Category c WHERE c.type = :type AND (c.userId = :userId OR c.userId IS NULL)")
     List<Category> findByTypeAndUserIdOrUserIdIsNull(@Param("type") TransactionType type, @Param("userId") Long userId);
+    
+    // changes whenever a category is added or removed on any node
+    @Query("SELECT COUNT(c), COALESCE(MAX(c.id), 0) FROM Category c")
+    List<Object[]> fingerprint();
 }
 
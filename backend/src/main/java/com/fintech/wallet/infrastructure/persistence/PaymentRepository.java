@@ -0,0 +1,88 @@
+package com.fintech.wallet.infrastructure.persistence;
+
+import com.fintech.wallet.domain.Payment;
+import com.fintech.wallet.domain.PaymentStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentRepository extends JpaRepository<Payment, Long> {
+    
+    Optional<Payment> findByIdAndWalletId(Long id, Long walletId);
+    
+    // Walks the (wallet_id, created_at, id) index newest first; method and status are checked
+    // on the wallet's rows as they come, so a page reads about as many rows as it returns
+    // unless the filter is very selective.
+    @Query("SELECT p FROM Payment p WHERE p.walletId = :walletId " +
+           "AND (:method IS NULL OR p.method = :method) " +
+           "AND (:status IS NULL OR p.status = :status) " +
+           "AND p.createdAt >= :startDate " +
+           "AND p.createdAt <= :endDate " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findFiltered(
+            @Param("walletId") Long walletId,
+            @Param("method") String method,
+            @Param("status") PaymentStatus status,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
+    
+    @Query("SELECT p FROM Payment p WHERE p.walletId = :walletId " +
+           "AND p.createdAt <= :cursorCreatedAt " +
+           "AND (p.createdAt < :cursorCreatedAt OR p.id < :cursorId) " +
+           "AND (:method IS NULL OR p.method = :method) " +
+           "AND (:status IS NULL OR p.status = :status) " +
+           "AND p.createdAt >= :startDate " +
+           "AND p.createdAt <= :endDate " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findFilteredAfter(
+            @Param("walletId") Long walletId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            @Param("method") String method,
+            @Param("status") PaymentStatus status,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
+    
+    /**
+     * Locks up to {@code limit} PENDING payments whose lease is free, oldest first. Rows
+     * locked by another worker are skipped rather than waited for, so workers never claim
+     * the same payment and never queue behind each other.
+     */
+    @Query(value = "SELECT id FROM payments WHERE status = 'PENDING' " +
+                   "AND (lease_until IS NULL OR lease_until < :now) " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockClaimable(@Param("now") LocalDateTime now, @Param("limit") int limit);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.leaseUntil = :leaseUntil, p.attempts = p.attempts + 1 WHERE p.id IN :ids")
+    int lease(@Param("ids") List<Long> ids, @Param("leaseUntil") LocalDateTime leaseUntil);
+    
+    /**
+     * Moves a PENDING payment to its final status. Returns 0 when it was already finished,
+     * e.g. by a worker that took it over after this one's lease ran out.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.status = :status, p.failureReason = :failureReason, " +
+           "p.leaseUntil = NULL, p.updatedAt = :now " +
+           "WHERE p.id = :id AND p.status = com.fintech.wallet.domain.PaymentStatus.PENDING")
+    int finish(@Param("id") Long id,
+               @Param("status") PaymentStatus status,
+               @Param("failureReason") String failureReason,
+               @Param("now") LocalDateTime now);
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Payment p SET p.transactionId = :transactionId WHERE p.id = :id")
+    int attachTransaction(@Param("id") Long id, @Param("transactionId") Long transactionId);
+}
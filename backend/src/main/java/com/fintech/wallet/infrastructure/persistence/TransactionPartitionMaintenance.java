@@ -0,0 +1,115 @@
+package com.fintech.wallet.infrastructure.persistence;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+
+/**
+ * Creates the monthly partitions of transactions ahead of time, so postings never fall into
+ * the default partition in normal operation. Rows that still land there (imported history
+ * older than the first partition, months the job did not get to) are moved into a partition
+ * of their own on the next run, so every month ends up prunable. Only meaningful on
+ * Postgres, where V8 made the table partitioned; the test profile (H2) leaves it disabled.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "wallet.partitions.enabled", havingValue = "true")
+public class TransactionPartitionMaintenance {
+    
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int monthsAhead;
+    private final Counter failures;
+    
+    public TransactionPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${wallet.partitions.months-ahead:3}") int monthsAhead) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.monthsAhead = monthsAhead;
+        this.failures = Counter.builder("wallet.partitions.failures").register(meterRegistry);
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${wallet.partitions.cron:0 0 4 * * *}")
+    public void createUpcomingPartitions() {
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            createPartition(current.plusMonths(i));
+        }
+        monthsInDefaultPartition().forEach(this::createPartition);
+    }
+    
+    /**
+     * Creates the month's partition unless it exists. Rows of the month sitting in the default
+     * partition are moved into the new partition in the same transaction.
+     */
+    public void createPartition(YearMonth month) {
+        try {
+            if (hasDefaultRows(month)) {
+                moveOutOfDefault(month);
+            } else {
+                jdbcTemplate.execute(String.format(
+                        "CREATE TABLE IF NOT EXISTS %s PARTITION OF transactions FOR VALUES FROM ('%s') TO ('%s')",
+                        partition(month), month.atDay(1), month.plusMonths(1).atDay(1)));
+            }
+        } catch (DataAccessException e) {
+            failures.increment();
+            log.error("Could not create partition of transactions for {}", month, e);
+        }
+    }
+    
+    List<YearMonth> monthsInDefaultPartition() {
+        return jdbcTemplate.query(
+                "SELECT DISTINCT date_trunc('month', created_at) FROM transactions_default ORDER BY 1",
+                (rs, rowNum) -> YearMonth.from(rs.getTimestamp(1).toLocalDateTime()));
+    }
+    
+    private boolean hasDefaultRows(YearMonth month) {
+        return Boolean.TRUE.equals(jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM transactions_default WHERE created_at >= ? AND created_at < ?)",
+                Boolean.class, month.atDay(1).atStartOfDay(), month.plusMonths(1).atDay(1).atStartOfDay()));
+    }
+    
+    /**
+     * A partition cannot be created over rows in the default partition, so the month is built
+     * as a plain table, filled from the default and attached; attaching adds the indexes and
+     * foreign keys of transactions. Writes to the default partition wait for the move.
+     */
+    private void moveOutOfDefault(YearMonth month) {
+        String table = partition(month);
+        Object from = month.atDay(1).atStartOfDay();
+        Object to = month.plusMonths(1).atDay(1).atStartOfDay();
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("LOCK TABLE transactions_default IN EXCLUSIVE MODE");
+            jdbcTemplate.execute("CREATE TABLE " + table + " (LIKE transactions INCLUDING DEFAULTS INCLUDING CONSTRAINTS)");
+            int moved = jdbcTemplate.update("INSERT INTO " + table
+                    + " SELECT * FROM transactions_default WHERE created_at >= ? AND created_at < ?", from, to);
+            jdbcTemplate.update("DELETE FROM transactions_default WHERE created_at >= ? AND created_at < ?", from, to);
+            jdbcTemplate.execute(String.format("ALTER TABLE transactions ATTACH PARTITION %s FOR VALUES FROM ('%s') TO ('%s')",
+                    table, month.atDay(1), month.plusMonths(1).atDay(1)));
+            log.info("Moved {} transactions of {} out of the default partition", moved, month);
+        });
+    }
+    
+    private static String partition(YearMonth month) {
+        return "transactions_" + month.format(SUFFIX);
+    }
+}
@@ -2,17 +2,29 @@ package com.fintech.wallet.infrastructure.persistence;
 
 import com.fintech.wallet.domain.Transaction;
 import com.fintech.wallet.domain.TransactionType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface TransactionRepository extends JpaRepository<Transaction, Long> {
     
+    // Open ends of a created_at filter. transactions is partitioned by month of created_at, and
+    // Postgres only prunes partitions for a plain range predicate; "(:start IS NULL OR ...)"
+    // defeats pruning once the statement switches to a generic plan, so callers always bind both.
+    LocalDateTime EARLIEST = LocalDateTime.of(1900, 1, 1, 0, 0);
+    LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    
     List<Transaction> findByWalletIdOrderByCreatedAtDesc(Long walletId);
     
     List<Transaction> findByWalletIdAndTypeOrderByCreatedAtDesc(Long walletId, TransactionType type);
@@ -22,39 +34,162 @@ public interface TransactionRepository extends JpaRepository<Transaction, Long>
     @Query("SELECT t FROM Transaction t WHERE t.walletId = :walletId " +
            "AND (:type IS NULL OR t.type = :type) " +
            "AND (:categoryId IS NULL OR t.categoryId = :categoryId) " +
-           "AND (:startDate IS NULL OR t.createdAt >= :startDate) " +
-           "AND (:endDate IS NULL OR t.createdAt <= :endDate) " +
-           "ORDER BY t.createdAt DESC")
+           "AND t.createdAt >= :startDate " +
+           "AND t.createdAt <= :endDate " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
     List<Transaction> findFilteredTransactions(
             @Param("walletId") Long walletId,
             @Param("type") TransactionType type,
             @Param("categoryId") Long categoryId,
             @Param("startDate") LocalDateTime startDate,
-            @Param("endDate") LocalDateTime endDate
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
     );
     
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.walletId = :walletId AND t.type = :type")
-    java.math.BigDecimal sumAmountByWalletIdAndType(@Param("walletId") Long walletId, @Param("type") TransactionType type);
+    // The createdAt <= bound gives the planner a plain range on the (wallet_id, created_at, id)
+    // index; the OR only breaks ties between rows sharing the cursor's timestamp.
+    @Query("SELECT t FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt <= :cursorCreatedAt " +
+           "AND (t.createdAt < :cursorCreatedAt OR t.id < :cursorId) " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:categoryId IS NULL OR t.categoryId = :categoryId) " +
+           "AND t.createdAt >= :startDate " +
+           "AND t.createdAt <= :endDate " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Transaction> findFilteredTransactionsAfter(
+            @Param("walletId") Long walletId,
+            @Param("cursorCreatedAt") LocalDateTime cursorCreatedAt,
+            @Param("cursorId") Long cursorId,
+            @Param("type") TransactionType type,
+            @Param("categoryId") Long categoryId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("endDate") LocalDateTime endDate,
+            Pageable pageable
+    );
     
-    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.walletId = :walletId " +
-           "AND t.type = :type " +
-           "AND t.createdAt >= :startDate AND t.createdAt <= :endDate")
-    java.math.BigDecimal sumAmountByWalletIdAndTypeAndDateRange(
+    // Rows are pulled from a server-side cursor in blocks of the fetch size; the caller has to
+    // run inside a transaction and close the stream.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND (:type IS NULL OR t.type = :type) " +
+           "AND (:categoryId IS NULL OR t.categoryId = :categoryId) " +
+           "AND t.createdAt >= :startDate " +
+           "AND t.createdAt <= :endDate " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    Stream<Transaction> streamFilteredTransactions(
             @Param("walletId") Long walletId,
             @Param("type") TransactionType type,
+            @Param("categoryId") Long categoryId,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
     
-    @Query("SELECT t.categoryId, SUM(t.amount) FROM Transaction t " +
-           "WHERE t.walletId = :walletId AND t.type = :type " +
+    @Query("SELECT SUM(t.amount) FROM Transaction t WHERE t.walletId = :walletId AND t.type = :type")
+    java.math.BigDecimal sumAmountByWalletIdAndType(@Param("walletId") Long walletId, @Param("type") TransactionType type);
+    
+    // One row per (type, category) of the period; the dashboard derives the per-type totals
+    // from these groups, so the whole dashboard is a single aggregate over the wallet's rows.
+    @Query("SELECT t.type, t.categoryId, SUM(t.amount) FROM Transaction t " +
+           "WHERE t.walletId = :walletId " +
            "AND t.createdAt >= :startDate AND t.createdAt <= :endDate " +
-           "GROUP BY t.categoryId")
-    List<Object[]> sumAmountByCategoryAndType(
+           "GROUP BY t.type, t.categoryId")
+    List<Object[]> sumAmountByTypeAndCategory(
             @Param("walletId") Long walletId,
-            @Param("type") TransactionType type,
             @Param("startDate") LocalDateTime startDate,
             @Param("endDate") LocalDateTime endDate
     );
+    
+    // Same grouping over a half-open range, for the partial day before the first whole day.
+    @Query("SELECT t.type, t.categoryId, SUM(t.amount) FROM Transaction t " +
+           "WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate " +
+           "GROUP BY t.type, t.categoryId")
+    List<Object[]> sumAmountByTypeAndCategoryUntil(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    // Raw equivalent of the wallet_daily_totals rows, used to rebuild and verify them.
+    @Query("SELECT CAST(t.createdAt AS LocalDate), t.type, t.categoryId, SUM(t.amount), COUNT(t) " +
+           "FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate " +
+           "AND t.createdAt < :untilDate " +
+           "GROUP BY CAST(t.createdAt AS LocalDate), t.type, t.categoryId")
+    List<Object[]> sumDailyByTypeAndCategory(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Query("SELECT DISTINCT t.walletId FROM Transaction t WHERE t.createdAt >= :since")
+    List<Long> findWalletIdsActiveSince(@Param("since") LocalDateTime since);
+    
+    @Query("SELECT DISTINCT t.walletId FROM Transaction t " +
+           "WHERE t.createdAt >= :startDate AND t.createdAt < :untilDate")
+    List<Long> findWalletIdsWithTransactionsBetween(
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Query("SELECT MIN(t.createdAt) FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate")
+    LocalDateTime findFirstCreatedAt(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Query("SELECT t FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate " +
+           "ORDER BY t.createdAt, t.id")
+    List<Transaction> findByWalletIdAndCreatedAtRange(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Query("SELECT t.id FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate")
+    List<Long> findIdsByWalletIdAndCreatedAtRange(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("DELETE FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate")
+    int deleteByWalletIdAndCreatedAtRange(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    // Hourly and per-minute sums of [startDate, untilDate), for series buckets that end inside a day.
+    @Query("SELECT CAST(t.createdAt AS LocalDate), EXTRACT(HOUR FROM t.createdAt), t.type, SUM(t.amount) " +
+           "FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate " +
+           "GROUP BY CAST(t.createdAt AS LocalDate), EXTRACT(HOUR FROM t.createdAt), t.type")
+    List<Object[]> sumAmountByHourAndType(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
+    
+    @Query("SELECT CAST(t.createdAt AS LocalDate), EXTRACT(HOUR FROM t.createdAt), EXTRACT(MINUTE FROM t.createdAt), " +
+           "t.type, SUM(t.amount) " +
+           "FROM Transaction t WHERE t.walletId = :walletId " +
+           "AND t.createdAt >= :startDate AND t.createdAt < :untilDate " +
+           "GROUP BY CAST(t.createdAt AS LocalDate), EXTRACT(HOUR FROM t.createdAt), " +
+           "EXTRACT(MINUTE FROM t.createdAt), t.type")
+    List<Object[]> sumAmountByMinuteAndType(
+            @Param("walletId") Long walletId,
+            @Param("startDate") LocalDateTime startDate,
+            @Param("untilDate") LocalDateTime untilDate
+    );
 }
 
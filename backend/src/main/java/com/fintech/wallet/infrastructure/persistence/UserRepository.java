@@ -1,14 +1,40 @@
 package com.fintech.wallet.infrastructure.persistence;
 
 import com.fintech.wallet.domain.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByEmail(String email);
     boolean existsByEmail(String email);
+    
+    // Streamed from a server-side cursor; the caller has to run inside a transaction and close
+    // the stream.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.email FROM User u")
+    Stream<String> streamAllEmails();
+    
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u.email FROM User u WHERE u.createdAt >= :since")
+    Stream<String> streamEmailsCreatedSince(@Param("since") LocalDateTime since);
+    
+    // the clock users.created_at is stamped with
+    @Query("SELECT LOCAL DATETIME")
+    LocalDateTime databaseTime();
 }
-
@@ -0,0 +1,58 @@
+package com.fintech.wallet.infrastructure.persistence;
+
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.WalletDailyTotal;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface WalletDailyTotalRepository extends JpaRepository<WalletDailyTotal, Long> {
+    
+    /**
+     * Adds to an existing bucket. Returns 0 when the bucket does not exist yet.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE WalletDailyTotal d SET d.total = d.total + :total, " +
+           "d.transactionCount = d.transactionCount + :count " +
+           "WHERE d.walletId = :walletId AND d.postingDate = :postingDate AND d.type = :type " +
+           "AND (d.categoryId = :categoryId OR (:categoryId IS NULL AND d.categoryId IS NULL))")
+    int add(@Param("walletId") Long walletId,
+            @Param("postingDate") LocalDate postingDate,
+            @Param("type") TransactionType type,
+            @Param("categoryId") Long categoryId,
+            @Param("total") BigDecimal total,
+            @Param("count") long count);
+    
+    @Query("SELECT d.type, d.categoryId, SUM(d.total) FROM WalletDailyTotal d " +
+           "WHERE d.walletId = :walletId " +
+           "AND d.postingDate >= :fromDate AND d.postingDate < :toDate " +
+           "GROUP BY d.type, d.categoryId")
+    List<Object[]> sumTotalByTypeAndCategory(
+            @Param("walletId") Long walletId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+    
+    @Query("SELECT d.postingDate, d.type, SUM(d.total) FROM WalletDailyTotal d " +
+           "WHERE d.walletId = :walletId " +
+           "AND d.postingDate >= :fromDate AND d.postingDate < :toDate " +
+           "GROUP BY d.postingDate, d.type")
+    List<Object[]> sumTotalByDayAndType(
+            @Param("walletId") Long walletId,
+            @Param("fromDate") LocalDate fromDate,
+            @Param("toDate") LocalDate toDate
+    );
+    
+    List<WalletDailyTotal> findByWalletIdAndPostingDateBetween(Long walletId, LocalDate fromDate, LocalDate toDate);
+    
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM WalletDailyTotal d WHERE d.walletId = :walletId")
+    int deleteByWalletId(@Param("walletId") Long walletId);
+}
@@ -1,14 +1,73 @@
 package com.fintech.wallet.infrastructure.persistence;
 
 import com.fintech.wallet.domain.Wallet;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface WalletRepository extends JpaRepository<Wallet, Long> {
     Optional<Wallet> findByUserId(Long userId);
     boolean existsByUserId(Long userId);
+    
+    @Query("SELECT w.id FROM Wallet w WHERE w.id > :afterId ORDER BY w.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+    
+    /**
+     * Takes the wallet's row lock without changing it, for writes that must be serialized
+     * per wallet but do not move the balance.
+     */
+    @Query(value = "SELECT id FROM wallets WHERE id = :walletId FOR UPDATE", nativeQuery = true)
+    Optional<Long> lockById(@Param("walletId") Long walletId);
+    
+    /**
+     * Adds to the balance in a single UPDATE. Returns 0 when the wallet does not exist.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance + :amount, w.version = w.version + 1, w.updatedAt = :now " +
+           "WHERE w.id = :walletId")
+    int credit(@Param("walletId") Long walletId,
+               @Param("amount") BigDecimal amount,
+               @Param("now") LocalDateTime now);
+    
+    /**
+     * Subtracts from the balance only if the unreserved part covers the amount. Returns 0
+     * when the wallet does not exist or the funds are insufficient.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.balance = w.balance - :amount, w.version = w.version + 1, w.updatedAt = :now " +
+           "WHERE w.id = :walletId AND w.balance - w.reserved >= :amount")
+    int debit(@Param("walletId") Long walletId,
+              @Param("amount") BigDecimal amount,
+              @Param("now") LocalDateTime now);
+    
+    /**
+     * Holds the amount for a payment if the unreserved balance covers it. Returns 0 when the
+     * wallet does not exist or the funds are insufficient.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.reserved = w.reserved + :amount, w.version = w.version + 1, w.updatedAt = :now " +
+           "WHERE w.id = :walletId AND w.balance - w.reserved >= :amount")
+    int reserve(@Param("walletId") Long walletId,
+                @Param("amount") BigDecimal amount,
+                @Param("now") LocalDateTime now);
+    
+    /**
+     * Gives back an amount held by {@link #reserve}. Returns 0 when the wallet does not
+     * exist or does not hold that much.
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE Wallet w SET w.reserved = w.reserved - :amount, w.version = w.version + 1, w.updatedAt = :now " +
+           "WHERE w.id = :walletId AND w.reserved >= :amount")
+    int release(@Param("walletId") Long walletId,
+                @Param("amount") BigDecimal amount,
+                @Param("now") LocalDateTime now);
 }
-
@@ -0,0 +1,503 @@
+package com.fintech.wallet.infrastructure.qrcode;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * QR Code symbol (ISO/IEC 18004) for a text encoded as a single byte-mode segment at error
+ * correction level M, in the smallest version that fits, with the mask of lowest penalty.
+ * Dark modules are {@code true}; the quiet zone is left to the renderer.
+ */
+public final class QrCode {
+    
+    public static final int MAX_VERSION = 40;
+    
+    // level M, indexed by version
+    private static final int[] ECC_CODEWORDS_PER_BLOCK = {
+            -1, 10, 16, 26, 18, 24, 16, 18, 22, 22, 26, 30, 22, 22, 24, 24, 28, 28, 26, 26, 26,
+            26, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28, 28};
+    private static final int[] ERROR_CORRECTION_BLOCKS = {
+            -1, 1, 1, 1, 2, 2, 4, 4, 4, 5, 5, 5, 8, 9, 9, 10, 10, 11, 13, 14, 16,
+            17, 17, 18, 20, 21, 23, 25, 26, 28, 29, 31, 33, 35, 37, 38, 40, 43, 45, 47, 49};
+    private static final int FORMAT_BITS_LEVEL_M = 0;
+    
+    private static final int[] EXP = new int[512];
+    private static final int[] LOG = new int[256];
+    
+    static {
+        // GF(256) with the QR polynomial x^8 + x^4 + x^3 + x^2 + 1
+        int x = 1;
+        for (int i = 0; i < 255; i++) {
+            EXP[i] = x;
+            LOG[x] = i;
+            x <<= 1;
+            if (x >= 256) {
+                x ^= 0x11D;
+            }
+        }
+        for (int i = 255; i < EXP.length; i++) {
+            EXP[i] = EXP[i - 255];
+        }
+    }
+    
+    private final int version;
+    private final int size;
+    private final boolean[][] modules;
+    private final boolean[][] function;
+    private int mask;
+    
+    private QrCode(int version) {
+        this.version = version;
+        this.size = version * 4 + 17;
+        this.modules = new boolean[size][size];
+        this.function = new boolean[size][size];
+        drawFunctionPatterns();
+    }
+    
+    public static QrCode encode(String text) {
+        byte[] data = text.getBytes(StandardCharsets.UTF_8);
+        int version = 1;
+        while (dataCapacityBits(version) < segmentBits(version, data.length)) {
+            if (++version > MAX_VERSION) {
+                throw new IllegalArgumentException("Texto longo demais para um QR Code");
+            }
+        }
+        
+        QrCode code = new QrCode(version);
+        code.drawCodewords(addEccAndInterleave(version, dataCodewords(version, data)));
+        
+        int best = 0;
+        int minPenalty = Integer.MAX_VALUE;
+        for (int candidate = 0; candidate < 8; candidate++) {
+            code.applyMask(candidate);
+            code.drawFormatBits(candidate);
+            int penalty = code.penalty();
+            if (penalty < minPenalty) {
+                best = candidate;
+                minPenalty = penalty;
+            }
+            code.applyMask(candidate);
+        }
+        code.applyMask(best);
+        code.drawFormatBits(best);
+        code.mask = best;
+        return code;
+    }
+    
+    public int version() {
+        return version;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public int mask() {
+        return mask;
+    }
+    
+    public boolean isDark(int x, int y) {
+        return modules[y][x];
+    }
+    
+    boolean isFunction(int x, int y) {
+        return function[y][x];
+    }
+    
+    /**
+     * Bytes of a byte-mode segment that fit in the given version.
+     */
+    static int byteCapacity(int version) {
+        return (dataCapacityBits(version) - 4 - charCountBits(version)) / 8;
+    }
+    
+    static int errorCorrectionBlocks(int version) {
+        return ERROR_CORRECTION_BLOCKS[version];
+    }
+    
+    static int eccCodewordsPerBlock(int version) {
+        return ECC_CODEWORDS_PER_BLOCK[version];
+    }
+    
+    static int rawCodewordCount(int version) {
+        return rawDataModules(version) / 8;
+    }
+    
+    static int dataCodewordCount(int version) {
+        return rawDataModules(version) / 8 - ECC_CODEWORDS_PER_BLOCK[version] * ERROR_CORRECTION_BLOCKS[version];
+    }
+    
+    // ---- data ----
+    
+    private static int dataCapacityBits(int version) {
+        return dataCodewordCount(version) * 8;
+    }
+    
+    private static int charCountBits(int version) {
+        return version < 10 ? 8 : 16;
+    }
+    
+    private static int segmentBits(int version, int length) {
+        return length >= 1 << charCountBits(version) ? Integer.MAX_VALUE : 4 + charCountBits(version) + length * 8;
+    }
+    
+    private static byte[] dataCodewords(int version, byte[] data) {
+        byte[] codewords = new byte[dataCodewordCount(version)];
+        BitWriter bits = new BitWriter(codewords);
+        bits.append(0b0100, 4);
+        bits.append(data.length, charCountBits(version));
+        for (byte b : data) {
+            bits.append(b & 0xFF, 8);
+        }
+        int capacity = codewords.length * 8;
+        bits.append(0, Math.min(4, capacity - bits.length));
+        bits.append(0, (8 - bits.length % 8) % 8);
+        for (int pad = 0xEC; bits.length < capacity; pad ^= 0xEC ^ 0x11) {
+            bits.append(pad, 8);
+        }
+        return codewords;
+    }
+    
+    private static byte[] addEccAndInterleave(int version, byte[] data) {
+        int blocks = ERROR_CORRECTION_BLOCKS[version];
+        int eccLength = ECC_CODEWORDS_PER_BLOCK[version];
+        int rawCodewords = rawDataModules(version) / 8;
+        int shortBlocks = blocks - rawCodewords % blocks;
+        int shortBlockLength = rawCodewords / blocks;
+        int[] generator = reedSolomonGenerator(eccLength);
+        
+        byte[][] split = new byte[blocks][];
+        for (int i = 0, offset = 0; i < blocks; i++) {
+            int dataLength = shortBlockLength - eccLength + (i < shortBlocks ? 0 : 1);
+            byte[] block = Arrays.copyOf(Arrays.copyOfRange(data, offset, offset + dataLength), shortBlockLength + 1);
+            offset += dataLength;
+            byte[] ecc = reedSolomonRemainder(block, dataLength, generator);
+            System.arraycopy(ecc, 0, block, block.length - eccLength, eccLength);
+            split[i] = block;
+        }
+        
+        // short blocks have a placeholder byte where long ones carry their extra data codeword
+        byte[] result = new byte[rawCodewords];
+        for (int i = 0, k = 0; i < shortBlockLength + 1; i++) {
+            for (int j = 0; j < blocks; j++) {
+                if (i != shortBlockLength - eccLength || j >= shortBlocks) {
+                    result[k++] = split[j][i];
+                }
+            }
+        }
+        return result;
+    }
+    
+    private static int[] reedSolomonGenerator(int degree) {
+        // coefficients from the highest power down, the leading 1 omitted
+        int[] result = new int[degree];
+        result[degree - 1] = 1;
+        int root = 1;
+        for (int i = 0; i < degree; i++) {
+            for (int j = 0; j < degree; j++) {
+                result[j] = multiply(result[j], root);
+                if (j + 1 < degree) {
+                    result[j] ^= result[j + 1];
+                }
+            }
+            root = multiply(root, 0x02);
+        }
+        return result;
+    }
+    
+    private static byte[] reedSolomonRemainder(byte[] data, int length, int[] generator) {
+        int[] remainder = new int[generator.length];
+        for (int i = 0; i < length; i++) {
+            int factor = (data[i] & 0xFF) ^ remainder[0];
+            System.arraycopy(remainder, 1, remainder, 0, remainder.length - 1);
+            remainder[remainder.length - 1] = 0;
+            for (int j = 0; j < remainder.length; j++) {
+                remainder[j] ^= multiply(generator[j], factor);
+            }
+        }
+        byte[] result = new byte[remainder.length];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = (byte) remainder[i];
+        }
+        return result;
+    }
+    
+    static int multiply(int x, int y) {
+        return x == 0 || y == 0 ? 0 : EXP[LOG[x] + LOG[y]];
+    }
+    
+    private static int rawDataModules(int version) {
+        int result = (16 * version + 128) * version + 64;
+        if (version >= 2) {
+            int alignments = version / 7 + 2;
+            result -= (25 * alignments - 10) * alignments - 55;
+            if (version >= 7) {
+                result -= 36;
+            }
+        }
+        return result;
+    }
+    
+    // ---- layout ----
+    
+    private void drawFunctionPatterns() {
+        for (int i = 0; i < size; i++) {
+            setFunction(6, i, i % 2 == 0);
+            setFunction(i, 6, i % 2 == 0);
+        }
+        drawFinder(3, 3);
+        drawFinder(size - 4, 3);
+        drawFinder(3, size - 4);
+        
+        int[] positions = alignmentPositions(version);
+        int last = positions.length - 1;
+        for (int i = 0; i < positions.length; i++) {
+            for (int j = 0; j < positions.length; j++) {
+                // skip the three finder corners
+                if (!(i == 0 && j == 0 || i == 0 && j == last || i == last && j == 0)) {
+                    drawAlignment(positions[i], positions[j]);
+                }
+            }
+        }
+        
+        drawFormatBits(0);
+        drawVersion();
+    }
+    
+    static int[] alignmentPositions(int version) {
+        if (version == 1) {
+            return new int[0];
+        }
+        int count = version / 7 + 2;
+        int step = version == 32 ? 26 : (version * 4 + count * 2 + 1) / (count * 2 - 2) * 2;
+        int[] result = new int[count];
+        result[0] = 6;
+        for (int i = count - 1, position = version * 4 + 17 - 7; i >= 1; i--, position -= step) {
+            result[i] = position;
+        }
+        return result;
+    }
+    
+    private void drawFinder(int x, int y) {
+        // 7x7 finder plus its light separator
+        for (int dy = -4; dy <= 4; dy++) {
+            for (int dx = -4; dx <= 4; dx++) {
+                int distance = Math.max(Math.abs(dx), Math.abs(dy));
+                int xx = x + dx;
+                int yy = y + dy;
+                if (xx >= 0 && xx < size && yy >= 0 && yy < size) {
+                    setFunction(xx, yy, distance != 2 && distance != 4);
+                }
+            }
+        }
+    }
+    
+    private void drawAlignment(int x, int y) {
+        for (int dy = -2; dy <= 2; dy++) {
+            for (int dx = -2; dx <= 2; dx++) {
+                setFunction(x + dx, y + dy, Math.max(Math.abs(dx), Math.abs(dy)) != 1);
+            }
+        }
+    }
+    
+    private void drawFormatBits(int mask) {
+        int data = FORMAT_BITS_LEVEL_M << 3 | mask;
+        int remainder = data;
+        for (int i = 0; i < 10; i++) {
+            remainder = (remainder << 1) ^ ((remainder >>> 9) * 0x537);
+        }
+        int bits = (data << 10 | remainder) ^ 0x5412;
+        
+        // around the top-left finder
+        for (int i = 0; i <= 5; i++) {
+            setFunction(8, i, bit(bits, i));
+        }
+        setFunction(8, 7, bit(bits, 6));
+        setFunction(8, 8, bit(bits, 7));
+        setFunction(7, 8, bit(bits, 8));
+        for (int i = 9; i < 15; i++) {
+            setFunction(14 - i, 8, bit(bits, i));
+        }
+        
+        // split between the other two finders
+        for (int i = 0; i < 8; i++) {
+            setFunction(size - 1 - i, 8, bit(bits, i));
+        }
+        for (int i = 8; i < 15; i++) {
+            setFunction(8, size - 15 + i, bit(bits, i));
+        }
+        setFunction(8, size - 8, true);
+    }
+    
+    private void drawVersion() {
+        if (version < 7) {
+            return;
+        }
+        int remainder = version;
+        for (int i = 0; i < 12; i++) {
+            remainder = (remainder << 1) ^ ((remainder >>> 11) * 0x1F25);
+        }
+        int bits = version << 12 | remainder;
+        for (int i = 0; i < 18; i++) {
+            boolean dark = bit(bits, i);
+            int a = size - 11 + i % 3;
+            int b = i / 3;
+            setFunction(a, b, dark);
+            setFunction(b, a, dark);
+        }
+    }
+    
+    private void setFunction(int x, int y, boolean dark) {
+        modules[y][x] = dark;
+        function[y][x] = true;
+    }
+    
+    private void drawCodewords(byte[] data) {
+        int i = 0;
+        // two-module columns from the right, zigzagging up and down, skipping the timing column
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5;
+            }
+            for (int vertical = 0; vertical < size; vertical++) {
+                for (int j = 0; j < 2; j++) {
+                    int x = right - j;
+                    boolean upward = ((right + 1) & 2) == 0;
+                    int y = upward ? size - 1 - vertical : vertical;
+                    if (!function[y][x] && i < data.length * 8) {
+                        modules[y][x] = bit(data[i >>> 3], 7 - (i & 7));
+                        i++;
+                    }
+                }
+            }
+        }
+    }
+    
+    private void applyMask(int mask) {
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                if (!function[y][x] && masked(mask, x, y)) {
+                    modules[y][x] = !modules[y][x];
+                }
+            }
+        }
+    }
+    
+    static boolean masked(int mask, int x, int y) {
+        return switch (mask) {
+            case 0 -> (x + y) % 2 == 0;
+            case 1 -> y % 2 == 0;
+            case 2 -> x % 3 == 0;
+            case 3 -> (x + y) % 3 == 0;
+            case 4 -> (x / 3 + y / 2) % 2 == 0;
+            case 5 -> x * y % 2 + x * y % 3 == 0;
+            case 6 -> (x * y % 2 + x * y % 3) % 2 == 0;
+            case 7 -> ((x + y) % 2 + x * y % 3) % 2 == 0;
+            default -> throw new IllegalArgumentException("Invalid mask " + mask);
+        };
+    }
+    
+    // ---- mask penalty ----
+    
+    private int penalty() {
+        int result = 0;
+        int[] runs = new int[7];
+        for (int y = 0; y < size; y++) {
+            result += linePenalty(runs, y, true);
+        }
+        for (int x = 0; x < size; x++) {
+            result += linePenalty(runs, x, false);
+        }
+        
+        int dark = 0;
+        for (int y = 0; y < size; y++) {
+            for (int x = 0; x < size; x++) {
+                boolean color = modules[y][x];
+                if (color) {
+                    dark++;
+                }
+                if (x < size - 1 && y < size - 1 && color == modules[y][x + 1]
+                        && color == modules[y + 1][x] && color == modules[y + 1][x + 1]) {
+                    result += 3;
+                }
+            }
+        }
+        int total = size * size;
+        int k = (Math.abs(dark * 20 - total * 10) + total - 1) / total - 1;
+        return result + k * 10;
+    }
+    
+    /**
+     * Runs of five or more same-colored modules, and finder-like 1:1:3:1:1 patterns with
+     * four light modules on either side.
+     */
+    private int linePenalty(int[] runs, int line, boolean row) {
+        Arrays.fill(runs, 0);
+        int result = 0;
+        boolean runColor = false;
+        int runLength = 0;
+        for (int i = 0; i < size; i++) {
+            boolean color = row ? modules[line][i] : modules[i][line];
+            if (color == runColor) {
+                runLength++;
+                if (runLength == 5) {
+                    result += 3;
+                } else if (runLength > 5) {
+                    result++;
+                }
+            } else {
+                addRun(runs, runLength);
+                if (!runColor) {
+                    result += finderLikePatterns(runs) * 40;
+                }
+                runColor = color;
+                runLength = 1;
+            }
+        }
+        if (runColor) {
+            addRun(runs, runLength);
+            runLength = 0;
+        }
+        addRun(runs, runLength + size);
+        return result + finderLikePatterns(runs) * 40;
+    }
+    
+    private void addRun(int[] runs, int length) {
+        if (runs[0] == 0) {
+            // the quiet zone extends the first light run
+            length += size;
+        }
+        System.arraycopy(runs, 0, runs, 1, runs.length - 1);
+        runs[0] = length;
+    }
+    
+    private static int finderLikePatterns(int[] runs) {
+        int n = runs[1];
+        boolean core = n > 0 && runs[2] == n && runs[3] == n * 3 && runs[4] == n && runs[5] == n;
+        return (core && runs[0] >= n * 4 && runs[6] >= n ? 1 : 0)
+                + (core && runs[6] >= n * 4 && runs[0] >= n ? 1 : 0);
+    }
+    
+    private static boolean bit(int value, int index) {
+        return ((value >>> index) & 1) != 0;
+    }
+    
+    private static final class BitWriter {
+        
+        private final byte[] target;
+        private int length;
+        
+        BitWriter(byte[] target) {
+            this.target = target;
+        }
+        
+        void append(int value, int count) {
+            for (int i = count - 1; i >= 0; i--) {
+                if (((value >>> i) & 1) != 0) {
+                    target[length >>> 3] |= (byte) (0x80 >>> (length & 7));
+                }
+                length++;
+            }
+        }
+    }
+}
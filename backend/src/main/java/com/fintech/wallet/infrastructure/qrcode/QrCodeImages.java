@@ -0,0 +1,136 @@
+package com.fintech.wallet.infrastructure.qrcode;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Renders a {@link QrCode} with the four-module quiet zone scanners expect: as an SVG path
+ * with one subpath per horizontal run of dark modules, or as a 1-bit grayscale PNG written
+ * directly, without going through java.awt.
+ */
+public final class QrCodeImages {
+    
+    private static final int QUIET_ZONE = 4;
+    private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    
+    private QrCodeImages() {
+    }
+    
+    public static byte[] svg(QrCode code) {
+        int dimension = code.size() + QUIET_ZONE * 2;
+        StringBuilder svg = new StringBuilder(code.size() * code.size() * 2)
+                .append("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 ").append(dimension).append(' ').append(dimension)
+                .append("\" shape-rendering=\"crispEdges\"><rect width=\"100%\" height=\"100%\" fill=\"#fff\"/><path fill=\"#000\" d=\"");
+        for (int y = 0; y < code.size(); y++) {
+            int x = 0;
+            while (x < code.size()) {
+                if (!code.isDark(x, y)) {
+                    x++;
+                    continue;
+                }
+                int start = x;
+                while (x < code.size() && code.isDark(x, y)) {
+                    x++;
+                }
+                int run = x - start;
+                svg.append('M').append(start + QUIET_ZONE).append(' ').append(y + QUIET_ZONE)
+                        .append('h').append(run).append("v1h-").append(run).append('z');
+            }
+        }
+        return svg.append("\"/></svg>").toString().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * PNG with {@code scale} pixels per module.
+     */
+    public static byte[] png(QrCode code, int scale) {
+        if (scale < 1 || scale > 32) {
+            throw new IllegalArgumentException("Escala inválida: " + scale);
+        }
+        int dimension = (code.size() + QUIET_ZONE * 2) * scale;
+        int rowBytes = (dimension + 7) / 8;
+        
+        ByteArrayOutputStream pixels = new ByteArrayOutputStream(rowBytes * dimension / 4);
+        Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+        try (DeflaterOutputStream out = new DeflaterOutputStream(pixels, deflater)) {
+            byte[] light = new byte[rowBytes + 1];
+            fillLight(light, dimension);
+            byte[] row = new byte[rowBytes + 1];
+            for (int i = 0; i < QUIET_ZONE * scale; i++) {
+                out.write(light);
+            }
+            for (int y = 0; y < code.size(); y++) {
+                // filter type 0; bit 1 is white, so the row starts light and dark modules clear bits
+                System.arraycopy(light, 0, row, 0, row.length);
+                for (int x = 0; x < code.size(); x++) {
+                    if (code.isDark(x, y)) {
+                        int from = (x + QUIET_ZONE) * scale;
+                        for (int pixel = from; pixel < from + scale; pixel++) {
+                            row[1 + (pixel >>> 3)] &= (byte) ~(0x80 >>> (pixel & 7));
+                        }
+                    }
+                }
+                for (int i = 0; i < scale; i++) {
+                    out.write(row);
+                }
+            }
+            for (int i = 0; i < QUIET_ZONE * scale; i++) {
+                out.write(light);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        } finally {
+            deflater.end();
+        }
+        
+        ByteArrayOutputStream png = new ByteArrayOutputStream(pixels.size() + 64);
+        try {
+            png.write(PNG_SIGNATURE);
+            ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+            DataOutputStream fields = new DataOutputStream(header);
+            fields.writeInt(dimension);
+            fields.writeInt(dimension);
+            fields.writeByte(1); // bit depth
+            fields.writeByte(0); // grayscale
+            fields.writeByte(0); // deflate
+            fields.writeByte(0); // adaptive filtering, every row uses filter 0
+            fields.writeByte(0); // not interlaced
+            writeChunk(png, "IHDR", header.toByteArray());
+            writeChunk(png, "IDAT", pixels.toByteArray());
+            writeChunk(png, "IEND", new byte[0]);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return png.toByteArray();
+    }
+    
+    private static void fillLight(byte[] row, int width) {
+        row[0] = 0;
+        for (int i = 1; i < row.length; i++) {
+            row[i] = (byte) 0xFF;
+        }
+        // padding bits past the last pixel stay zero
+        int unused = row.length * 8 - 8 - width;
+        if (unused > 0) {
+            row[row.length - 1] = (byte) (0xFF << unused);
+        }
+    }
+    
+    private static void writeChunk(ByteArrayOutputStream png, String type, byte[] data) throws IOException {
+        DataOutputStream out = new DataOutputStream(png);
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
@@ -1,5 +1,7 @@
 package com.fintech.wallet.infrastructure.security;
 
+import com.fintech.wallet.application.wallet.WalletService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,9 +19,11 @@ import java.util.ArrayList;
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
     
     private final JwtTokenProvider tokenProvider;
+    private final WalletService walletService;
     
-    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider) {
+    public JwtAuthenticationFilter(JwtTokenProvider tokenProvider, WalletService walletService) {
         this.tokenProvider = tokenProvider;
+        this.walletService = walletService;
     }
     
     @Override
@@ -28,11 +32,11 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
                                     FilterChain filterChain) throws ServletException, IOException {
         String token = getTokenFromRequest(request);
         
-        if (token != null && tokenProvider.validateToken(token)) {
-            Long userId = tokenProvider.getUserIdFromToken(token);
-            
+        Claims claims = token == null ? null : tokenProvider.authenticate(token).orElse(null);
+        WalletPrincipal principal = claims == null ? null : toPrincipal(claims);
+        if (principal != null) {
             UsernamePasswordAuthenticationToken authentication = 
-                    new UsernamePasswordAuthenticationToken(userId, null, new ArrayList<>());
+                    new UsernamePasswordAuthenticationToken(principal, null, new ArrayList<>());
             authentication.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
             
             SecurityContextHolder.getContext().setAuthentication(authentication);
@@ -41,6 +45,19 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         filterChain.doFilter(request, response);
     }
     
+    /**
+     * Tokens issued before the wid claim existed resolve the wallet through WalletService's
+     * cached userId lookup; a user without a wallet stays unauthenticated.
+     */
+    private WalletPrincipal toPrincipal(Claims claims) {
+        Long userId = Long.parseLong(claims.getSubject());
+        Long walletId = claims.get(JwtTokenProvider.WALLET_ID_CLAIM, Long.class);
+        if (walletId == null) {
+            walletId = walletService.findWalletIdByUserId(userId).orElse(null);
+        }
+        return walletId == null ? null : new WalletPrincipal(userId, walletId);
+    }
+    
     private String getTokenFromRequest(HttpServletRequest request) {
         String bearerToken = request.getHeader("Authorization");
         if (bearerToken != null && bearerToken.startsWith("Bearer ")) {
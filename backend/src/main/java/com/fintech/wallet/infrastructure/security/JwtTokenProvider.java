@@ -1,61 +1,118 @@
 package com.fintech.wallet.infrastructure.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * Issues and verifies the API's HMAC-signed tokens. The signing key and the parser are built
+ * once. Verified claims are kept in a bounded cache keyed by the SHA-256 of the token, so the
+ * raw bearer tokens are never held in memory, and each entry expires at its token's exp.
+ * Tokens that fail verification are not cached.
+ */
 @Component
 public class JwtTokenProvider {
     
-    @Value("${jwt.secret}")
-    private String jwtSecret;
+    public static final String WALLET_ID_CLAIM = "wid";
     
-    @Value("${jwt.expiration}")
-    private long jwtExpiration;
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final long jwtExpiration;
+    private final Cache<ByteBuffer, Claims> verified;
     
-    private SecretKey getSigningKey() {
-        return Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+    public JwtTokenProvider(@Value("${jwt.secret}") String jwtSecret,
+                            @Value("${jwt.expiration}") long jwtExpiration,
+                            @Value("${jwt.cache.max-entries:10000}") long maxCachedTokens,
+                            MeterRegistry meterRegistry) {
+        this.signingKey = Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8));
+        this.parser = Jwts.parser().verifyWith(signingKey).build();
+        this.jwtExpiration = jwtExpiration;
+        this.verified = Caffeine.newBuilder()
+                .maximumSize(maxCachedTokens)
+                .expireAfter(new UntilExpiration())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "jwt.verified");
     }
     
-    public String generateToken(Long userId, String email) {
+    public String generateToken(Long userId, Long walletId, String email) {
         Date now = new Date();
         Date expiryDate = new Date(now.getTime() + jwtExpiration);
         
         return Jwts.builder()
                 .subject(String.valueOf(userId))
                 .claim("email", email)
+                .claim(WALLET_ID_CLAIM, walletId)
                 .issuedAt(now)
                 .expiration(expiryDate)
-                .signWith(getSigningKey())
+                .signWith(signingKey)
                 .compact();
     }
     
-    public Long getUserIdFromToken(String token) {
-        Claims claims = Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
-        
-        return Long.parseLong(claims.getSubject());
+    /**
+     * Verifies the token once and returns its claims, or empty when it is malformed, forged
+     * or expired. The returned claims are shared between requests and must not be modified.
+     */
+    public Optional<Claims> authenticate(String token) {
+        ByteBuffer key = hash(token);
+        Claims claims = verified.getIfPresent(key);
+        if (claims != null) {
+            return Optional.of(claims);
+        }
+        try {
+            claims = parser.parseSignedClaims(token).getPayload();
+        } catch (JwtException | IllegalArgumentException e) {
+            return Optional.empty();
+        }
+        if (claims.getExpiration() != null) {
+            verified.put(key, claims);
+        }
+        return Optional.of(claims);
     }
     
-    public boolean validateToken(String token) {
+    private static ByteBuffer hash(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    .build()
-                    .parseSignedClaims(token);
-            return true;
-        } catch (Exception e) {
-            return false;
+            return ByteBuffer.wrap(MessageDigest.getInstance("SHA-256")
+                    .digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    private static final class UntilExpiration implements Expiry<ByteBuffer, Claims> {
+        
+        @Override
+        public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+            long millis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(millis, 0));
+        }
+        
+        @Override
+        public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+        
+        @Override
+        public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
-
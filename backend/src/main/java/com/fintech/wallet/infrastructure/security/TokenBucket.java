@@ -0,0 +1,41 @@
+package com.fintech.wallet.infrastructure.security;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket of {@code capacity} tokens refilled at {@code refillPerSecond}, kept as the
+ * single timestamp at which it will be full again (the generic cell rate algorithm), so taking
+ * a token is one compare-and-set with no lock.
+ */
+final class TokenBucket {
+    
+    private final long intervalNanos;
+    private final long burstNanos;
+    // when the bucket is full again; earlier than now means full
+    private final AtomicLong fullAt = new AtomicLong(Long.MIN_VALUE);
+    
+    TokenBucket(int capacity, double refillPerSecond) {
+        if (capacity < 1 || refillPerSecond <= 0) {
+            throw new IllegalArgumentException("Capacidade e reposição devem ser positivas");
+        }
+        this.intervalNanos = Math.max(1, (long) (1_000_000_000L / refillPerSecond));
+        this.burstNanos = intervalNanos * capacity;
+    }
+    
+    /**
+     * @return 0 if a token was taken, otherwise how many nanoseconds until one is available
+     */
+    long tryAcquire(long nowNanos) {
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, nowNanos) + intervalNanos;
+            long wait = next - nowNanos - burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.fintech.wallet.infrastructure.security;
+
+import org.springframework.security.core.AuthenticatedPrincipal;
+
+/**
+ * The authenticated caller: the user from the token's subject and the wallet from its wid
+ * claim. getName() stays the user id, so {@code authentication.getName()} keeps its meaning.
+ */
+public record WalletPrincipal(Long userId, Long walletId) implements AuthenticatedPrincipal {
+    
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+}
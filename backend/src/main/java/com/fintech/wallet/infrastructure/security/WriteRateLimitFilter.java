@@ -0,0 +1,119 @@
+package com.fintech.wallet.infrastructure.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-user token buckets on the endpoints that write to the wallet, in memory on each node.
+ * Runs after {@link JwtAuthenticationFilter}; a user out of tokens gets 429 with Retry-After
+ * before the request reaches a controller. Buckets of users idle for {@code idle-timeout} are
+ * dropped, which loses nothing once it is longer than a bucket takes to refill.
+ */
+@Component
+public class WriteRateLimitFilter extends OncePerRequestFilter {
+    
+    enum WriteEndpoint {
+        TRANSACTIONS("/api/transactions"),
+        IMPORTS("/api/transactions/import"),
+        PAYMENTS("/api/payments");
+        
+        private final String path;
+        
+        WriteEndpoint(String path) {
+            this.path = path;
+        }
+        
+        static WriteEndpoint of(HttpServletRequest request) {
+            if (!"POST".equals(request.getMethod())) {
+                return null;
+            }
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            if (path.endsWith("/")) {
+                path = path.substring(0, path.length() - 1);
+            }
+            for (WriteEndpoint endpoint : values()) {
+                if (endpoint.path.equals(path)) {
+                    return endpoint;
+                }
+            }
+            return null;
+        }
+        
+        String property() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+    
+    private final boolean enabled;
+    private final Map<WriteEndpoint, Limit> limits = new EnumMap<>(WriteEndpoint.class);
+    
+    public WriteRateLimitFilter(Environment environment,
+                                MeterRegistry meterRegistry,
+                                @Value("${wallet.rate-limit.enabled:true}") boolean enabled,
+                                @Value("${wallet.rate-limit.max-tracked-users:100000}") long maxTrackedUsers,
+                                @Value("${wallet.rate-limit.idle-timeout:10m}") Duration idleTimeout) {
+        this.enabled = enabled;
+        for (WriteEndpoint endpoint : WriteEndpoint.values()) {
+            String prefix = "wallet.rate-limit." + endpoint.property() + ".";
+            limits.put(endpoint, new Limit(
+                    environment.getRequiredProperty(prefix + "capacity", Integer.class),
+                    environment.getRequiredProperty(prefix + "refill-per-second", Double.class),
+                    Caffeine.newBuilder().maximumSize(maxTrackedUsers).expireAfterAccess(idleTimeout).build(),
+                    Counter.builder("ratelimit.rejected").tag("endpoint", endpoint.property()).register(meterRegistry)
+            ));
+        }
+    }
+    
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || WriteEndpoint.of(request) == null;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // unauthenticated requests are turned away by the authorization rules further down
+        if (authentication != null && authentication.getPrincipal() instanceof WalletPrincipal principal) {
+            Limit limit = limits.get(WriteEndpoint.of(request));
+            long waitNanos = limit.bucket(principal.userId()).tryAcquire(System.nanoTime());
+            if (waitNanos > 0) {
+                limit.rejected().increment();
+                response.setHeader(HttpHeaders.RETRY_AFTER,
+                        String.valueOf(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999))));
+                response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Muitas requisições, tente novamente mais tarde");
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+    
+    private record Limit(int capacity, double refillPerSecond, Cache<Long, TokenBucket> buckets, Counter rejected) {
+        
+        TokenBucket bucket(Long userId) {
+            return buckets.get(userId, id -> new TokenBucket(capacity, refillPerSecond));
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.fintech.wallet.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class DashboardSeriesDTO {
+    private String granularity;
+    private String zone;
+    private List<SeriesPointDTO> points;
+}
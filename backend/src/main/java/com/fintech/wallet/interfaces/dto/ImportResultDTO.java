@@ -0,0 +1,20 @@
+package com.fintech.wallet.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private long totalRows;
+    private long importedRows;
+    private long failedRows;
+    private List<ImportRowErrorDTO> errors;
+    private boolean errorsTruncated;
+}
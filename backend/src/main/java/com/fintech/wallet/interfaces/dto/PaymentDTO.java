@@ -18,7 +18,13 @@ public class PaymentDTO {
     private String method;
     private String recipient;
     private String description;
+    private String pixKey;
+    private String bankCode;
+    private String bankAgency;
+    private String bankAccount;
     private String status;
+    private String failureReason;
+    private Long transactionId;
     private LocalDateTime createdAt;
 }
 
@@ -0,0 +1,21 @@
+package com.fintech.wallet.interfaces.dto;
+
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+
+import java.math.BigDecimal;
+
+@Data
+public class PixQrCodeDTO {
+    // optional: without it the payer types the amount
+    @DecimalMin(value = "0.01", message = "Valor mínimo é R$ 0,01")
+    private BigDecimal amount;
+    
+    @Size(max = 72, message = "Descrição deve ter no máximo 72 caracteres")
+    private String description;
+    
+    // defaults to the account email
+    @Size(max = 77, message = "Chave PIX deve ter no máximo 77 caracteres")
+    private String pixKey;
+}
@@ -0,0 +1,20 @@
+package com.fintech.wallet.interfaces.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeriesPointDTO {
+    private LocalDate start;
+    private BigDecimal income;
+    private BigDecimal expense;
+    private BigDecimal net;
+}
@@ -15,5 +15,7 @@ public class WalletDTO {
     private Long id;
     private Long userId;
     private BigDecimal balance;
+    // held by pending payments, not spendable
+    private BigDecimal reserved;
 }
 
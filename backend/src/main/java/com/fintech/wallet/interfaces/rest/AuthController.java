@@ -4,17 +4,21 @@ import com.fintech.wallet.application.auth.AuthService;
 import com.fintech.wallet.domain.User;
 import com.fintech.wallet.infrastructure.mappers.UserMapper;
 import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import com.fintech.wallet.interfaces.dto.AuthResponseDTO;
 import com.fintech.wallet.interfaces.dto.LoginDTO;
 import com.fintech.wallet.interfaces.dto.RegisterDTO;
 import com.fintech.wallet.interfaces.dto.UserDTO;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/api/auth")
 @RequiredArgsConstructor
@@ -25,21 +29,21 @@ public class AuthController {
     private final UserMapper userMapper;
     
     @PostMapping("/register")
-    public ResponseEntity<AuthResponseDTO> register(@Valid @RequestBody RegisterDTO registerDTO) {
-        AuthResponseDTO response = authService.register(registerDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> register(@Valid @RequestBody RegisterDTO registerDTO) {
+        return authService.register(registerDTO)
+                .thenApply(response -> ResponseEntity.status(HttpStatus.CREATED).body(response));
     }
     
     @PostMapping("/login")
-    public ResponseEntity<AuthResponseDTO> login(@Valid @RequestBody LoginDTO loginDTO) {
-        AuthResponseDTO response = authService.login(loginDTO);
-        return ResponseEntity.ok(response);
+    public CompletableFuture<ResponseEntity<AuthResponseDTO>> login(@Valid @RequestBody LoginDTO loginDTO,
+                                                                    HttpServletRequest request) {
+        return authService.login(loginDTO, request.getRemoteAddr())
+                .thenApply(ResponseEntity::ok);
     }
     
     @GetMapping("/me")
-    public ResponseEntity<UserDTO> getCurrentUser(Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        User user = userRepository.findById(userId)
+    public ResponseEntity<UserDTO> getCurrentUser(@AuthenticationPrincipal WalletPrincipal principal) {
+        User user = userRepository.findById(principal.userId())
                 .orElseThrow(() -> new IllegalArgumentException("Usuário não encontrado"));
         
         return ResponseEntity.ok(userMapper.toDTO(user));
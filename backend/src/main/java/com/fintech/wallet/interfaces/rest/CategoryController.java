@@ -1,11 +1,12 @@
 package com.fintech.wallet.interfaces.rest;
 
+import com.fintech.wallet.application.category.CategoryCatalog;
 import com.fintech.wallet.domain.Category;
 import com.fintech.wallet.domain.TransactionType;
-import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
@@ -15,22 +16,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class CategoryController {
     
-    private final CategoryRepository categoryRepository;
+    private final CategoryCatalog categoryCatalog;
     
     @GetMapping
     public ResponseEntity<List<Category>> getCategories(
             @RequestParam(required = false) TransactionType type,
-            Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        
-        List<Category> categories;
-        if (type != null) {
-            categories = categoryRepository.findByTypeAndUserIdOrUserIdIsNull(type, userId);
-        } else {
-            categories = categoryRepository.findByUserIdOrUserIdIsNull(userId);
-        }
-        
-        return ResponseEntity.ok(categories);
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        return ResponseEntity.ok(categoryCatalog.findAvailable(principal.userId(), type));
     }
 }
-
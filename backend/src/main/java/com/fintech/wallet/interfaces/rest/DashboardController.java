@@ -1,16 +1,20 @@
 package com.fintech.wallet.interfaces.rest;
 
 import com.fintech.wallet.application.dashboard.DashboardService;
+import com.fintech.wallet.application.dashboard.SeriesGranularity;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import com.fintech.wallet.interfaces.dto.DashboardSeriesDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @RestController
@@ -24,10 +28,23 @@ public class DashboardController {
     public ResponseEntity<DashboardDTO> getDashboard(
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        DashboardDTO dashboard = dashboardService.getDashboardData(userId, startDate, endDate);
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        DashboardDTO dashboard = dashboardService.getDashboardData(
+                principal.userId(), principal.walletId(), startDate, endDate
+        );
         return ResponseEntity.ok(dashboard);
     }
+    
+    @GetMapping("/series")
+    public ResponseEntity<DashboardSeriesDTO> getSeries(
+            @RequestParam(defaultValue = "day") String granularity,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) String zone,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        DashboardSeriesDTO series = dashboardService.getSeries(
+                principal.walletId(), SeriesGranularity.parse(granularity), startDate, endDate, zone
+        );
+        return ResponseEntity.ok(series);
+    }
 }
-
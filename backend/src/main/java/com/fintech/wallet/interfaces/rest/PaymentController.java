@@ -1,32 +1,42 @@
 package com.fintech.wallet.interfaces.rest;
 
+import com.fintech.wallet.application.idempotency.IdempotencyStore;
 import com.fintech.wallet.application.payment.CreatePaymentRequest;
 import com.fintech.wallet.application.payment.PaymentResult;
 import com.fintech.wallet.application.payment.PaymentService;
+import com.fintech.wallet.application.payment.PixQrCodeFormat;
+import com.fintech.wallet.application.payment.PixQrCodes;
+import com.fintech.wallet.domain.PaymentStatus;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import com.fintech.wallet.interfaces.dto.CreatePaymentDTO;
+import com.fintech.wallet.interfaces.dto.PaymentPageDTO;
+import com.fintech.wallet.interfaces.dto.PixQrCodeDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
-import java.util.List;
-import java.util.Map;
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/payments")
 @RequiredArgsConstructor
 public class PaymentController {
     
+    private static final String PIX_PAYLOAD_HEADER = "Pix-Payload";
+    
     private final PaymentService paymentService;
+    private final PixQrCodes pixQrCodes;
+    private final IdempotencyStore idempotencyStore;
     
     @PostMapping
-    public ResponseEntity<PaymentResult> createPayment(
+    public CompletableFuture<ResponseEntity<PaymentResult>> createPayment(
             @Valid @RequestBody CreatePaymentDTO dto,
-            Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal WalletPrincipal principal) {
         CreatePaymentRequest request = CreatePaymentRequest.builder()
                 .amount(dto.getAmount())
                 .method(dto.getMethod())
@@ -38,28 +48,44 @@ public class PaymentController {
                 .bankCode(dto.getBankCode())
                 .build();
         
-        PaymentResult result = paymentService.processPayment(userId, request);
-        return ResponseEntity.ok(result);
+        return idempotencyStore.execute(principal.userId(), idempotencyKey, "POST /api/payments", dto,
+                PaymentResult.class,
+                () -> CompletableFuture.completedFuture(ResponseEntity.accepted()
+                        .body(paymentService.processPayment(principal.userId(), principal.walletId(), request))));
+    }
+    
+    @GetMapping("/{id}")
+    public ResponseEntity<PaymentResult> getPayment(@PathVariable Long id,
+                                                    @AuthenticationPrincipal WalletPrincipal principal) {
+        return ResponseEntity.ok(paymentService.getPayment(principal.walletId(), id));
     }
     
     @GetMapping
-    public ResponseEntity<List<PaymentResult>> getPayments(Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        List<PaymentResult> payments = paymentService.getPayments(userId);
+    public ResponseEntity<PaymentPageDTO> getPayments(
+            @RequestParam(required = false) String method,
+            @RequestParam(required = false) PaymentStatus status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        PaymentPageDTO payments = paymentService.getPayments(
+                principal.walletId(), method, status, startDate, endDate, cursor, limit
+        );
         return ResponseEntity.ok(payments);
     }
     
     @PostMapping("/pix/qrcode")
-    public ResponseEntity<Map<String, String>> generatePixQrCode(
-            @RequestBody Map<String, Object> request,
-            Authentication authentication) {
-        BigDecimal amount = new BigDecimal(request.get("amount").toString());
-        String description = request.get("description") != null 
-            ? request.get("description").toString() 
-            : null;
-        
-        String qrCode = paymentService.generatePixQrCode(amount, description);
-        return ResponseEntity.ok(Map.of("qrCode", qrCode));
+    public ResponseEntity<byte[]> generatePixQrCode(
+            @Valid @RequestBody PixQrCodeDTO dto,
+            @RequestParam(defaultValue = "SVG") PixQrCodeFormat format,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        PixQrCodes.PixQrCode qrCode = pixQrCodes.generate(
+                principal.userId(), dto.getAmount(), dto.getDescription(), dto.getPixKey(), format
+        );
+        return ResponseEntity.ok()
+                .contentType(format.mediaType())
+                .header(PIX_PAYLOAD_HEADER, qrCode.payload())
+                .body(qrCode.image());
     }
 }
-
@@ -1,19 +1,35 @@
 package com.fintech.wallet.interfaces.rest;
 
+import com.fintech.wallet.application.idempotency.IdempotencyStore;
+import com.fintech.wallet.application.ledger.LedgerService;
+import com.fintech.wallet.application.transaction.ImportFileException;
+import com.fintech.wallet.application.transaction.TransactionExportService;
+import com.fintech.wallet.application.transaction.TransactionFileFormat;
+import com.fintech.wallet.application.transaction.TransactionImportService;
 import com.fintech.wallet.application.transaction.TransactionService;
 import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.ImportResultDTO;
 import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionPageDTO;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/api/transactions")
@@ -21,28 +37,75 @@ import java.util.List;
 public class TransactionController {
     
     private final TransactionService transactionService;
+    private final LedgerService ledgerService;
+    private final TransactionImportService transactionImportService;
+    private final TransactionExportService transactionExportService;
+    private final IdempotencyStore idempotencyStore;
     
     @PostMapping
-    public ResponseEntity<TransactionDTO> createTransaction(
+    public CompletableFuture<ResponseEntity<TransactionDTO>> createTransaction(
             @Valid @RequestBody CreateTransactionDTO createDTO,
-            Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        TransactionDTO transaction = transactionService.createTransaction(userId, createDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(transaction);
+            @RequestHeader(value = IdempotencyStore.HEADER, required = false) String idempotencyKey,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        return idempotencyStore.execute(principal.userId(), idempotencyKey, "POST /api/transactions", createDTO,
+                TransactionDTO.class,
+                () -> ledgerService.post(principal.userId(), principal.walletId(), createDTO)
+                        .thenApply(transaction -> ResponseEntity.status(HttpStatus.CREATED).body(transaction)));
+    }
+    
+    @PostMapping(value = "/import", consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public ResponseEntity<ImportResultDTO> importTransactions(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        try {
+            ImportResultDTO result = transactionImportService.importTransactions(
+                    principal.userId(), principal.walletId(), body, TransactionFileFormat.fromContentType(contentType)
+            );
+            return ResponseEntity.ok(result);
+        } catch (ImportFileException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
     }
     
     @GetMapping
-    public ResponseEntity<List<TransactionDTO>> getTransactions(
+    public ResponseEntity<TransactionPageDTO> getTransactions(
             @RequestParam(required = false) TransactionType type,
             @RequestParam(required = false) Long categoryId,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
-            Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        List<TransactionDTO> transactions = transactionService.getTransactions(
-                userId, type, categoryId, startDate, endDate
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        TransactionPageDTO transactions = transactionService.getTransactions(
+                principal.userId(), principal.walletId(), type, categoryId, startDate, endDate, cursor, limit
         );
         return ResponseEntity.ok(transactions);
     }
+    
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            @RequestParam(required = false) TransactionType type,
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate,
+            @RequestParam(defaultValue = "CSV") TransactionFileFormat format,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            @AuthenticationPrincipal WalletPrincipal principal) {
+        boolean gzip = acceptEncoding != null && acceptEncoding.contains("gzip");
+        
+        StreamingResponseBody body = out -> transactionExportService.export(
+                principal.walletId(), type, categoryId, startDate, endDate, format, gzip, out
+        );
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(new MediaType(format.mediaType(), StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(format.fileName()).build().toString())
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.body(body);
+    }
 }
-
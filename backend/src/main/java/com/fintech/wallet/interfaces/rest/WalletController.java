@@ -1,10 +1,11 @@
 package com.fintech.wallet.interfaces.rest;
 
 import com.fintech.wallet.application.wallet.WalletService;
+import com.fintech.wallet.infrastructure.security.WalletPrincipal;
 import com.fintech.wallet.interfaces.dto.WalletDTO;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -17,9 +18,8 @@ public class WalletController {
     private final WalletService walletService;
     
     @GetMapping("/balance")
-    public ResponseEntity<WalletDTO> getBalance(Authentication authentication) {
-        Long userId = Long.parseLong(authentication.getName());
-        WalletDTO wallet = walletService.getBalance(userId);
+    public ResponseEntity<WalletDTO> getBalance(@AuthenticationPrincipal WalletPrincipal principal) {
+        WalletDTO wallet = walletService.getBalance(principal.walletId());
         return ResponseEntity.ok(wallet);
     }
 }
@@ -0,0 +1,16 @@
+-- Idempotency-Key of each payment and transaction write, with the response to replay for
+-- retries. response_status is NULL while the first request is still being processed.
+CREATE TABLE idempotency_keys (
+    id BIGSERIAL PRIMARY KEY,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    idempotency_key VARCHAR(255) NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    response_status INT,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uk_idempotency_keys_user_key UNIQUE (user_id, idempotency_key)
+);
+
+CREATE INDEX idx_idempotency_keys_created_at ON idempotency_keys(created_at);
+
+ALTER SEQUENCE idempotency_keys_id_seq INCREMENT BY 50;
@@ -0,0 +1,39 @@
+-- Destination details of each payment, so listings no longer parse transaction descriptions.
+ALTER TABLE payments ADD COLUMN pix_key VARCHAR(255);
+ALTER TABLE payments ADD COLUMN bank_code VARCHAR(10);
+ALTER TABLE payments ADD COLUMN bank_agency VARCHAR(20);
+ALTER TABLE payments ADD COLUMN bank_account VARCHAR(30);
+
+-- Payments posted before V9 only exist as EXPENSE transactions. Only descriptions written by
+-- the old processPayment are taken, so ordinary expenses are no longer listed as payments; their
+-- destination details were never stored and stay NULL. Rows already in the archive files are
+-- not backfilled. Every row takes its own nextval, so ids never overlap a block handed out to
+-- the application.
+INSERT INTO payments (wallet_id, user_id, amount, method, recipient, description, status,
+                      transaction_id, attempts, created_at, updated_at)
+SELECT t.wallet_id,
+       w.user_id,
+       t.amount,
+       CASE
+           WHEN t.description LIKE 'Pagamento PIX para %' THEN 'PIX'
+           WHEN t.description LIKE 'Transferência para %' THEN 'TRANSFER'
+           ELSE 'BILL'
+       END,
+       CASE
+           WHEN t.description LIKE 'Pagamento de boleto %' THEN NULL
+           ELSE LEFT(SUBSTRING(t.description FROM POSITION('para ' IN t.description) + 5), 255)
+       END,
+       t.description,
+       'COMPLETED',
+       t.id,
+       1,
+       t.created_at,
+       t.created_at
+FROM transactions t
+JOIN wallets w ON w.id = t.wallet_id
+WHERE t.type = 'EXPENSE'
+  AND (t.description LIKE 'Pagamento PIX para %'
+       OR t.description LIKE 'Transferência para %'
+       OR t.description LIKE 'Pagamento de boleto %')
+  AND NOT EXISTS (SELECT 1 FROM payments p WHERE p.transaction_id = t.id)
+ORDER BY t.created_at, t.id;
@@ -0,0 +1,5 @@
+-- Payments the gateway never confirmed either way after max-attempts; they keep their amount
+-- reserved until reconciled instead of being marked FAILED.
+ALTER TABLE payments DROP CONSTRAINT payments_status_check;
+ALTER TABLE payments ADD CONSTRAINT payments_status_check
+    CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED', 'UNCONFIRMED'));
@@ -0,0 +1,11 @@
+-- Hibernate allocates ids in blocks of 50 (pooled-lo), so the sequences must step by the
+-- same amount. Restart each one right after the current max id.
+ALTER SEQUENCE users_id_seq INCREMENT BY 50;
+ALTER SEQUENCE wallets_id_seq INCREMENT BY 50;
+ALTER SEQUENCE categories_id_seq INCREMENT BY 50;
+ALTER SEQUENCE transactions_id_seq INCREMENT BY 50;
+
+SELECT setval('users_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM users), false);
+SELECT setval('wallets_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM wallets), false);
+SELECT setval('categories_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM categories), false);
+SELECT setval('transactions_id_seq', (SELECT COALESCE(MAX(id), 0) + 1 FROM transactions), false);
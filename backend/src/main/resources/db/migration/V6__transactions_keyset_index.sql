@@ -0,0 +1,5 @@
+-- Serves the keyset-paginated listing: WHERE wallet_id = ? ORDER BY created_at DESC, id DESC.
+-- Its wallet_id prefix also covers every lookup the single-column index was used for.
+CREATE INDEX idx_transactions_wallet_created_id ON transactions(wallet_id, created_at DESC, id DESC);
+
+DROP INDEX idx_transactions_wallet_id;
@@ -0,0 +1,22 @@
+-- Per-wallet daily sums by type and category, maintained in the same database transaction
+-- as every posting so the dashboard can read whole days without scanning raw rows.
+CREATE TABLE wallet_daily_totals (
+    id BIGSERIAL PRIMARY KEY,
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id) ON DELETE CASCADE,
+    posting_date DATE NOT NULL,
+    type VARCHAR(20) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    category_id BIGINT,
+    total DECIMAL(19, 2) NOT NULL,
+    transaction_count BIGINT NOT NULL
+);
+
+-- A missing category is one bucket, so NULL must collide like any other value.
+CREATE UNIQUE INDEX ux_wallet_daily_totals_bucket
+    ON wallet_daily_totals(wallet_id, posting_date, type, COALESCE(category_id, 0));
+
+ALTER SEQUENCE wallet_daily_totals_id_seq INCREMENT BY 50;
+
+INSERT INTO wallet_daily_totals (wallet_id, posting_date, type, category_id, total, transaction_count)
+SELECT wallet_id, CAST(created_at AS DATE), type, category_id, SUM(amount), COUNT(*)
+FROM transactions
+GROUP BY wallet_id, CAST(created_at AS DATE), type, category_id;
@@ -0,0 +1,51 @@
+-- Range-partition transactions by month of created_at, so date-range queries only touch the
+-- partitions (and per-partition indexes) of the months they ask for. Postgres requires the
+-- partition key in every unique constraint, so the primary key becomes (id, created_at);
+-- ids still come from the one sequence and stay unique.
+ALTER TABLE transactions RENAME TO transactions_unpartitioned;
+ALTER TABLE transactions_unpartitioned ALTER COLUMN id DROP DEFAULT;
+ALTER SEQUENCE transactions_id_seq OWNED BY NONE;
+
+CREATE TABLE transactions (
+    id BIGINT NOT NULL DEFAULT nextval('transactions_id_seq'),
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id) ON DELETE CASCADE,
+    type VARCHAR(20) NOT NULL CHECK (type IN ('INCOME', 'EXPENSE')),
+    amount DECIMAL(19, 2) NOT NULL CHECK (amount > 0),
+    description VARCHAR(500),
+    category_id BIGINT REFERENCES categories(id) ON DELETE SET NULL,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (created_at);
+
+ALTER SEQUENCE transactions_id_seq OWNED BY transactions.id;
+
+-- One partition per month from the oldest transaction up to three months ahead; the
+-- partition job keeps creating months ahead from there. Rows outside every monthly range
+-- (imports far in the past or future) land in the default partition.
+DO $$
+DECLARE
+    month DATE := date_trunc('month', COALESCE((SELECT MIN(created_at) FROM transactions_unpartitioned), now()));
+    last_month DATE := date_trunc('month', now() + INTERVAL '3 months');
+BEGIN
+    WHILE month <= last_month LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF transactions FOR VALUES FROM (%L) TO (%L)',
+                       'transactions_' || to_char(month, 'YYYY_MM'), month, month + INTERVAL '1 month');
+        month := month + INTERVAL '1 month';
+    END LOOP;
+END $$;
+
+CREATE TABLE transactions_default PARTITION OF transactions DEFAULT;
+
+INSERT INTO transactions (id, wallet_id, type, amount, description, category_id, created_at)
+SELECT id, wallet_id, type, amount, description, category_id, created_at
+FROM transactions_unpartitioned;
+
+DROP TABLE transactions_unpartitioned;
+
+-- Indexes are built after the copy; each one is created on every partition. The old
+-- created_at and type indexes are not recreated: partition pruning now narrows date ranges,
+-- and every query filters by wallet first.
+ALTER TABLE transactions ADD PRIMARY KEY (id, created_at);
+CREATE INDEX idx_transactions_wallet_created_id ON transactions(wallet_id, created_at DESC, id DESC);
+CREATE INDEX idx_transactions_category_id ON transactions(category_id);
+
+ANALYZE transactions;
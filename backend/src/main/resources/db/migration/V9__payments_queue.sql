@@ -0,0 +1,28 @@
+-- Funds held by accepted payments until they settle; what can be spent is balance - reserved.
+ALTER TABLE wallets ADD COLUMN reserved DECIMAL(19, 2) NOT NULL DEFAULT 0.00 CHECK (reserved >= 0);
+
+-- Accepted payments, which double as the settlement queue: workers claim PENDING rows whose
+-- lease is free with FOR UPDATE SKIP LOCKED. transaction_id is the EXPENSE posted when the
+-- payment completes; it has no foreign key because the transactions primary key is
+-- (id, created_at) since V8.
+CREATE TABLE payments (
+    id BIGSERIAL PRIMARY KEY,
+    wallet_id BIGINT NOT NULL REFERENCES wallets(id) ON DELETE CASCADE,
+    user_id BIGINT NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    amount DECIMAL(19, 2) NOT NULL CHECK (amount > 0),
+    method VARCHAR(20) NOT NULL,
+    recipient VARCHAR(255),
+    description VARCHAR(500),
+    status VARCHAR(20) NOT NULL CHECK (status IN ('PENDING', 'COMPLETED', 'FAILED')),
+    failure_reason VARCHAR(255),
+    transaction_id BIGINT,
+    attempts INT NOT NULL DEFAULT 0,
+    lease_until TIMESTAMP,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX idx_payments_queue ON payments(id) WHERE status = 'PENDING';
+CREATE INDEX idx_payments_wallet ON payments(wallet_id, created_at DESC, id DESC);
+
+ALTER SEQUENCE payments_id_seq INCREMENT BY 50;
@@ -0,0 +1,37 @@
+package com.fintech.wallet;
+
+import com.fintech.wallet.domain.User;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * A user with a wallet, which most tests need before anything else. Saved without a flush,
+ * each under an email of its own, so tests sharing a database never collide on it.
+ */
+public final class WalletFixtures {
+    
+    private WalletFixtures() {
+    }
+    
+    public static Wallet createWallet(UserRepository userRepository, WalletRepository walletRepository) {
+        return createWallet(userRepository, walletRepository, BigDecimal.ZERO);
+    }
+    
+    public static Wallet createWallet(UserRepository userRepository, WalletRepository walletRepository,
+                                      BigDecimal balance) {
+        User user = userRepository.save(User.builder()
+                .name("Test User")
+                .email("user-" + UUID.randomUUID() + "@example.com")
+                .password("hashed")
+                .build());
+        
+        return walletRepository.save(Wallet.builder()
+                .userId(user.getId())
+                .balance(balance)
+                .build());
+    }
+}
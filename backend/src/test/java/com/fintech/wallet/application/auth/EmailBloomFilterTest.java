@@ -0,0 +1,58 @@
+package com.fintech.wallet.application.auth;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EmailBloomFilterTest {
+    
+    @Test
+    void shouldNeverMissAnAddedEmailAndStayNearTargetRate() {
+        EmailBloomFilter filter = EmailBloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put("user" + i + "@example.com");
+        }
+        
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        
+        assertTrue(falsePositives < 200, "false positives: " + falsePositives);
+        assertEquals(0.01, filter.expectedFalsePositiveRate(), 0.005);
+        assertTrue(filter.insertions() > 9_900);
+    }
+    
+    @Test
+    void shouldReportWhetherPutChangedTheFilter() {
+        EmailBloomFilter filter = EmailBloomFilter.create(100, 0.01);
+        
+        assertTrue(filter.put("ana@example.com"));
+        assertFalse(filter.put("ana@example.com"));
+        assertEquals(1, filter.insertions());
+    }
+    
+    @Test
+    void shouldRoundTripThroughSnapshot() throws IOException {
+        EmailBloomFilter filter = EmailBloomFilter.create(1_000, 0.01);
+        filter.put("ana@example.com");
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        filter.writeTo(new DataOutputStream(bytes));
+        
+        EmailBloomFilter loaded = EmailBloomFilter.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        
+        assertTrue(loaded.mightContain("ana@example.com"));
+        assertFalse(loaded.mightContain("bia@example.com"));
+        assertEquals(1, loaded.insertions());
+        assertEquals(filter.expectedFalsePositiveRate(), loaded.expectedFalsePositiveRate());
+    }
+}
@@ -0,0 +1,108 @@
+package com.fintech.wallet.application.category;
+
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CategoryCatalogTest {
+    
+    @Mock
+    private CategoryRepository categoryRepository;
+    
+    private SimpleMeterRegistry meterRegistry;
+    private CategoryCatalog catalog;
+    
+    private final List<Category> defaults = new ArrayList<>(List.of(
+            category(1L, "Salário", TransactionType.INCOME, null),
+            category(2L, "Alimentação", TransactionType.EXPENSE, null)
+    ));
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        catalog = new CategoryCatalog(categoryRepository, meterRegistry, 2, Duration.ofMinutes(10));
+        lenient().when(categoryRepository.findByUserIdIsNull()).thenAnswer(invocation -> List.copyOf(defaults));
+        lenient().when(categoryRepository.fingerprint()).thenAnswer(invocation -> fingerprint());
+        lenient().when(categoryRepository.findByUserId(10L))
+                .thenReturn(List.of(category(30L, "Pets", TransactionType.EXPENSE, 10L)));
+        lenient().when(categoryRepository.findByUserId(20L))
+                .thenReturn(List.of(category(40L, "Bicos", TransactionType.INCOME, 20L)));
+    }
+    
+    @Test
+    void shouldServeDefaultsAndUserCategoriesFromMemory() {
+        assertEquals(List.of(2L, 30L), ids(catalog.findAvailable(10L, TransactionType.EXPENSE)));
+        assertEquals(List.of(1L, 2L, 30L), ids(catalog.findAvailable(10L, null)));
+        assertEquals("Pets", catalog.find(10L, 30L).orElseThrow().getName());
+        assertEquals("Salário", catalog.find(20L, 1L).orElseThrow().getName());
+        
+        verify(categoryRepository, times(1)).findByUserIdIsNull();
+        verify(categoryRepository, times(1)).findByUserId(10L);
+        assertEquals(1.0, lookups("miss"));
+        assertEquals(3.0, lookups("hit"));
+    }
+    
+    @Test
+    void shouldNotExposeOtherUsersCategories() {
+        assertTrue(catalog.find(20L, 30L).isEmpty());
+        assertEquals(List.of(1L, 40L), ids(catalog.findAvailable(20L, TransactionType.INCOME)));
+    }
+    
+    @Test
+    void shouldSwapSnapshotWhenFingerprintChanges() {
+        List<Category> before = catalog.findAvailable(10L, TransactionType.INCOME);
+        
+        catalog.refreshIfChanged();
+        assertSame(before, catalog.findAvailable(10L, TransactionType.INCOME));
+        
+        defaults.add(category(3L, "Freelance", TransactionType.INCOME, null));
+        catalog.refreshIfChanged();
+        
+        assertEquals(List.of(1L), ids(before));
+        assertEquals(List.of(1L, 3L), ids(catalog.findAvailable(10L, TransactionType.INCOME)));
+        verify(categoryRepository, times(2)).findByUserId(10L);
+    }
+    
+    @Test
+    void shouldPickUpEditsToSystemCategoriesThatKeepTheFingerprint() {
+        assertEquals("Salário", catalog.find(10L, 1L).orElseThrow().getName());
+        
+        defaults.set(0, category(1L, "Salário e bônus", TransactionType.INCOME, null));
+        catalog.refreshIfChanged();
+        
+        assertEquals("Salário e bônus", catalog.find(10L, 1L).orElseThrow().getName());
+        assertEquals("Salário e bônus", catalog.findAvailable(10L, TransactionType.INCOME).get(0).getName());
+    }
+    
+    private List<Object[]> fingerprint() {
+        List<Object[]> rows = new ArrayList<>();
+        rows.add(new Object[]{(long) defaults.size(), defaults.get(defaults.size() - 1).getId()});
+        return rows;
+    }
+    
+    private double lookups(String result) {
+        return meterRegistry.get("category.catalog.lookups").tag("result", result).counter().count();
+    }
+    
+    private static List<Long> ids(List<Category> categories) {
+        return categories.stream().map(Category::getId).toList();
+    }
+    
+    private static Category category(Long id, String name, TransactionType type, Long userId) {
+        return Category.builder().id(id).name(name).type(type).userId(userId).build();
+    }
+}
@@ -0,0 +1,130 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.domain.WalletDailyTotal;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletDailyTotalRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DailyTotalsIntegrationTest {
+    
+    private static final LocalDateTime DAY = LocalDateTime.of(2024, 3, 10, 0, 0);
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private DailyTotalsMaintenance maintenance;
+    
+    @Autowired
+    private WalletDailyTotalRepository dailyTotalRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private Long userId;
+    private Long walletId;
+    
+    @BeforeEach
+    void setUp() {
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        userId = wallet.getUserId();
+        walletId = wallet.getId();
+        entityManager.flush();
+        
+        // the income and the expense of the same chunk cancel out, so no balance update takes the lock
+        transactionService.importChunk(walletId, List.of(
+                transaction(TransactionType.INCOME, "40.00", DAY.plusHours(9)),
+                transaction(TransactionType.EXPENSE, "40.00", DAY.plusHours(10)),
+                transaction(TransactionType.INCOME, "100.00", DAY.plusDays(1).plusHours(8)),
+                transaction(TransactionType.INCOME, "25.00", DAY.plusDays(1).plusHours(20)),
+                transaction(TransactionType.EXPENSE, "125.00", DAY.plusDays(2).plusHours(23))
+        ));
+        
+        CreateTransactionDTO today = new CreateTransactionDTO();
+        today.setType(TransactionType.INCOME);
+        today.setAmount(new BigDecimal("5.00"));
+        transactionService.createTransaction(userId, walletId, today);
+    }
+    
+    @Test
+    void shouldKeepDailyTotalsInStepWithPostings() {
+        List<WalletDailyTotal> secondDay = dailyTotalRepository.findByWalletIdAndPostingDateBetween(
+                walletId, DAY.toLocalDate().plusDays(1), DAY.toLocalDate().plusDays(1));
+        
+        assertEquals(1, secondDay.size());
+        assertEquals(0, new BigDecimal("125.00").compareTo(secondDay.get(0).getTotal()));
+        assertEquals(2, secondDay.get(0).getTransactionCount());
+        assertTrue(maintenance.verify(walletId, LocalDate.of(2024, 1, 1), LocalDate.now().plusDays(1)).isEmpty());
+    }
+    
+    @Test
+    void shouldCombineRollupsWithPartialEdgeDays() {
+        // 09:30 on the first day to 12:00 on the third: the 10:00 expense and the whole second
+        // day are inside, the 09:00 income and the 23:00 expense are not
+        DashboardDTO dashboard = dashboardService.getDashboardData(
+                userId, walletId, DAY.plusHours(9).plusMinutes(30), DAY.plusDays(2).plusHours(12));
+        
+        assertEquals(0, new BigDecimal("125.00").compareTo(dashboard.getTotalIncome()));
+        assertEquals(0, new BigDecimal("40.00").compareTo(dashboard.getTotalExpense()));
+    }
+    
+    @Test
+    void shouldReportAndRepairDrift() {
+        WalletDailyTotal firstDay = dailyTotalRepository.findByWalletIdAndPostingDateBetween(
+                walletId, DAY.toLocalDate(), DAY.toLocalDate()).get(0);
+        firstDay.setTotal(firstDay.getTotal().add(BigDecimal.ONE));
+        dailyTotalRepository.saveAndFlush(firstDay);
+        
+        List<DailyTotalsMaintenance.Mismatch> mismatches =
+                maintenance.verify(walletId, DAY.toLocalDate(), DAY.toLocalDate().plusDays(3));
+        
+        assertEquals(1, mismatches.size());
+        assertEquals(DAY.toLocalDate(), mismatches.get(0).postingDate());
+        
+        maintenance.rebuild(walletId);
+        
+        assertTrue(maintenance.verify(walletId, LocalDate.of(2024, 1, 1), LocalDate.now().plusDays(1)).isEmpty());
+    }
+    
+    private Transaction transaction(TransactionType type, String amount, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .walletId(walletId)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .createdAt(createdAt)
+                .build();
+    }
+}
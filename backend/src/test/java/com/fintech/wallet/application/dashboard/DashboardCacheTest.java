@@ -0,0 +1,105 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DashboardCacheTest {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2024, 3, 1, 0, 0);
+    private static final LocalDateTime END = LocalDateTime.of(2024, 4, 1, 0, 0);
+    
+    private final List<Runnable> background = new ArrayList<>();
+    private final AtomicInteger computations = new AtomicInteger();
+    private SimpleMeterRegistry meterRegistry;
+    
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+    
+    @Test
+    void shouldServeRepeatedRequestsFromCacheUntilWalletChanges() {
+        DashboardCache cache = cache(Duration.ofMinutes(1));
+        
+        assertEquals(1, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(1, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(2, balance(cache.get(7L, START, END.plusDays(1), this::compute)));
+        
+        cache.invalidate(7L);
+        
+        assertEquals(3, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(1.0, requests("hit"));
+        assertEquals(3.0, requests("miss"));
+        assertEquals(3, meterRegistry.get("dashboard.cache.recompute").timer().count());
+    }
+    
+    @Test
+    void shouldServeStaleEntryWhileOneBackgroundRefreshRuns() {
+        DashboardCache cache = cache(Duration.ZERO);
+        cache.get(7L, START, END, this::compute);
+        
+        assertEquals(1, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(1, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(1, background.size());
+        
+        background.remove(0).run();
+        
+        assertEquals(2, balance(cache.get(7L, START, END, this::compute)));
+        assertEquals(2, computations.get());
+        assertEquals(3.0, requests("stale"));
+    }
+    
+    @Test
+    void shouldServeStaleEntryToReadersArrivingDuringRecomputationAfterWrite() {
+        DashboardCache cache = cache(Duration.ofMinutes(1));
+        cache.get(7L, START, END, this::compute);
+        cache.invalidate(7L);
+        
+        List<DashboardDTO> seenDuringRecompute = new ArrayList<>();
+        DashboardDTO fresh = cache.get(7L, START, END, () -> {
+            seenDuringRecompute.add(cache.get(7L, START, END, this::compute));
+            return compute();
+        });
+        
+        assertEquals(1, balance(seenDuringRecompute.get(0)));
+        assertEquals(2, balance(fresh));
+        assertTrue(background.isEmpty());
+    }
+    
+    @Test
+    void shouldNotCacheFailedRecomputation() {
+        DashboardCache cache = cache(Duration.ofMinutes(1));
+        
+        assertThrows(IllegalArgumentException.class, () -> cache.get(7L, START, END, () -> {
+            throw new IllegalArgumentException("Carteira não encontrada");
+        }));
+        assertEquals(1, balance(cache.get(7L, START, END, this::compute)));
+    }
+    
+    private DashboardCache cache(Duration refreshAfter) {
+        return new DashboardCache(meterRegistry, background::add, 100, Duration.ofMinutes(10), refreshAfter);
+    }
+    
+    private DashboardDTO compute() {
+        return DashboardDTO.builder().balance(BigDecimal.valueOf(computations.incrementAndGet())).build();
+    }
+    
+    private static int balance(DashboardDTO dashboard) {
+        return dashboard.getBalance().intValue();
+    }
+    
+    private double requests(String result) {
+        return meterRegistry.get("dashboard.cache.requests").tag("result", result).counter().count();
+    }
+}
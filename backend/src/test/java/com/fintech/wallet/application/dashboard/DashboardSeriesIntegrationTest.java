@@ -0,0 +1,136 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.DashboardSeriesDTO;
+import com.fintech.wallet.interfaces.dto.SeriesPointDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class DashboardSeriesIntegrationTest {
+    
+    private static final LocalDate FIRST = LocalDate.of(2024, 1, 1);
+    private static final LocalDate LAST = LocalDate.of(2024, 4, 30);
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    private Long walletId;
+    private final List<Transaction> posted = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("100000.00"));
+        walletRepository.flush();
+        walletId = wallet.getId();
+        
+        // times close to midnight and on half hours, so boundaries of other zones cut through days
+        int[][] times = {{0, 0}, {1, 30}, {5, 15}, {12, 0}, {22, 45}, {23, 59}};
+        for (LocalDate day = FIRST; !day.isAfter(LAST); day = day.plusDays(3)) {
+            for (int i = 0; i < times.length; i++) {
+                posted.add(Transaction.builder()
+                        .walletId(wallet.getId())
+                        .type(i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                        .amount(BigDecimal.valueOf(day.getDayOfMonth() * 10L + i))
+                        .createdAt(day.atTime(times[i][0], times[i][1]))
+                        .build());
+            }
+        }
+        transactionService.importChunk(wallet.getId(), posted);
+    }
+    
+    @Test
+    void shouldZeroFillDailyBucketsInServerZone() {
+        DashboardSeriesDTO series = dashboardService.getSeries(
+                walletId, SeriesGranularity.DAY, LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 7), null);
+        
+        assertEquals(7, series.getPoints().size());
+        assertEquals(LocalDate.of(2024, 1, 1), series.getPoints().get(0).getStart());
+        assertEquals(0, BigDecimal.ZERO.compareTo(series.getPoints().get(1).getIncome()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(series.getPoints().get(1).getExpense()));
+        assertMatchesRawRows(series, SeriesGranularity.DAY, ZoneId.systemDefault());
+    }
+    
+    @Test
+    void shouldPlaceBucketBoundariesInRequestedZone() {
+        for (String zone : List.of("America/Sao_Paulo", "Asia/Kolkata", "Pacific/Kiritimati")) {
+            for (SeriesGranularity granularity : SeriesGranularity.values()) {
+                DashboardSeriesDTO series = dashboardService.getSeries(walletId, granularity, FIRST, LAST, zone);
+                
+                assertEquals(zone, series.getZone());
+                assertMatchesRawRows(series, granularity, ZoneId.of(zone));
+            }
+        }
+    }
+    
+    @Test
+    void shouldRejectInvalidParameters() {
+        assertThrows(ResponseStatusException.class, () -> SeriesGranularity.parse("hour"));
+        assertThrows(ResponseStatusException.class, () -> dashboardService.getSeries(
+                walletId, SeriesGranularity.DAY, LAST, FIRST, null));
+        assertThrows(ResponseStatusException.class, () -> dashboardService.getSeries(
+                walletId, SeriesGranularity.DAY, FIRST, LAST, "Mars/Olympus"));
+        assertThrows(ResponseStatusException.class, () -> dashboardService.getSeries(
+                walletId, SeriesGranularity.DAY, FIRST.minusYears(5), LAST, null));
+    }
+    
+    /**
+     * Recomputes the series by converting every posted row to the zone by hand.
+     */
+    private void assertMatchesRawRows(DashboardSeriesDTO series, SeriesGranularity granularity, ZoneId zone) {
+        Map<LocalDate, BigDecimal[]> expected = new TreeMap<>();
+        for (SeriesPointDTO point : series.getPoints()) {
+            expected.put(point.getStart(), new BigDecimal[]{BigDecimal.ZERO, BigDecimal.ZERO});
+        }
+        for (Transaction transaction : posted) {
+            LocalDateTime local = transaction.getCreatedAt().atZone(ZoneId.systemDefault())
+                    .withZoneSameInstant(zone).toLocalDateTime();
+            BigDecimal[] sums = expected.get(granularity.truncate(local.toLocalDate()));
+            if (sums != null) {
+                int side = transaction.getType() == TransactionType.INCOME ? 0 : 1;
+                sums[side] = sums[side].add(transaction.getAmount());
+            }
+        }
+        
+        for (SeriesPointDTO point : series.getPoints()) {
+            BigDecimal[] sums = expected.get(point.getStart());
+            String label = zone + " " + granularity + " " + point.getStart();
+            assertEquals(0, sums[0].compareTo(point.getIncome()), label);
+            assertEquals(0, sums[1].compareTo(point.getExpense()), label);
+            assertEquals(0, sums[0].subtract(sums[1]).compareTo(point.getNet()), label);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+package com.fintech.wallet.application.dashboard;
+
+import com.fintech.wallet.application.category.CategoryCatalog;
+import com.fintech.wallet.application.wallet.WalletService;
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletDailyTotalRepository;
+import com.fintech.wallet.interfaces.dto.CategorySummaryDTO;
+import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class DashboardServiceTest {
+    
+    @Mock
+    private WalletService walletService;
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private WalletDailyTotalRepository dailyTotalRepository;
+    
+    @Mock
+    private TransactionArchive transactionArchive;
+    
+    @Mock
+    private CategoryCatalog categoryCatalog;
+    
+    @Spy
+    private DashboardCache dashboardCache = new DashboardCache(
+            new SimpleMeterRegistry(), Runnable::run, 100, Duration.ofMinutes(10), Duration.ofMinutes(1));
+    
+    @InjectMocks
+    private DashboardService dashboardService;
+    
+    @Test
+    void shouldBuildDashboardFromSingleGroupedQueryWithinOneDay() {
+        Wallet wallet = Wallet.builder().id(7L).userId(1L).balance(new BigDecimal("150.00")).build();
+        when(walletService.getWallet(7L)).thenReturn(wallet);
+        when(transactionRepository.sumAmountByTypeAndCategory(eq(7L), any(), any())).thenReturn(List.of(
+                new Object[]{TransactionType.INCOME, 1L, new BigDecimal("300.00")},
+                new Object[]{TransactionType.EXPENSE, 5L, new BigDecimal("120.50")},
+                new Object[]{TransactionType.EXPENSE, null, new BigDecimal("29.50")}
+        ));
+        when(categoryCatalog.find(1L, 1L)).thenReturn(Optional.of(
+                Category.builder().id(1L).name("Salário").color("#10b981").build()));
+        when(categoryCatalog.find(1L, 5L)).thenReturn(Optional.of(
+                Category.builder().id(5L).name("Alimentação").color("#ef4444").build()));
+        when(categoryCatalog.find(1L, null)).thenReturn(Optional.empty());
+        
+        DashboardDTO dashboard = dashboardService.getDashboardData(1L, 7L,
+                LocalDateTime.of(2024, 3, 10, 8, 0), LocalDateTime.of(2024, 3, 10, 18, 0));
+        
+        assertEquals(0, new BigDecimal("300.00").compareTo(dashboard.getTotalIncome()));
+        assertEquals(0, new BigDecimal("150.00").compareTo(dashboard.getTotalExpense()));
+        assertEquals(List.of("Alimentação", "Sem categoria"),
+                dashboard.getExpensesByCategory().stream().map(CategorySummaryDTO::getCategoryName).toList());
+        assertEquals("Salário", dashboard.getIncomeByCategory().get(0).getCategoryName());
+        verify(transactionRepository, times(1)).sumAmountByTypeAndCategory(eq(7L), any(), any());
+        verifyNoMoreInteractions(transactionRepository);
+        verifyNoInteractions(dailyTotalRepository);
+    }
+    
+    @Test
+    void shouldReadWholeDaysFromRollupsAndEdgesFromRawRows() {
+        Wallet wallet = Wallet.builder().id(7L).userId(1L).balance(BigDecimal.ZERO).build();
+        when(walletService.getWallet(7L)).thenReturn(wallet);
+        LocalDateTime start = LocalDateTime.of(2024, 3, 1, 15, 30);
+        LocalDateTime end = LocalDateTime.of(2024, 3, 20, 9, 0);
+        when(transactionRepository.sumAmountByTypeAndCategoryUntil(7L, start, LocalDateTime.of(2024, 3, 2, 0, 0)))
+                .thenReturn(List.<Object[]>of(new Object[]{TransactionType.EXPENSE, 5L, new BigDecimal("10.00")}));
+        when(dailyTotalRepository.sumTotalByTypeAndCategory(7L, LocalDate.of(2024, 3, 2), LocalDate.of(2024, 3, 20)))
+                .thenReturn(List.of(
+                        new Object[]{TransactionType.EXPENSE, 5L, new BigDecimal("100.00")},
+                        new Object[]{TransactionType.INCOME, null, new BigDecimal("500.00")}
+                ));
+        when(transactionRepository.sumAmountByTypeAndCategory(7L, LocalDateTime.of(2024, 3, 20, 0, 0), end))
+                .thenReturn(List.<Object[]>of(new Object[]{TransactionType.EXPENSE, 5L, new BigDecimal("1.50")}));
+        when(categoryCatalog.find(eq(1L), any())).thenReturn(Optional.empty());
+        
+        DashboardDTO dashboard = dashboardService.getDashboardData(1L, 7L, start, end);
+        
+        assertEquals(0, new BigDecimal("500.00").compareTo(dashboard.getTotalIncome()));
+        assertEquals(0, new BigDecimal("111.50").compareTo(dashboard.getTotalExpense()));
+        assertEquals(1, dashboard.getExpensesByCategory().size());
+        assertEquals(0, new BigDecimal("111.50").compareTo(dashboard.getExpensesByCategory().get(0).getTotal()));
+    }
+    
+    @Test
+    void shouldReturnZeroTotalsForEmptyPeriod() {
+        Wallet wallet = Wallet.builder().id(7L).userId(1L).balance(BigDecimal.ZERO).build();
+        when(walletService.getWallet(7L)).thenReturn(wallet);
+        when(transactionRepository.sumAmountByTypeAndCategory(eq(7L), any(), any())).thenReturn(List.of());
+        lenient().when(transactionRepository.sumAmountByTypeAndCategoryUntil(eq(7L), any(), any())).thenReturn(List.of());
+        when(dailyTotalRepository.sumTotalByTypeAndCategory(eq(7L), any(), any())).thenReturn(List.of());
+        
+        DashboardDTO dashboard = dashboardService.getDashboardData(1L, 7L, null, null);
+        
+        assertEquals(BigDecimal.ZERO, dashboard.getTotalIncome());
+        assertEquals(BigDecimal.ZERO, dashboard.getTotalExpense());
+        assertTrue(dashboard.getExpensesByCategory().isEmpty());
+    }
+    
+    @Test
+    void shouldRefuseExtremeSeriesRangesBeforeBuildingBuckets() {
+        assertTimeoutPreemptively(Duration.ofSeconds(2), () -> {
+            for (SeriesGranularity granularity : SeriesGranularity.values()) {
+                assertThrows(ResponseStatusException.class, () -> dashboardService.getSeries(
+                        7L, granularity, LocalDate.of(1, 1, 1), LocalDate.of(2024, 1, 1), "UTC"));
+                assertThrows(ResponseStatusException.class, () -> dashboardService.getSeries(
+                        7L, granularity, LocalDate.of(2024, 1, 1), LocalDate.MAX, "UTC"));
+            }
+        });
+        verifyNoInteractions(transactionRepository, dailyTotalRepository, transactionArchive);
+        
+        assertEquals(1000, SeriesGranularity.DAY.buckets(LocalDate.of(2024, 1, 1), LocalDate.of(2024, 1, 1).plusDays(999)));
+        // 2024-01-03 is a Wednesday: its week starts on Monday the 1st
+        assertEquals(2, SeriesGranularity.WEEK.buckets(LocalDate.of(2024, 1, 3), LocalDate.of(2024, 1, 8)));
+        assertEquals(13, SeriesGranularity.MONTH.buckets(LocalDate.of(2024, 1, 31), LocalDate.of(2025, 1, 1)));
+    }
+}
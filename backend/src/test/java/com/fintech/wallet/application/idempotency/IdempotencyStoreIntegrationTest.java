@@ -0,0 +1,118 @@
+package com.fintech.wallet.application.idempotency;
+
+import com.fintech.wallet.infrastructure.persistence.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class IdempotencyStoreIntegrationTest {
+    
+    private static final int THREADS = 16;
+    
+    @Autowired
+    private IdempotencyStore store;
+    
+    @Autowired
+    private IdempotencyRecordRepository repository;
+    
+    @Test
+    void shouldRunConcurrentDuplicatesOnceAndShareTheResult() throws Exception {
+        String key = UUID.randomUUID().toString();
+        AtomicInteger runs = new AtomicInteger();
+        CompletableFuture<ResponseEntity<String>> inFlight = new CompletableFuture<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService pool = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<CompletableFuture<ResponseEntity<String>>>> calls = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                calls.add(pool.submit(() -> {
+                    start.await();
+                    return store.execute(1L, key, "POST /test", "body", String.class, () -> {
+                        runs.incrementAndGet();
+                        return inFlight;
+                    });
+                }));
+            }
+            start.countDown();
+            List<CompletableFuture<ResponseEntity<String>>> responses = new ArrayList<>();
+            for (Future<CompletableFuture<ResponseEntity<String>>> call : calls) {
+                responses.add(call.get(10, TimeUnit.SECONDS));
+            }
+            
+            inFlight.complete(ResponseEntity.status(201).body("posted"));
+            
+            for (CompletableFuture<ResponseEntity<String>> response : responses) {
+                ResponseEntity<String> entity = response.get(10, TimeUnit.SECONDS);
+                assertEquals(201, entity.getStatusCode().value());
+                assertEquals("posted", entity.getBody());
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        
+        assertEquals(1, runs.get());
+        assertEquals(201, repository.findByUserIdAndIdempotencyKey(1L, key).orElseThrow().getResponseStatus());
+    }
+    
+    @Test
+    void shouldReleaseTheKeyWhenTheWriteFails() throws Exception {
+        String key = UUID.randomUUID().toString();
+        CompletableFuture<ResponseEntity<String>> failed = store.execute(1L, key, "POST /test", "body", String.class,
+                () -> CompletableFuture.failedFuture(new IllegalArgumentException("Saldo insuficiente")));
+        
+        assertTrue(failed.isCompletedExceptionally());
+        assertTrue(repository.findByUserIdAndIdempotencyKey(1L, key).isEmpty());
+        
+        ResponseEntity<String> retried = store.execute(1L, key, "POST /test", "body", String.class,
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok("posted"))).get();
+        assertEquals("posted", retried.getBody());
+    }
+    
+    @Test
+    void shouldReplayRequestsThatDifferOnlyInNumberScaleOrPropertyOrder() throws Exception {
+        String key = UUID.randomUUID().toString();
+        Map<String, Object> first = new LinkedHashMap<>();
+        first.put("amount", new BigDecimal("10"));
+        first.put("description", "Mercado");
+        Map<String, Object> retry = new LinkedHashMap<>();
+        retry.put("description", "Mercado");
+        retry.put("amount", new BigDecimal("10.00"));
+        AtomicInteger runs = new AtomicInteger();
+        
+        store.execute(1L, key, "POST /test", first, String.class, () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(201).body("posted"));
+        }).get();
+        ResponseEntity<String> replayed = store.execute(1L, key, "POST /test", retry, String.class, () -> {
+            runs.incrementAndGet();
+            return CompletableFuture.completedFuture(ResponseEntity.status(201).body("posted again"));
+        }).get();
+        
+        assertEquals(1, runs.get());
+        assertEquals("posted", replayed.getBody());
+        assertThrows(ResponseStatusException.class, () -> store.execute(1L, key, "POST /test",
+                Map.of("amount", new BigDecimal("10.01"), "description", "Mercado"), String.class,
+                () -> CompletableFuture.completedFuture(ResponseEntity.ok("other"))));
+    }
+}
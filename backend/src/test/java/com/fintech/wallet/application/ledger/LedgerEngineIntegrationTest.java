@@ -0,0 +1,161 @@
+package com.fintech.wallet.application.ledger;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.application.wallet.WalletService;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = {"wallet.ledger.mode=sharded", "wallet.ledger.shards=2"})
+@ActiveProfiles("test")
+class LedgerEngineIntegrationTest {
+    
+    private static final int THREADS = 16;
+    private static final int CALLS = 1000;
+    
+    @Autowired
+    private LedgerService ledgerService;
+    
+    // only present in sharded mode, so the context fails to start if postings took the direct path
+    @Autowired
+    private LedgerEngine ledgerEngine;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private WalletService walletService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Test
+    void shouldPostConcurrentlyToOneWalletWithoutLosingOrOverdrawing() throws Exception {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("100.00"));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<CompletableFuture<Boolean>> outcomes = new ArrayList<>();
+        
+        for (int i = 0; i < CALLS; i++) {
+            TransactionType type = i % 4 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            outcomes.add(CompletableFuture.supplyAsync(() -> post(wallet, type, "1.00"), executor)
+                    .thenCompose(future -> future)
+                    .handle((posted, error) -> {
+                        if (error != null) {
+                            assertInstanceOf(IllegalArgumentException.class, error.getCause());
+                            assertTrue(error.getCause().getMessage().contains("Saldo insuficiente"));
+                        }
+                        return error == null;
+                    }));
+        }
+        
+        long incomes = 0;
+        long expenses = 0;
+        for (int i = 0; i < CALLS; i++) {
+            if (outcomes.get(i).get(60, TimeUnit.SECONDS)) {
+                if (i % 4 == 0) {
+                    incomes++;
+                } else {
+                    expenses++;
+                }
+            }
+        }
+        executor.shutdown();
+        
+        assertEquals(CALLS / 4, incomes, "income postings never fail");
+        assertTrue(expenses > 0 && expenses < CALLS * 3 / 4);
+        Wallet reloaded = walletRepository.findById(wallet.getId()).orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").add(BigDecimal.valueOf(incomes - expenses)).compareTo(reloaded.getBalance()));
+        assertTrue(reloaded.getBalance().signum() >= 0);
+        assertEquals(incomes + expenses, transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId()).size());
+    }
+    
+    @Test
+    void shouldRejectAnExpenseTheWalletCannotCover() {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("10.00"));
+        
+        CompletionException e = assertThrows(CompletionException.class,
+                () -> post(wallet, TransactionType.EXPENSE, "10.01").join());
+        
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+        assertTrue(e.getCause().getMessage().contains("Saldo insuficiente"));
+        assertEquals(0, new BigDecimal("10.00").compareTo(balance(wallet)));
+        assertTrue(transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId()).isEmpty());
+    }
+    
+    @Test
+    void shouldReloadTheBalanceWhenAnotherPathCreditedTheWallet() {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("10.00"));
+        post(wallet, TransactionType.EXPENSE, "5.00").join();
+        
+        // an import, outside the ledger: the shard still caches 5.00
+        transactionService.importChunk(wallet.getId(), List.of(
+                transactionService.newTransaction(wallet.getId(), dto(TransactionType.INCOME, "100.00"))));
+        
+        post(wallet, TransactionType.EXPENSE, "50.00").join();
+        assertEquals(0, new BigDecimal("55.00").compareTo(balance(wallet)));
+    }
+    
+    @Test
+    void shouldFallBackToSinglePostingsWhenTheGroupCommitFails() {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("100.00"));
+        post(wallet, TransactionType.EXPENSE, "1.00").join();
+        
+        // debited outside the ledger, as a payment hold would: the shard still caches 99.00,
+        // so the next commit's conditional debit finds too little and the batch is retried alone
+        walletService.updateBalance(wallet.getId(), new BigDecimal("80.00"), TransactionType.EXPENSE);
+        
+        CompletableFuture<TransactionDTO> expense = post(wallet, TransactionType.EXPENSE, "50.00");
+        CompletableFuture<TransactionDTO> income = post(wallet, TransactionType.INCOME, "10.00");
+        
+        CompletionException e = assertThrows(CompletionException.class, expense::join);
+        assertTrue(e.getCause().getMessage().contains("Saldo insuficiente"));
+        assertNotNull(income.join().getId());
+        assertEquals(0, new BigDecimal("29.00").compareTo(balance(wallet)));
+        assertEquals(2, transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId()).size());
+        
+        post(wallet, TransactionType.EXPENSE, "29.00").join();
+        assertEquals(0, BigDecimal.ZERO.compareTo(balance(wallet)));
+    }
+    
+    private CompletableFuture<TransactionDTO> post(Wallet wallet, TransactionType type, String amount) {
+        return ledgerService.post(wallet.getUserId(), wallet.getId(), dto(type, amount));
+    }
+    
+    private static CreateTransactionDTO dto(TransactionType type, String amount) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setType(type);
+        dto.setAmount(new BigDecimal(amount));
+        dto.setDescription("Ledger " + type);
+        return dto;
+    }
+    
+    private BigDecimal balance(Wallet wallet) {
+        return walletRepository.findById(wallet.getId()).orElseThrow().getBalance();
+    }
+}
@@ -0,0 +1,168 @@
+package com.fintech.wallet.application.payment;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Payment;
+import com.fintech.wallet.domain.PaymentStatus;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.PaymentRepository;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.PaymentDTO;
+import com.fintech.wallet.interfaces.dto.PaymentPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class PaymentSettlementIntegrationTest {
+    
+    @Autowired
+    private PaymentService paymentService;
+    
+    @Autowired
+    private PaymentSettlement settlement;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private PaymentRepository paymentRepository;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    private Long userId;
+    private Long walletId;
+    
+    @BeforeEach
+    void setUp() {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("100.00"));
+        userId = wallet.getUserId();
+        walletId = wallet.getId();
+    }
+    
+    @Test
+    void shouldHoldTheAmountUntilSettledAndThenPostTheExpense() {
+        PaymentResult accepted = paymentService.processPayment(userId, walletId, pix("30.00"));
+        
+        assertEquals("PENDING", accepted.getStatus());
+        Wallet held = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(0, new BigDecimal("100.00").compareTo(held.getBalance()));
+        assertEquals(0, new BigDecimal("70.00").compareTo(held.getAvailableBalance()));
+        
+        // reserved money cannot be spent by anything else meanwhile
+        assertThrows(IllegalArgumentException.class,
+                () -> transactionService.createTransaction(userId, walletId, expense("80.00")));
+        assertThrows(IllegalArgumentException.class,
+                () -> paymentService.processPayment(userId, walletId, pix("80.00")));
+        
+        settleAll();
+        
+        PaymentResult settled = paymentService.getPayment(walletId, accepted.getId());
+        assertEquals("COMPLETED", settled.getStatus());
+        Payment payment = paymentRepository.findById(accepted.getId()).orElseThrow();
+        assertNotNull(payment.getTransactionId());
+        assertEquals(1, transactionRepository.findByWalletIdOrderByCreatedAtDesc(walletId).size());
+        Wallet debited = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(0, new BigDecimal("70.00").compareTo(debited.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(debited.getReserved()));
+    }
+    
+    @Test
+    void shouldReleaseTheHoldOfRejectedPayments() {
+        walletId = walletRepository.save(Wallet.builder()
+                .userId(userId)
+                .balance(new BigDecimal("60100.00"))
+                .build()).getId();
+        PaymentResult accepted = paymentService.processPayment(userId, walletId, pix("50000.01"));
+        
+        settleAll();
+        
+        PaymentResult settled = paymentService.getPayment(walletId, accepted.getId());
+        assertEquals("FAILED", settled.getStatus());
+        assertNotNull(settled.getFailureReason());
+        assertTrue(transactionRepository.findByWalletIdOrderByCreatedAtDesc(walletId).isEmpty());
+        Wallet wallet = walletRepository.findById(walletId).orElseThrow();
+        assertEquals(0, new BigDecimal("60100.00").compareTo(wallet.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(wallet.getReserved()));
+    }
+    
+    @Test
+    void shouldNotShowPaymentsOfOtherWallets() {
+        PaymentResult accepted = paymentService.processPayment(userId, walletId, pix("10.00"));
+        
+        assertThrows(ResponseStatusException.class, () -> paymentService.getPayment(walletId + 1000, accepted.getId()));
+    }
+    
+    @Test
+    void shouldPageAndFilterPayments() {
+        paymentService.processPayment(userId, walletId, pix("1.00"));
+        paymentService.processPayment(userId, walletId, CreatePaymentRequest.builder()
+                .amount(new BigDecimal("2.00"))
+                .method("TRANSFER")
+                .recipient("Bia")
+                .bankCode("001")
+                .bankAgency("1234")
+                .bankAccount("56789-0")
+                .build());
+        paymentService.processPayment(userId, walletId, pix("3.00"));
+        transactionService.createTransaction(userId, walletId, expense("4.00"));
+        
+        PaymentPageDTO first = paymentService.getPayments(walletId, null, null, null, null, null, 2);
+        assertTrue(first.isHasMore());
+        PaymentPageDTO second = paymentService.getPayments(walletId, null, null, null, null, first.getNextCursor(), 2);
+        assertFalse(second.isHasMore());
+        List<String> amounts = Stream.concat(first.getItems().stream(), second.getItems().stream())
+                .map(payment -> payment.getAmount().toPlainString())
+                .toList();
+        assertEquals(List.of("3.00", "2.00", "1.00"), amounts);
+        
+        PaymentPageDTO transfers = paymentService.getPayments(walletId, "TRANSFER", PaymentStatus.PENDING, null, null, null, null);
+        assertEquals(1, transfers.getItems().size());
+        PaymentDTO transfer = transfers.getItems().get(0);
+        assertEquals("Bia", transfer.getRecipient());
+        assertEquals("56789-0", transfer.getBankAccount());
+        assertTrue(paymentService.getPayments(walletId, null, PaymentStatus.COMPLETED, null, null, null, null).getItems().isEmpty());
+    }
+    
+    private void settleAll() {
+        while (settlement.settleBatch(50) > 0) {
+            // drains payments left by other tests too
+        }
+    }
+    
+    private static CreatePaymentRequest pix(String amount) {
+        return CreatePaymentRequest.builder()
+                .amount(new BigDecimal(amount))
+                .method("PIX")
+                .recipient("ana@example.com")
+                .build();
+    }
+    
+    private static CreateTransactionDTO expense(String amount) {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setType(TransactionType.EXPENSE);
+        dto.setAmount(new BigDecimal(amount));
+        return dto;
+    }
+}
@@ -0,0 +1,115 @@
+package com.fintech.wallet.application.payment;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Payment;
+import com.fintech.wallet.domain.PaymentStatus;
+import com.fintech.wallet.infrastructure.persistence.PaymentRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PaymentSettlementTest {
+    
+    private static final int MAX_ATTEMPTS = 3;
+    
+    @Mock
+    private PaymentRepository paymentRepository;
+    
+    @Mock
+    private WalletRepository walletRepository;
+    
+    @Mock
+    private TransactionService transactionService;
+    
+    @Mock
+    private SettlementGateway gateway;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private PaymentSettlement settlement;
+    
+    @BeforeEach
+    void setUp() {
+        settlement = new PaymentSettlement(paymentRepository, walletRepository, transactionService, gateway,
+                transactionManager, new SimpleMeterRegistry(), Duration.ofSeconds(5), Duration.ofMillis(100), MAX_ATTEMPTS);
+    }
+    
+    @AfterEach
+    void tearDown() {
+        settlement.stop();
+    }
+    
+    @Test
+    void shouldGiveUpOnTheGatewayBeforeTheLeaseEnds() {
+        claim(payment(1));
+        when(gateway.settle(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(10_000);
+            return List.of(SettlementResult.ok());
+        });
+        
+        long start = System.nanoTime();
+        assertEquals(1, settlement.settleBatch(10));
+        
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(5)) < 0);
+        // left to be claimed again
+        verify(paymentRepository, never()).finish(any(), any(), any(), any());
+        verifyNoInteractions(walletRepository);
+    }
+    
+    @Test
+    void shouldKeepTheReservationOfPaymentsTheGatewayNeverConfirmed() {
+        Payment payment = payment(MAX_ATTEMPTS);
+        claim(payment);
+        when(gateway.settle(anyList())).thenThrow(new IllegalStateException("connection reset"));
+        when(paymentRepository.finish(eq(payment.getId()), eq(PaymentStatus.UNCONFIRMED), isNull(), any())).thenReturn(1);
+        
+        settlement.settleBatch(10);
+        
+        verify(paymentRepository).finish(eq(payment.getId()), eq(PaymentStatus.UNCONFIRMED), isNull(), any());
+        verifyNoInteractions(walletRepository, transactionService);
+    }
+    
+    @Test
+    void shouldRejectAGatewayTimeoutThatOutlastsTheLease() {
+        assertThrows(IllegalArgumentException.class, () -> new PaymentSettlement(paymentRepository, walletRepository,
+                transactionService, gateway, transactionManager, new SimpleMeterRegistry(),
+                Duration.ofSeconds(30), Duration.ofSeconds(30), MAX_ATTEMPTS));
+    }
+    
+    private void claim(Payment payment) {
+        when(paymentRepository.lockClaimable(any(), anyInt())).thenReturn(List.of(payment.getId()));
+        when(paymentRepository.findAllById(List.of(payment.getId()))).thenReturn(List.of(payment));
+    }
+    
+    private static Payment payment(int attempts) {
+        return Payment.builder()
+                .id(1L)
+                .walletId(1L)
+                .userId(1L)
+                .amount(new BigDecimal("30.00"))
+                .method("PIX")
+                .status(PaymentStatus.PENDING)
+                .attempts(attempts)
+                .build();
+    }
+}
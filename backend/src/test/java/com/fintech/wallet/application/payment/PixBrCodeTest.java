@@ -0,0 +1,38 @@
+package com.fintech.wallet.application.payment;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PixBrCodeTest {
+    
+    @Test
+    void shouldMatchTheExampleOfTheBacenManual() {
+        String payload = PixBrCode.build("123e4567-e12b-12d1-a456-426655440000", "Fulano de Tal", "BRASILIA", null, null, null);
+        
+        assertEquals("00020126580014br.gov.bcb.pix0136123e4567-e12b-12d1-a456-426655440000"
+                + "5204000053039865802BR5913Fulano de Tal6008BRASILIA62070503***63041D3D", payload);
+    }
+    
+    @Test
+    void shouldCarryAmountAndPlainAsciiFields() {
+        String payload = PixBrCode.build("ana@example.com", "Ana Conceição Gonçalves de Araújo", "São Paulo",
+                new BigDecimal("10.5"), "Café", "PEDIDO42");
+        
+        assertTrue(payload.contains("0204Cafe"));
+        assertTrue(payload.contains("540510.50"));
+        assertTrue(payload.contains("5925Ana Conceicao Goncalves d"));
+        assertTrue(payload.contains("6009SAO PAULO"));
+        assertTrue(payload.contains("62120508PEDIDO42"));
+        assertEquals(PixBrCode.crc16(payload.substring(0, payload.length() - 4)), payload.substring(payload.length() - 4));
+    }
+    
+    @Test
+    void shouldRejectInvalidInput() {
+        assertThrows(IllegalArgumentException.class, () -> PixBrCode.build(" ", "Ana", "SP", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> PixBrCode.build("ana@example.com", "Ana", "SP", BigDecimal.ZERO, null, null));
+        assertThrows(IllegalArgumentException.class, () -> PixBrCode.build("ana@example.com", "Ana", "SP", null, null, "pedido-42"));
+    }
+}
@@ -0,0 +1,168 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.application.dashboard.DailyTotalsMaintenance;
+import com.fintech.wallet.application.dashboard.DashboardService;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.DashboardDTO;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionPageDTO;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "wallet.archive.enabled=true")
+@ActiveProfiles("test")
+@Transactional
+class TransactionArchiverIntegrationTest {
+    
+    private static final LocalDateTime CUTOFF = LocalDateTime.of(2022, 1, 1, 0, 0);
+    
+    @Autowired
+    private TransactionArchiver archiver;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionExportService exportService;
+    
+    @Autowired
+    private DashboardService dashboardService;
+    
+    @Autowired
+    private DailyTotalsMaintenance maintenance;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    private Long userId;
+    private Long walletId;
+    private final List<Transaction> old = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        walletId = wallet.getId();
+        userId = wallet.getUserId();
+        entityManager.flush();
+        
+        for (int i = 0; i < 30; i++) {
+            old.add(Transaction.builder()
+                    .walletId(walletId)
+                    .type(i % 3 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                    .amount(new BigDecimal("10.00").add(BigDecimal.valueOf(i)))
+                    .description(i % 2 == 0 ? "antiga " + i : null)
+                    .createdAt(LocalDateTime.of(2021, 10, 1, 6, 0).plusDays(i * 3L))
+                    .build());
+        }
+        List<Transaction> recent = List.of(
+                transaction(TransactionType.INCOME, "500.00", LocalDateTime.now().minusDays(2)),
+                transaction(TransactionType.EXPENSE, "20.00", LocalDateTime.now().minusDays(1)));
+        transactionService.importChunk(walletId, old);
+        transactionService.importChunk(walletId, recent);
+        entityManager.flush();
+        entityManager.clear();
+    }
+    
+    @Test
+    void shouldMoveOldMonthsOutAndReadThroughTransparently() throws Exception {
+        List<Long> listedBefore = listAll(null);
+        List<Long> expensesBefore = listAll(TransactionType.EXPENSE);
+        String csvBefore = exportCsv();
+        BigDecimal balance = walletRepository.findById(walletId).orElseThrow().getBalance();
+        
+        assertEquals(old.size(), archiver.archiveWallet(walletId, CUTOFF));
+        entityManager.clear();
+        
+        assertNull(transactionRepository.findFirstCreatedAt(walletId, TransactionRepository.EARLIEST, CUTOFF));
+        assertEquals(listedBefore, listAll(null));
+        assertEquals(expensesBefore, listAll(TransactionType.EXPENSE));
+        assertEquals(csvBefore, exportCsv());
+        assertEquals(0, balance.compareTo(walletRepository.findById(walletId).orElseThrow().getBalance()));
+        assertEquals(0, archiver.archiveWallet(walletId, CUTOFF));
+    }
+    
+    @Test
+    void shouldKeepDashboardsAndRollupsWhole() {
+        archiver.archiveWallet(walletId, CUTOFF);
+        entityManager.clear();
+        
+        // starts and ends inside archived days, so both partial edge days come from the archive
+        LocalDateTime start = LocalDateTime.of(2021, 10, 4, 5, 0);
+        LocalDateTime end = LocalDateTime.of(2021, 12, 24, 7, 0);
+        DashboardDTO dashboard = dashboardService.getDashboardData(userId, walletId, start, end);
+        
+        assertEquals(0, sum(TransactionType.INCOME, start, end).compareTo(dashboard.getTotalIncome()));
+        assertEquals(0, sum(TransactionType.EXPENSE, start, end).compareTo(dashboard.getTotalExpense()));
+        assertTrue(maintenance.verify(walletId, LocalDate.of(2021, 1, 1), LocalDate.now().plusDays(1)).isEmpty());
+        
+        maintenance.rebuild(walletId);
+        
+        assertTrue(maintenance.verify(walletId, LocalDate.of(2021, 1, 1), LocalDate.now().plusDays(1)).isEmpty());
+        assertEquals(0, sum(TransactionType.INCOME, start, end).compareTo(
+                dashboardService.getDashboardData(userId, walletId, start, end.plusMinutes(1)).getTotalIncome()));
+    }
+    
+    private List<Long> listAll(TransactionType type) {
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            TransactionPageDTO page = transactionService.getTransactions(userId, walletId, type, null, null, null, cursor, 4);
+            page.getItems().stream().map(TransactionDTO::getId).forEach(ids::add);
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+        return ids;
+    }
+    
+    private String exportCsv() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(walletId, null, null, null, null, TransactionFileFormat.CSV, false, out);
+        return out.toString();
+    }
+    
+    private BigDecimal sum(TransactionType type, LocalDateTime start, LocalDateTime end) {
+        return old.stream()
+                .filter(transaction -> transaction.getType() == type)
+                .filter(transaction -> !transaction.getCreatedAt().isBefore(start) && !transaction.getCreatedAt().isAfter(end))
+                .map(Transaction::getAmount)
+                .reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+    
+    private Transaction transaction(TransactionType type, String amount, LocalDateTime createdAt) {
+        return Transaction.builder()
+                .walletId(walletId)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .createdAt(createdAt)
+                .build();
+    }
+}
@@ -0,0 +1,170 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionExportServiceTest {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 1, 0, 0);
+    
+    @Mock
+    private TransactionRepository transactionRepository;
+    
+    @Mock
+    private TransactionArchive transactionArchive;
+    
+    private TransactionExportService exportService;
+    
+    private final AtomicBoolean streamClosed = new AtomicBoolean();
+    
+    @BeforeEach
+    void setUp() {
+        // stub-only: a recording mock would keep every detach() call of the million-row run
+        EntityManager entityManager = mock(EntityManager.class, withSettings().stubOnly());
+        exportService = new TransactionExportService(
+                transactionRepository, transactionArchive, entityManager, new ObjectMapper()
+        );
+    }
+    
+    @Test
+    void shouldExportCsvInImportLayout() throws Exception {
+        Transaction quoted = row(2);
+        quoted.setDescription("Aluguel, \"janeiro\"");
+        quoted.setCategoryId(5L);
+        when(transactionRepository.streamFilteredTransactions(7L, TransactionType.INCOME, null, START, TransactionRepository.LATEST))
+                .thenReturn(Stream.of(row(1), quoted).onClose(() -> streamClosed.set(true)));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(7L, TransactionType.INCOME, null, START, null, TransactionFileFormat.CSV, false, out);
+        
+        assertEquals("""
+                id,type,amount,description,categoryId,createdAt
+                1,INCOME,1.00,Row 1,,2024-01-01T00:00:01
+                2,INCOME,1.00,"Aluguel, ""janeiro\"\"",5,2024-01-01T00:00:02
+                """, out.toString(StandardCharsets.UTF_8));
+        assertTrue(streamClosed.get());
+    }
+    
+    @Test
+    void shouldImportExportedCsvBackUnchanged() throws Exception {
+        Transaction multiLine = row(2);
+        multiLine.setDescription("Aluguel\n\"janeiro\", com multa\n");
+        when(transactionRepository.streamFilteredTransactions(7L, null, null, TransactionRepository.EARLIEST, TransactionRepository.LATEST))
+                .thenReturn(Stream.of(row(1), multiLine, row(3)));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(7L, null, null, null, null, TransactionFileFormat.CSV, false, out);
+        
+        List<String> descriptions = new ArrayList<>();
+        try (ImportRowReader reader = new ImportRowReader(
+                new ByteArrayInputStream(out.toByteArray()), TransactionFileFormat.CSV, new ObjectMapper())) {
+            for (ImportRow imported = reader.next(); imported != null; imported = reader.next()) {
+                descriptions.add(imported.getDescription());
+            }
+        }
+        assertEquals(List.of("Row 1", "Aluguel\n\"janeiro\", com multa\n", "Row 3"), descriptions);
+    }
+    
+    @Test
+    void shouldExportGzippedNdjson() throws Exception {
+        when(transactionRepository.streamFilteredTransactions(7L, null, null, TransactionRepository.EARLIEST, TransactionRepository.LATEST))
+                .thenReturn(Stream.of(row(1), row(2)));
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exportService.export(7L, null, null, null, null, TransactionFileFormat.NDJSON, true, out);
+        
+        String body = new String(
+                new GZIPInputStream(new ByteArrayInputStream(out.toByteArray())).readAllBytes(),
+                StandardCharsets.UTF_8);
+        assertEquals("""
+                {"id":1,"type":"INCOME","amount":1.00,"description":"Row 1","categoryId":null,"createdAt":"2024-01-01T00:00:01"}
+                {"id":2,"type":"INCOME","amount":1.00,"description":"Row 2","categoryId":null,"createdAt":"2024-01-01T00:00:02"}
+                """, body);
+    }
+    
+    /**
+     * Runs in the small-heap surefire execution (-Xmx64m): a million entities do not fit, so
+     * this only passes if rows are written as they are read.
+     */
+    @Test
+    @Tag("small-heap")
+    void shouldExportMillionRowsInConstantMemory() throws Exception {
+        int rows = 1_000_000;
+        when(transactionRepository.streamFilteredTransactions(7L, null, null, TransactionRepository.EARLIEST, TransactionRepository.LATEST))
+                .thenReturn(Stream.iterate(1L, i -> i + 1).limit(rows).map(this::row)
+                        .onClose(() -> streamClosed.set(true)));
+        
+        LineCountingOutputStream out = new LineCountingOutputStream();
+        exportService.export(7L, null, null, null, null, TransactionFileFormat.CSV, true, out);
+        
+        assertTrue(streamClosed.get());
+        assertTrue(out.bytes > 0);
+        
+        LineCountingOutputStream plain = new LineCountingOutputStream();
+        when(transactionRepository.streamFilteredTransactions(7L, null, null, TransactionRepository.EARLIEST, TransactionRepository.LATEST))
+                .thenReturn(Stream.iterate(1L, i -> i + 1).limit(rows).map(this::row));
+        exportService.export(7L, null, null, null, null, TransactionFileFormat.NDJSON, false, plain);
+        
+        assertEquals(rows, plain.lines);
+    }
+    
+    private Transaction row(long id) {
+        return Transaction.builder()
+                .id(id)
+                .walletId(7L)
+                .type(TransactionType.INCOME)
+                .amount(new BigDecimal("1.00"))
+                .description("Row " + id)
+                .createdAt(START.plusSeconds(id))
+                .build();
+    }
+    
+    private static class LineCountingOutputStream extends OutputStream {
+        private long bytes;
+        private long lines;
+        
+        @Override
+        public void write(int b) {
+            bytes++;
+            if (b == '\n') {
+                lines++;
+            }
+        }
+        
+        @Override
+        public void write(byte[] buffer, int offset, int length) {
+            bytes += length;
+            for (int i = offset; i < offset + length; i++) {
+                if (buffer[i] == '\n') {
+                    lines++;
+                }
+            }
+        }
+    }
+}
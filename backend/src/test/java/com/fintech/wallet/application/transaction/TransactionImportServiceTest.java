@@ -0,0 +1,219 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.application.category.CategoryCatalog;
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.interfaces.dto.ImportResultDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransactionImportServiceTest {
+    
+    @Mock
+    private TransactionService transactionService;
+    
+    @Mock
+    private CategoryCatalog categoryCatalog;
+    
+    private TransactionImportService importService;
+    
+    private final List<List<Transaction>> chunks = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        importService = new TransactionImportService(
+                transactionService, categoryCatalog, new ObjectMapper(), 2, "2000-01-01"
+        );
+    }
+    
+    @Test
+    void shouldImportCsvInChunksAndReportInvalidRows() {
+        when(categoryCatalog.find(1L, 5L)).thenReturn(Optional.of(category(5L, TransactionType.INCOME)));
+        captureChunks();
+        String csv = """
+                type,amount,description,categoryId,createdAt
+                INCOME,100.00,Salário,5,2020-01-05T10:00:00
+                EXPENSE,abc,Mercado,,
+                expense,30.50,"Aluguel, janeiro",,2020-01-10
+                EXPENSE,0,Zero,,
+                INCOME,10,Extra,,
+                """;
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(csv), TransactionFileFormat.CSV);
+        
+        assertEquals(5, result.getTotalRows());
+        assertEquals(3, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of(3L, 5L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        
+        assertEquals(2, chunks.size());
+        Transaction rent = chunks.get(0).get(1);
+        assertEquals(TransactionType.EXPENSE, rent.getType());
+        assertEquals("Aluguel, janeiro", rent.getDescription());
+        assertEquals(LocalDateTime.of(2020, 1, 10, 0, 0), rent.getCreatedAt());
+        assertEquals(7L, rent.getWalletId());
+    }
+    
+    @Test
+    void shouldOnlyAcceptCategoriesTheUserSeesOfTheRowsType() {
+        captureChunks();
+        when(categoryCatalog.find(1L, 5L)).thenReturn(Optional.of(category(5L, TransactionType.INCOME)));
+        // another user's category, which the catalog does not show to this one
+        when(categoryCatalog.find(1L, 9L)).thenReturn(Optional.empty());
+        String csv = """
+                type,amount,categoryId
+                INCOME,10,5
+                EXPENSE,20,5
+                INCOME,30,9
+                """;
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(csv), TransactionFileFormat.CSV);
+        
+        assertEquals(1, result.getImportedRows());
+        assertEquals("Categoria 5 não é do tipo EXPENSE", result.getErrors().get(0).getMessage());
+        assertEquals("Categoria não encontrada: 9", result.getErrors().get(1).getMessage());
+    }
+    
+    @Test
+    void shouldReportEveryRowOfRejectedChunk() {
+        doThrow(new IllegalArgumentException("Saldo insuficiente"))
+                .when(transactionService).importChunk(eq(7L), anyList());
+        String ndjson = """
+                {"type":"EXPENSE","amount":10}
+                {"type":"EXPENSE","amount":20}
+                not json
+                """;
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(ndjson), TransactionFileFormat.NDJSON);
+        
+        assertEquals(3, result.getTotalRows());
+        assertEquals(0, result.getImportedRows());
+        assertEquals(3, result.getFailedRows());
+        assertEquals("Saldo insuficiente", result.getErrors().get(0).getMessage());
+        assertTrue(result.getErrors().get(2).getMessage().startsWith("JSON inválido"));
+    }
+    
+    @Test
+    void shouldIsolateTheRowsThatMakeAChunkFail() {
+        importService = new TransactionImportService(transactionService, categoryCatalog, new ObjectMapper(), 8, "2000-01-01");
+        doAnswer(invocation -> {
+            List<Transaction> chunk = invocation.getArgument(1);
+            if (chunk.stream().anyMatch(t -> t.getAmount().intValue() == 500)) {
+                throw new IllegalArgumentException("Saldo insuficiente");
+            }
+            chunks.add(new ArrayList<>(chunk));
+            return null;
+        }).when(transactionService).importChunk(eq(7L), anyList());
+        StringBuilder ndjson = new StringBuilder();
+        for (int amount : new int[]{1, 2, 3, 500, 5, 6, 7}) {
+            ndjson.append("{\"type\":\"EXPENSE\",\"amount\":").append(amount).append("}\n");
+        }
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(ndjson.toString()), TransactionFileFormat.NDJSON);
+        
+        assertEquals(6, result.getImportedRows());
+        assertEquals(1, result.getFailedRows());
+        assertEquals(4L, result.getErrors().get(0).getLine());
+        assertEquals(List.of(1, 2, 3, 5, 6, 7),
+                chunks.stream().flatMap(List::stream).map(t -> t.getAmount().intValue()).toList());
+    }
+    
+    @Test
+    void shouldReportDataAccessFailuresAndKeepGoing() {
+        doThrow(new QueryTimeoutException("timeout")).doAnswer(invocation -> null)
+                .when(transactionService).importChunk(eq(7L), anyList());
+        String ndjson = """
+                {"type":"INCOME","amount":10}
+                {"type":"INCOME","amount":20}
+                {"type":"INCOME","amount":30}
+                """;
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(ndjson), TransactionFileFormat.NDJSON);
+        
+        assertEquals(1, result.getImportedRows());
+        assertEquals(2, result.getFailedRows());
+        assertEquals(List.of(1L, 2L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        verify(transactionService, times(2)).importChunk(eq(7L), anyList());
+    }
+    
+    @Test
+    void shouldRejectDatesOutsideTheImportableRange() {
+        captureChunks();
+        String csv = "type,amount,createdAt\n"
+                + "INCOME,1,1999-12-31\n"
+                + "INCOME,2," + LocalDate.now().plusDays(1) + "\n"
+                + "INCOME,3," + LocalDate.now() + "\n";
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(csv), TransactionFileFormat.CSV);
+        
+        assertEquals(1, result.getImportedRows());
+        assertTrue(result.getErrors().get(0).getMessage().startsWith("Data anterior a 2000-01-01"));
+        assertTrue(result.getErrors().get(1).getMessage().startsWith("Data no futuro"));
+    }
+    
+    @Test
+    void shouldReadQuotedFieldsSpanningLines() {
+        captureChunks();
+        String csv = """
+                type,amount,description,categoryId,createdAt
+                INCOME,100.00,"Salário
+                de janeiro, ""adiantado\"\"",,2020-01-05T10:00:00
+                EXPENSE,abc,Mercado,,
+                INCOME,10,"Aberto,,
+                """;
+        
+        ImportResultDTO result = importService.importTransactions(1L, 7L, stream(csv), TransactionFileFormat.CSV);
+        
+        assertEquals(3, result.getTotalRows());
+        assertEquals(1, result.getImportedRows());
+        assertEquals(List.of(4L, 5L), result.getErrors().stream().map(e -> e.getLine()).toList());
+        assertEquals("Salário\nde janeiro, \"adiantado\"", chunks.get(0).get(0).getDescription());
+    }
+    
+    @Test
+    void shouldFailTheWholeFileOnAMissingCsvHeader() {
+        String csv = """
+                description,amount
+                Mercado,10
+                """;
+        
+        assertThrows(ImportFileException.class,
+                () -> importService.importTransactions(1L, 7L, stream(csv), TransactionFileFormat.CSV));
+        verifyNoInteractions(transactionService);
+    }
+    
+    private void captureChunks() {
+        doAnswer(invocation -> {
+            chunks.add(new ArrayList<>(invocation.<List<Transaction>>getArgument(1)));
+            return null;
+        }).when(transactionService).importChunk(eq(7L), anyList());
+    }
+    
+    private ByteArrayInputStream stream(String body) {
+        return new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    private static Category category(Long id, TransactionType type) {
+        return Category.builder().id(id).name("Categoria " + id).type(type).build();
+    }
+}
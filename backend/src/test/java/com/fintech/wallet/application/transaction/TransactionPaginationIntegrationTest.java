@@ -0,0 +1,122 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionPageDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionPaginationIntegrationTest {
+    
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 3, 1, 12, 0);
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    private Long userId;
+    private Long walletId;
+    private final List<Transaction> saved = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        userId = wallet.getUserId();
+        walletId = wallet.getId();
+        
+        // several rows share a timestamp so page boundaries fall inside a tie
+        for (int i = 0; i < 11; i++) {
+            saved.add(transactionRepository.save(Transaction.builder()
+                    .walletId(wallet.getId())
+                    .type(i % 3 == 0 ? TransactionType.EXPENSE : TransactionType.INCOME)
+                    .amount(BigDecimal.ONE)
+                    .description("Row " + i)
+                    .createdAt(BASE.plusMinutes(i / 4))
+                    .build()));
+        }
+        transactionRepository.flush();
+    }
+    
+    @Test
+    void shouldWalkAllPagesWithoutGapsOrDuplicates() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            TransactionPageDTO page = transactionService.getTransactions(userId, walletId, null, null, null, null, cursor, 3);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(item -> seen.add(item.getId()));
+            cursor = page.getNextCursor();
+            assertEquals(page.isHasMore(), cursor != null);
+            pages++;
+        } while (cursor != null);
+        
+        List<Long> expected = saved.stream()
+                .sorted((a, b) -> a.getCreatedAt().equals(b.getCreatedAt())
+                        ? b.getId().compareTo(a.getId())
+                        : b.getCreatedAt().compareTo(a.getCreatedAt()))
+                .map(Transaction::getId)
+                .toList();
+        assertEquals(expected, seen);
+        assertEquals(4, pages);
+    }
+    
+    @Test
+    void shouldKeepFiltersAcrossPages() {
+        TransactionPageDTO first = transactionService.getTransactions(
+                userId, walletId, TransactionType.EXPENSE, null, BASE.plusMinutes(1), null, null, 1);
+        TransactionPageDTO second = transactionService.getTransactions(
+                userId, walletId, TransactionType.EXPENSE, null, BASE.plusMinutes(1), null, first.getNextCursor(), 1);
+        
+        List<TransactionDTO> items = new ArrayList<>(first.getItems());
+        items.addAll(second.getItems());
+        assertEquals(List.of("Row 9", "Row 6"), items.stream().map(TransactionDTO::getDescription).toList());
+        assertFalse(second.isHasMore());
+    }
+    
+    @Test
+    void shouldClampRequestedLimit() {
+        TransactionPageDTO huge = transactionService.getTransactions(userId, walletId, null, null, null, null, null, 10_000);
+        TransactionPageDTO empty = transactionService.getTransactions(userId, walletId, null, null, null, null, null, 0);
+        
+        assertEquals(11, huge.getItems().size());
+        assertFalse(huge.isHasMore());
+        assertEquals(1, empty.getItems().size());
+        assertTrue(empty.isHasMore());
+    }
+    
+    @Test
+    void shouldRejectMalformedCursor() {
+        assertThrows(ResponseStatusException.class, () ->
+                transactionService.getTransactions(userId, walletId, null, null, null, null, "not-a-cursor", 3));
+    }
+}
@@ -0,0 +1,117 @@
+package com.fintech.wallet.application.transaction;
+
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TransactionServiceConcurrencyTest {
+    
+    private static final int THREADS = 32;
+    private static final int CALLS = 2000;
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Test
+    void shouldNotLoseUpdatesUnderConcurrentPostings() throws Exception {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("100.00"));
+        
+        List<Boolean> outcomes = fire(wallet.getUserId(), wallet.getId(), i -> i % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE);
+        
+        long incomes = CALLS / 2;
+        long acceptedExpenses = 0;
+        for (int i = 0; i < CALLS; i++) {
+            if (i % 2 == 0) {
+                assertTrue(outcomes.get(i), "income postings never fail");
+            } else if (outcomes.get(i)) {
+                acceptedExpenses++;
+            }
+        }
+        
+        BigDecimal expected = new BigDecimal("100.00")
+                .add(BigDecimal.valueOf(incomes))
+                .subtract(BigDecimal.valueOf(acceptedExpenses));
+        Wallet reloaded = walletRepository.findById(wallet.getId()).orElseThrow();
+        
+        assertEquals(0, expected.compareTo(reloaded.getBalance()));
+        assertEquals(incomes + acceptedExpenses, transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId()).size());
+        assertEquals(incomes + acceptedExpenses, reloaded.getVersion());
+    }
+    
+    @Test
+    void shouldNeverOverdrawUnderConcurrentExpenses() throws Exception {
+        Wallet wallet = createWallet(userRepository, walletRepository, new BigDecimal("500.00"));
+        
+        List<Boolean> outcomes = fire(wallet.getUserId(), wallet.getId(), i -> TransactionType.EXPENSE);
+        
+        long accepted = outcomes.stream().filter(Boolean::booleanValue).count();
+        Wallet reloaded = walletRepository.findById(wallet.getId()).orElseThrow();
+        
+        assertEquals(500, accepted);
+        assertEquals(0, BigDecimal.ZERO.compareTo(reloaded.getBalance()));
+        assertEquals(500, transactionRepository.findByWalletIdOrderByCreatedAtDesc(wallet.getId()).size());
+    }
+    
+    private List<Boolean> fire(Long userId, Long walletId, IntFunction<TransactionType> typeForCall) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> futures = new ArrayList<>();
+        
+        for (int i = 0; i < CALLS; i++) {
+            TransactionType type = typeForCall.apply(i);
+            futures.add(executor.submit(() -> {
+                start.await();
+                CreateTransactionDTO dto = new CreateTransactionDTO();
+                dto.setType(type);
+                dto.setAmount(BigDecimal.ONE);
+                dto.setDescription("Stress " + type);
+                try {
+                    transactionService.createTransaction(userId, walletId, dto);
+                    return true;
+                } catch (IllegalArgumentException e) {
+                    assertTrue(e.getMessage().contains("Saldo insuficiente"));
+                    return false;
+                }
+            }));
+        }
+        
+        start.countDown();
+        List<Boolean> outcomes = new ArrayList<>();
+        for (Future<Boolean> future : futures) {
+            outcomes.add(future.get(60, TimeUnit.SECONDS));
+        }
+        executor.shutdown();
+        return outcomes;
+    }
+}
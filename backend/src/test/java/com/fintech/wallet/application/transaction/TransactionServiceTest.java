@@ -1,9 +1,11 @@
 package com.fintech.wallet.application.transaction;
 
+import com.fintech.wallet.application.dashboard.DailyTotals;
 import com.fintech.wallet.application.wallet.WalletService;
 import com.fintech.wallet.domain.Transaction;
 import com.fintech.wallet.domain.TransactionType;
 import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.archive.TransactionArchive;
 import com.fintech.wallet.infrastructure.mappers.TransactionMapper;
 import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
 import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
@@ -12,15 +14,19 @@ import com.fintech.wallet.interfaces.dto.TransactionDTO;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -38,7 +44,12 @@ class TransactionServiceTest {
     @Mock
     private TransactionMapper transactionMapper;
     
-    @InjectMocks
+    @Mock
+    private DailyTotals dailyTotals;
+    
+    @Mock
+    private TransactionArchive transactionArchive;
+    
     private TransactionService transactionService;
     
     private Wallet wallet;
@@ -46,6 +57,11 @@ class TransactionServiceTest {
     
     @BeforeEach
     void setUp() {
+        transactionService = new TransactionService(
+                transactionRepository, walletService, categoryRepository, transactionMapper, dailyTotals,
+                transactionArchive, 50, 200
+        );
+        
         wallet = Wallet.builder()
                 .id(1L)
                 .userId(1L)
@@ -76,28 +92,53 @@ class TransactionServiceTest {
                 .description("Test transaction")
                 .build();
         
-        when(walletService.getWalletByUserId(1L)).thenReturn(wallet);
         when(walletService.updateBalance(any(), any(), any())).thenReturn(wallet);
         when(transactionRepository.save(any(Transaction.class))).thenReturn(transaction);
-        when(transactionMapper.toDTO(any(Transaction.class))).thenReturn(transactionDTO);
+        when(transactionMapper.toDTO(any(Transaction.class), eq(1L))).thenReturn(transactionDTO);
         
-        TransactionDTO result = transactionService.createTransaction(1L, createDTO);
+        TransactionDTO result = transactionService.createTransaction(1L, 1L, createDTO);
         
         assertNotNull(result);
         assertEquals(1L, result.getId());
         verify(transactionRepository).save(any(Transaction.class));
         verify(walletService).updateBalance(any(), any(), any());
+        verify(dailyTotals).record(List.of(transaction));
     }
     
     @Test
     void shouldValidateTransactionAmount() {
         createDTO.setAmount(BigDecimal.ZERO);
         
-        when(walletService.getWalletByUserId(1L)).thenReturn(wallet);
-        
         assertThrows(IllegalArgumentException.class, () -> {
-            transactionService.createTransaction(1L, createDTO);
+            transactionService.createTransaction(1L, 1L, createDTO);
         });
     }
+    
+    @Test
+    void shouldOnlyReadTheArchiveFromTheLastRowOfAFullPage() {
+        LocalDateTime now = LocalDateTime.of(2026, 3, 10, 12, 0);
+        List<Transaction> rows = List.of(
+                Transaction.builder().id(3L).walletId(1L).createdAt(now).build(),
+                Transaction.builder().id(2L).walletId(1L).createdAt(now.minusDays(1)).build(),
+                Transaction.builder().id(1L).walletId(1L).createdAt(now.minusDays(2)).build()
+        );
+        when(transactionRepository.findFilteredTransactions(eq(1L), isNull(), isNull(), any(), any(), any()))
+                .thenReturn(rows);
+        when(transactionArchive.streamNewestFirst(any(), any(), any())).thenReturn(Stream.empty());
+        
+        transactionService.getTransactions(1L, 1L, null, null, null, null, null, 2);
+        
+        verify(transactionArchive).streamNewestFirst(1L, now.minusDays(2), TransactionRepository.LATEST);
+    }
+    
+    @Test
+    void shouldReadTheWholeArchiveRangeForAShortPage() {
+        when(transactionRepository.findFilteredTransactions(eq(1L), isNull(), isNull(), any(), any(), any()))
+                .thenReturn(List.of(Transaction.builder().id(1L).walletId(1L).createdAt(LocalDateTime.now()).build()));
+        when(transactionArchive.streamNewestFirst(any(), any(), any())).thenReturn(Stream.empty());
+        
+        transactionService.getTransactions(1L, 1L, null, null, null, null, null, 2);
+        
+        verify(transactionArchive).streamNewestFirst(1L, TransactionRepository.EARLIEST, TransactionRepository.LATEST);
+    }
 }
-
@@ -1,12 +1,12 @@
 package com.fintech.wallet.application.wallet;
 
+import com.fintech.wallet.application.dashboard.DashboardCache;
 import com.fintech.wallet.domain.TransactionType;
 import com.fintech.wallet.domain.Wallet;
 import com.fintech.wallet.infrastructure.persistence.WalletRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -15,6 +15,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,13 +24,16 @@ class WalletServiceTest {
     @Mock
     private WalletRepository walletRepository;
     
-    @InjectMocks
+    @Mock
+    private DashboardCache dashboardCache;
+    
     private WalletService walletService;
     
     private Wallet wallet;
     
     @BeforeEach
     void setUp() {
+        walletService = new WalletService(walletRepository, dashboardCache, 100);
         wallet = Wallet.builder()
                 .id(1L)
                 .userId(1L)
@@ -39,28 +43,33 @@ class WalletServiceTest {
     
     @Test
     void shouldUpdateBalanceWithIncome() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Wallet credited = Wallet.builder().id(1L).userId(1L).balance(new BigDecimal("150.00")).version(1L).build();
+        when(walletRepository.credit(eq(1L), eq(new BigDecimal("50.00")), any())).thenReturn(1);
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(credited));
         
         Wallet updated = walletService.updateBalance(1L, new BigDecimal("50.00"), TransactionType.INCOME);
         
         assertEquals(new BigDecimal("150.00"), updated.getBalance());
-        verify(walletRepository).save(any(Wallet.class));
+        assertEquals(1L, updated.getVersion());
+        verify(dashboardCache).invalidate(1L);
+        verify(walletRepository, never()).save(any(Wallet.class));
     }
     
     @Test
     void shouldUpdateBalanceWithExpense() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Wallet debited = Wallet.builder().id(1L).userId(1L).balance(new BigDecimal("70.00")).version(1L).build();
+        when(walletRepository.debit(eq(1L), eq(new BigDecimal("30.00")), any())).thenReturn(1);
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(debited));
         
         Wallet updated = walletService.updateBalance(1L, new BigDecimal("30.00"), TransactionType.EXPENSE);
         
         assertEquals(new BigDecimal("70.00"), updated.getBalance());
-        verify(walletRepository).save(any(Wallet.class));
+        verify(walletRepository, never()).save(any(Wallet.class));
     }
     
     @Test
     void shouldThrowExceptionWhenBalanceWouldBeNegative() {
+        when(walletRepository.debit(eq(1L), eq(new BigDecimal("150.00")), any())).thenReturn(0);
         when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
         
         IllegalArgumentException exception = assertThrows(
@@ -72,14 +81,38 @@ class WalletServiceTest {
         verify(walletRepository, never()).save(any(Wallet.class));
     }
     
+    @Test
+    void shouldThrowExceptionWhenWalletDoesNotExist() {
+        when(walletRepository.credit(eq(2L), any(), any())).thenReturn(0);
+        
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> walletService.updateBalance(2L, new BigDecimal("10.00"), TransactionType.INCOME)
+        );
+        
+        assertTrue(exception.getMessage().contains("Carteira não encontrada"));
+    }
+    
     @Test
     void shouldAllowExactBalanceExpense() {
-        when(walletRepository.findById(1L)).thenReturn(Optional.of(wallet));
-        when(walletRepository.save(any(Wallet.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        Wallet debited = Wallet.builder().id(1L).userId(1L).balance(new BigDecimal("0.00")).version(1L).build();
+        when(walletRepository.debit(eq(1L), eq(new BigDecimal("100.00")), any())).thenReturn(1);
+        when(walletRepository.findById(1L)).thenReturn(Optional.of(debited));
         
         Wallet updated = walletService.updateBalance(1L, new BigDecimal("100.00"), TransactionType.EXPENSE);
         
-        assertEquals(BigDecimal.ZERO, updated.getBalance());
+        assertEquals(0, BigDecimal.ZERO.compareTo(updated.getBalance()));
+    }
+    
+    @Test
+    void shouldCacheWalletIdOfUser() {
+        when(walletRepository.findByUserId(1L)).thenReturn(Optional.of(wallet));
+        when(walletRepository.findByUserId(2L)).thenReturn(Optional.empty());
+        
+        assertEquals(Optional.of(1L), walletService.findWalletIdByUserId(1L));
+        assertEquals(Optional.of(1L), walletService.findWalletIdByUserId(1L));
+        assertEquals(Optional.empty(), walletService.findWalletIdByUserId(2L));
+        
+        verify(walletRepository, times(1)).findByUserId(1L);
     }
 }
-
@@ -0,0 +1,183 @@
+package com.fintech.wallet.benchmark;
+
+import com.fintech.wallet.WalletApplication;
+import com.fintech.wallet.WalletFixtures;
+import com.fintech.wallet.application.dashboard.DailyTotalsMaintenance;
+import com.fintech.wallet.application.dashboard.DashboardService;
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Dashboard latency for a wallet with 100k transactions: the original implementation (two
+ * SUM queries, two per-category GROUP BY queries and a category lookup per group), the single
+ * grouped query over the raw rows, and the service as it is now, which reads whole days from
+ * wallet_daily_totals and only the partial edge days from the raw rows.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=DashboardBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DashboardBenchmark {
+    
+    private static final int CATEGORIES = 12;
+    
+    @Param({"legacy", "grouped", "rollups"})
+    public String mode;
+    
+    @Param({"100000"})
+    public int transactions;
+    
+    @Param({"30", "365"})
+    public int days;
+    
+    private ConfigurableApplicationContext context;
+    private DashboardService dashboardService;
+    private TransactionRepository transactionRepository;
+    private EntityManagerFactory entityManagerFactory;
+    private Long userId;
+    private Long walletId;
+    private LocalDateTime startDate;
+    private LocalDateTime endDate;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WalletApplication.class)
+                .profiles("test")
+                // H2 otherwise answers a repeated query from its result cache without scanning
+                .run("--spring.datasource.url=jdbc:h2:mem:dashboard-bench;OPTIMIZE_REUSE_RESULTS=FALSE",
+                        "--spring.jpa.show-sql=false",
+                        "--spring.jpa.properties.hibernate.generate_statistics=false",
+                        "--server.port=0");
+        dashboardService = context.getBean(DashboardService.class);
+        entityManagerFactory = context.getBean(EntityManagerFactory.class);
+        
+        Wallet wallet = WalletFixtures.createWallet(
+                context.getBean(UserRepository.class), context.getBean(WalletRepository.class));
+        userId = wallet.getUserId();
+        walletId = wallet.getId();
+        
+        CategoryRepository categoryRepository = context.getBean(CategoryRepository.class);
+        List<Long> categoryIds = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES; i++) {
+            categoryIds.add(categoryRepository.save(Category.builder()
+                    .name("Categoria " + i)
+                    .type(i % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .userId(userId)
+                    .build()).getId());
+        }
+        
+        seed(context.getBean(JdbcTemplate.class), categoryIds);
+        // rows inserted behind the service's back, so derive their daily totals like the backfill does
+        context.getBean(DailyTotalsMaintenance.class).rebuild(walletId);
+        transactionRepository = context.getBean(TransactionRepository.class);
+        endDate = LocalDateTime.now();
+        startDate = endDate.minusDays(days);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public Object dashboard() {
+        if (mode.equals("rollups")) {
+            return dashboardService.getDashboardData(userId, walletId, startDate, endDate);
+        }
+        if (mode.equals("grouped")) {
+            return transactionRepository.sumAmountByTypeAndCategory(walletId, startDate, endDate);
+        }
+        return legacyDashboard();
+    }
+    
+    /**
+     * The round trips the dashboard made before it was collapsed into one grouped query.
+     */
+    private Object legacyDashboard() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createQuery("SELECT w FROM Wallet w WHERE w.userId = :userId")
+                    .setParameter("userId", userId).getSingleResult();
+            List<Object> result = new ArrayList<>();
+            for (TransactionType type : TransactionType.values()) {
+                result.add(entityManager.createQuery("SELECT SUM(t.amount) FROM Transaction t " +
+                                "WHERE t.walletId = :walletId AND t.type = :type " +
+                                "AND t.createdAt >= :startDate AND t.createdAt <= :endDate")
+                        .setParameter("walletId", walletId).setParameter("type", type)
+                        .setParameter("startDate", startDate).setParameter("endDate", endDate)
+                        .getSingleResult());
+            }
+            for (TransactionType type : TransactionType.values()) {
+                List<?> groups = entityManager.createQuery("SELECT t.categoryId, SUM(t.amount) FROM Transaction t " +
+                                "WHERE t.walletId = :walletId AND t.type = :type " +
+                                "AND t.createdAt >= :startDate AND t.createdAt <= :endDate " +
+                                "GROUP BY t.categoryId")
+                        .setParameter("walletId", walletId).setParameter("type", type)
+                        .setParameter("startDate", startDate).setParameter("endDate", endDate)
+                        .getResultList();
+                for (Object group : groups) {
+                    Object categoryId = ((Object[]) group)[0];
+                    // a fresh query per group, as CategoryRepository.findById did across requests
+                    result.add(entityManager.createQuery("SELECT c FROM Category c WHERE c.id = :id")
+                            .setParameter("id", categoryId).getResultList());
+                }
+            }
+            return result;
+        } finally {
+            entityManager.close();
+        }
+    }
+    
+    private void seed(JdbcTemplate jdbcTemplate, List<Long> categoryIds) {
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_transactions_wallet_created_id " +
+                "ON transactions(wallet_id, created_at DESC, id DESC)");
+        // H2 schema comes from Hibernate, so add the equivalent of the V7 bucket index by hand
+        jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_wallet_daily_totals_bucket " +
+                "ON wallet_daily_totals(wallet_id, posting_date, type, category_id)");
+        
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> batch = new ArrayList<>();
+        for (int i = 0; i < transactions; i++) {
+            Long categoryId = categoryIds.get(i % CATEGORIES);
+            TransactionType type = (i % CATEGORIES) % 3 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE;
+            // spread over a year, so the 30-day window selects about a twelfth of the rows
+            batch.add(new Object[]{
+                    1_000_000L + i, walletId, type.name(), BigDecimal.valueOf(1 + i % 500),
+                    "Benchmark " + i, categoryId, Timestamp.valueOf(now.minusMinutes(i * 5L))
+            });
+            if (batch.size() == 5_000) {
+                insert(jdbcTemplate, batch);
+            }
+        }
+        insert(jdbcTemplate, batch);
+    }
+    
+    private void insert(JdbcTemplate jdbcTemplate, List<Object[]> batch) {
+        jdbcTemplate.batchUpdate("INSERT INTO transactions " +
+                "(id, wallet_id, type, amount, description, category_id, created_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)", batch);
+        batch.clear();
+    }
+}
@@ -0,0 +1,163 @@
+package com.fintech.wallet.benchmark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Closed-loop HTTP load test against a running instance, to compare the default platform-thread
+ * mode with the virtual-threads profile. Registers a few users and seeds their wallets, then
+ * has {@code clients} threads call each endpoint back to back for {@code seconds} after a
+ * warm-up, and prints throughput and latency percentiles. Run it once per mode against the same
+ * database, on a machine other than the server's when the numbers matter. Seeding posts faster
+ * than the write rate limit allows, so start the server with RATE_LIMIT_ENABLED=false:
+ *
+ *   mvn -q test-compile
+ *   java -cp target/test-classes com.fintech.wallet.benchmark.HttpLoadTest http://localhost:8080 200 30
+ */
+public class HttpLoadTest {
+    
+    private static final Pattern TOKEN = Pattern.compile("\"token\"\\s*:\\s*\"([^\"]+)\"");
+    private static final int USERS = 20;
+    private static final int TRANSACTIONS_PER_USER = 100;
+    
+    public static void main(String[] args) throws Exception {
+        String baseUrl = args.length > 0 ? args[0] : "http://localhost:8080";
+        int clients = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+        Duration duration = Duration.ofSeconds(args.length > 2 ? Long.parseLong(args[2]) : 30);
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < USERS; i++) {
+            tokens.add(seedUser(http, baseUrl));
+        }
+        
+        for (String path : List.of("/api/wallet/balance", "/api/transactions")) {
+            URI uri = URI.create(baseUrl + path);
+            run(http, tokens, uri, clients, duration.dividedBy(3));
+            Result result = run(http, tokens, uri, clients, duration);
+            System.out.printf("%-22s %5d clients %9.0f req/s  p50 %7.2f ms  p99 %7.2f ms  max %8.2f ms  errors %d%n",
+                    path, clients, result.throughput(), result.percentile(0.50), result.percentile(0.99),
+                    result.percentile(1.0), result.errors());
+        }
+    }
+    
+    private static String seedUser(HttpClient http, String baseUrl) throws Exception {
+        String body = "{\"name\":\"Load Test\",\"email\":\"load-" + UUID.randomUUID() + "@example.com\","
+                + "\"password\":\"password123\",\"country\":\"BR\",\"postalCode\":\"01001000\","
+                + "\"street\":\"Rua A\",\"city\":\"São Paulo\",\"state\":\"SP\",\"phone\":\"11999999999\","
+                + "\"document\":\"52998224725\",\"birthDate\":\"1990-01-01\"}";
+        HttpResponse<String> registered = http.send(post(baseUrl + "/api/auth/register", null, body),
+                HttpResponse.BodyHandlers.ofString());
+        Matcher matcher = TOKEN.matcher(registered.body());
+        if (registered.statusCode() != 201 || !matcher.find()) {
+            throw new IllegalStateException("Could not register: " + registered.statusCode() + " " + registered.body());
+        }
+        String token = matcher.group(1);
+        for (int i = 0; i < TRANSACTIONS_PER_USER; i++) {
+            String transaction = i % 4 == 0
+                    ? "{\"type\":\"INCOME\",\"amount\":100.00,\"description\":\"carga " + i + "\"}"
+                    : "{\"type\":\"EXPENSE\",\"amount\":1.00,\"description\":\"carga " + i + "\"}";
+            http.send(post(baseUrl + "/api/transactions", token, transaction), HttpResponse.BodyHandlers.discarding());
+        }
+        return token;
+    }
+    
+    private static HttpRequest post(String uri, String token, String body) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(uri))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request.build();
+    }
+    
+    private static Result run(HttpClient http, List<String> tokens, URI uri, int clients, Duration duration) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        long start = System.nanoTime();
+        long deadline = start + duration.toNanos();
+        try {
+            List<Future<Worker>> futures = new ArrayList<>();
+            for (int i = 0; i < clients; i++) {
+                HttpRequest request = HttpRequest.newBuilder(uri)
+                        .header("Authorization", "Bearer " + tokens.get(i % tokens.size()))
+                        .timeout(Duration.ofSeconds(30))
+                        .GET()
+                        .build();
+                futures.add(pool.submit(() -> new Worker().run(http, request, deadline)));
+            }
+            
+            long[] latencies = new long[0];
+            long errors = 0;
+            for (Future<Worker> future : futures) {
+                Worker worker = future.get();
+                int offset = latencies.length;
+                latencies = Arrays.copyOf(latencies, offset + worker.count);
+                System.arraycopy(worker.latencies, 0, latencies, offset, worker.count);
+                errors += worker.errors;
+            }
+            Arrays.sort(latencies);
+            return new Result(latencies, errors, System.nanoTime() - start);
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+    
+    private static final class Worker {
+        
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+        
+        Worker run(HttpClient http, HttpRequest request, long deadline) {
+            while (System.nanoTime() < deadline) {
+                long started = System.nanoTime();
+                try {
+                    HttpResponse<Void> response = http.send(request, HttpResponse.BodyHandlers.discarding());
+                    if (response.statusCode() != 200) {
+                        errors++;
+                        continue;
+                    }
+                } catch (Exception e) {
+                    errors++;
+                    continue;
+                }
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = System.nanoTime() - started;
+            }
+            return this;
+        }
+    }
+    
+    private record Result(long[] latencies, long errors, long elapsedNanos) {
+        
+        double throughput() {
+            return latencies.length / (elapsedNanos / 1e9);
+        }
+        
+        double percentile(double quantile) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.min(latencies.length - 1, Math.ceil(quantile * latencies.length) - 1);
+            return latencies[Math.max(index, 0)] / 1e6;
+        }
+    }
+}
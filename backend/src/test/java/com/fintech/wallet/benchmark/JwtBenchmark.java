@@ -0,0 +1,72 @@
+package com.fintech.wallet.benchmark;
+
+import com.fintech.wallet.infrastructure.security.JwtTokenProvider;
+import io.jsonwebtoken.JwtParser;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request cost of authenticating a bearer token: the original filter (signing key and
+ * parser rebuilt, token verified twice), a single verification with the pre-built parser, and
+ * JwtTokenProvider.authenticate, which answers repeated tokens from its verified-token cache.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=JwtBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JwtBenchmark {
+    
+    private static final String SECRET = "benchmark-secret-key-for-testing-purposes-only-min-256-bits";
+    
+    @Param({"legacy", "single-parse", "cached"})
+    public String mode;
+    
+    private JwtTokenProvider tokenProvider;
+    private JwtParser parser;
+    private String token;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        tokenProvider = new JwtTokenProvider(SECRET, 86_400_000L, 10_000, new SimpleMeterRegistry());
+        parser = Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build();
+        token = tokenProvider.generateToken(42L, 7L, "bench@example.com");
+    }
+    
+    @Benchmark
+    public Object authenticate() {
+        if (mode.equals("cached")) {
+            return tokenProvider.authenticate(token).orElseThrow().getSubject();
+        }
+        if (mode.equals("single-parse")) {
+            return parser.parseSignedClaims(token).getPayload().getSubject();
+        }
+        return legacyAuthenticate();
+    }
+    
+    /**
+     * validateToken followed by getUserIdFromToken, as the filter did before authenticate.
+     */
+    private Object legacyAuthenticate() {
+        Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token);
+        return Long.parseLong(Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload()
+                .getSubject());
+    }
+}
@@ -0,0 +1,81 @@
+package com.fintech.wallet.benchmark;
+
+import com.fintech.wallet.WalletApplication;
+import com.fintech.wallet.WalletFixtures;
+import com.fintech.wallet.application.ledger.LedgerService;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.CreateTransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Posting throughput of the direct path (one DB transaction per posting) against the
+ * sharded ledger engine, with many threads hammering a small set of hot wallets.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=LedgerBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Threads(32)
+@Fork(1)
+public class LedgerBenchmark {
+    
+    @Param({"direct", "sharded"})
+    public String mode;
+    
+    @Param({"8"})
+    public int wallets;
+    
+    private ConfigurableApplicationContext context;
+    private LedgerService ledgerService;
+    private Long[] userIds;
+    private Long[] walletIds;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(WalletApplication.class)
+                .profiles("test")
+                .run("--wallet.ledger.mode=" + mode,
+                        "--spring.jpa.show-sql=false",
+                        "--server.port=0");
+        ledgerService = context.getBean(LedgerService.class);
+        
+        UserRepository userRepository = context.getBean(UserRepository.class);
+        WalletRepository walletRepository = context.getBean(WalletRepository.class);
+        userIds = new Long[wallets];
+        walletIds = new Long[wallets];
+        for (int i = 0; i < wallets; i++) {
+            Wallet wallet = WalletFixtures.createWallet(userRepository, walletRepository);
+            userIds[i] = wallet.getUserId();
+            walletIds[i] = wallet.getId();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TransactionDTO post() {
+        CreateTransactionDTO dto = new CreateTransactionDTO();
+        dto.setType(TransactionType.INCOME);
+        dto.setAmount(BigDecimal.ONE);
+        dto.setDescription("Benchmark");
+        
+        int i = ThreadLocalRandom.current().nextInt(userIds.length);
+        return ledgerService.post(userIds[i], walletIds[i], dto).join();
+    }
+}
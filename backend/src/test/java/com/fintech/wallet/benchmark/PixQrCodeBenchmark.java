@@ -0,0 +1,75 @@
+package com.fintech.wallet.benchmark;
+
+import com.fintech.wallet.application.payment.PixBrCode;
+import com.fintech.wallet.application.payment.PixQrCodeFormat;
+import com.fintech.wallet.application.payment.PixQrCodes;
+import com.fintech.wallet.infrastructure.qrcode.QrCode;
+import com.fintech.wallet.infrastructure.qrcode.QrCodeImages;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders per second of a checkout-sized PIX QR Code (version 7 to 9): building the BR Code
+ * and encoding the symbol, rendering it to SVG or PNG from scratch, and answering from the
+ * render cache of PixQrCodes across a working set of distinct payloads.
+ *
+ * mvn -Pbenchmark test-compile exec:exec -Dbenchmark=PixQrCodeBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PixQrCodeBenchmark {
+    
+    private static final int PAYLOADS = 1024;
+    
+    @Param({"SVG", "PNG"})
+    public PixQrCodeFormat format;
+    
+    private String[] payloads;
+    private QrCode code;
+    private PixQrCodes cached;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        payloads = new String[PAYLOADS];
+        for (int i = 0; i < PAYLOADS; i++) {
+            payloads[i] = PixBrCode.build("cliente" + i + "@example.com", "Loja Exemplo", "Sao Paulo",
+                    new BigDecimal("19.90").add(BigDecimal.valueOf(i)), "Pedido " + i, "PEDIDO" + i);
+        }
+        code = QrCode.encode(payloads[0]);
+        cached = new PixQrCodes(null, new SimpleMeterRegistry(), "SAO PAULO", 8, 64L << 20);
+        for (String payload : payloads) {
+            cached.render(payload, format);
+        }
+    }
+    
+    @Benchmark
+    public Object payloadAndEncode() {
+        String payload = PixBrCode.build("cliente@example.com", "Loja Exemplo", "Sao Paulo",
+                BigDecimal.valueOf(next++ & 0xFFFF, 2), "Pedido", null);
+        return QrCode.encode(payload);
+    }
+    
+    @Benchmark
+    public byte[] render() {
+        return format == PixQrCodeFormat.PNG ? QrCodeImages.png(code, 8) : QrCodeImages.svg(code);
+    }
+    
+    @Benchmark
+    public byte[] encodeAndRender() {
+        QrCode fresh = QrCode.encode(payloads[next++ & (PAYLOADS - 1)]);
+        return format == PixQrCodeFormat.PNG ? QrCodeImages.png(fresh, 8) : QrCodeImages.svg(fresh);
+    }
+    
+    @Benchmark
+    public byte[] cachedRender() {
+        return cached.render(payloads[next++ & (PAYLOADS - 1)], format);
+    }
+}
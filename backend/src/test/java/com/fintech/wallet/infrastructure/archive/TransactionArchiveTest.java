@@ -0,0 +1,146 @@
+package com.fintech.wallet.infrastructure.archive;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransactionArchiveTest {
+    
+    private static final YearMonth MARCH = YearMonth.of(2022, 3);
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void shouldRoundTripEveryColumn() {
+        TransactionArchive archive = new TransactionArchive(directory.toString(), 16);
+        Transaction full = row(10, MARCH.atDay(5).atTime(8, 30, 15, 123_456_000), TransactionType.INCOME, "1234567.89");
+        full.setCategoryId(42L);
+        full.setDescription("Salário de março, \"bônus\" incluído");
+        Transaction bare = row(11, MARCH.atDay(31).atTime(23, 59, 59, 999_999_000), TransactionType.EXPENSE, "0.01");
+        bare.setDescription(null);
+        
+        assertEquals(2, archive.append(7L, MARCH, List.of(bare, full)));
+        
+        assertEquals(List.of(full, bare), archive.read(7L, MARCH.atDay(1).atStartOfDay(), MARCH.plusMonths(1).atDay(1).atStartOfDay()));
+        assertEquals(List.of(MARCH), List.copyOf(archive.months(7L)));
+        assertTrue(archive.months(8L).isEmpty());
+    }
+    
+    @Test
+    void shouldReadOnlyRequestedRangeAcrossBlocksAndMonths() {
+        TransactionArchive archive = new TransactionArchive(directory.toString(), 16);
+        List<Transaction> march = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            march.add(row(i + 1, MARCH.atDay(1).atStartOfDay().plusMinutes(i * 10L), TransactionType.EXPENSE, "10.00"));
+        }
+        archive.append(7L, MARCH, march);
+        Transaction april = row(5000, LocalDateTime.of(2022, 4, 2, 9, 0), TransactionType.INCOME, "99.90");
+        archive.append(7L, MARCH.plusMonths(1), List.of(april));
+        
+        LocalDateTime from = march.get(1500).getCreatedAt();
+        LocalDateTime until = march.get(1600).getCreatedAt();
+        assertEquals(march.subList(1500, 1600), archive.read(7L, from, until));
+        
+        List<Transaction> newestFirst = archive.streamNewestFirst(7L, march.get(2998).getCreatedAt(), april.getCreatedAt())
+                .collect(Collectors.toList());
+        assertEquals(List.of(april, march.get(2999), march.get(2998)), newestFirst);
+    }
+    
+    @Test
+    void shouldSkipRowsAlreadyArchived() {
+        TransactionArchive archive = new TransactionArchive(directory.toString(), 16);
+        Transaction first = row(1, MARCH.atDay(2).atStartOfDay(), TransactionType.INCOME, "5.00");
+        Transaction second = row(2, MARCH.atDay(1).atStartOfDay(), TransactionType.EXPENSE, "3.00");
+        archive.append(7L, MARCH, List.of(first));
+        
+        assertEquals(1, archive.append(7L, MARCH, List.of(first, second)));
+        
+        assertEquals(List.of(second, first), archive.read(7L, MARCH.atDay(1).atStartOfDay(), MARCH.atDay(3).atStartOfDay()));
+    }
+    
+    @Test
+    void shouldIgnoreAndThenCutOffTornAppend() throws IOException {
+        TransactionArchive writer = new TransactionArchive(directory.toString(), 16);
+        Transaction first = row(1, MARCH.atDay(2).atStartOfDay(), TransactionType.INCOME, "5.00");
+        writer.append(7L, MARCH, List.of(first));
+        Path file = directory.resolve("7").resolve("2022-03.txa");
+        // a block header promising more payload than the crash left behind
+        Files.write(file, new byte[]{0, 0, 0, 1, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0}, StandardOpenOption.APPEND);
+        
+        TransactionArchive reader = new TransactionArchive(directory.toString(), 16);
+        assertEquals(List.of(first), reader.read(7L, MARCH.atDay(1).atStartOfDay(), MARCH.atDay(3).atStartOfDay()));
+        
+        Transaction second = row(2, MARCH.atDay(1).atStartOfDay(), TransactionType.EXPENSE, "3.00");
+        assertEquals(1, reader.append(7L, MARCH, List.of(second)));
+        assertEquals(List.of(second, first),
+                new TransactionArchive(directory.toString(), 16).read(7L, MARCH.atDay(1).atStartOfDay(), MARCH.atDay(3).atStartOfDay()));
+    }
+    
+    @Test
+    void shouldWriteOverTornAppendWithoutShrinkingTheFile() throws IOException {
+        TransactionArchive archive = new TransactionArchive(directory.toString(), 16);
+        archive.append(7L, MARCH, List.of(row(1, MARCH.atDay(2).atStartOfDay(), TransactionType.INCOME, "5.00")));
+        Path file = directory.resolve("7").resolve("2022-03.txa");
+        long validLength = Files.size(file);
+        Files.write(file, new byte[4096], StandardOpenOption.APPEND);
+        
+        Transaction second = row(2, MARCH.atDay(1).atStartOfDay(), TransactionType.EXPENSE, "3.00");
+        assertEquals(1, archive.append(7L, MARCH, List.of(second)));
+        
+        assertEquals(validLength + 4096, Files.size(file));
+        assertEquals(2, archive.read(7L, MARCH.atDay(1).atStartOfDay(), MARCH.atDay(3).atStartOfDay()).size());
+    }
+    
+    @Test
+    void shouldSeeRowsArchivedByAnotherInstance() {
+        TransactionArchive reader = new TransactionArchive(directory.toString(), 16);
+        TransactionArchive writer = new TransactionArchive(directory.toString(), 16);
+        Transaction first = row(1, MARCH.atDay(2).atStartOfDay(), TransactionType.INCOME, "5.00");
+        writer.append(7L, MARCH, List.of(first));
+        LocalDateTime from = MARCH.atDay(1).atStartOfDay();
+        LocalDateTime until = MARCH.plusMonths(2).atDay(1).atStartOfDay();
+        assertEquals(List.of(first), reader.read(7L, from, until));
+        
+        Transaction second = row(2, MARCH.atDay(3).atStartOfDay(), TransactionType.EXPENSE, "3.00");
+        Transaction april = row(3, LocalDateTime.of(2022, 4, 1, 12, 0), TransactionType.EXPENSE, "1.00");
+        writer.append(7L, MARCH, List.of(second));
+        writer.append(7L, MARCH.plusMonths(1), List.of(april));
+        
+        assertEquals(List.of(first, second, april), reader.read(7L, from, until));
+        assertEquals(List.of(MARCH, MARCH.plusMonths(1)), List.copyOf(reader.months(7L)));
+    }
+    
+    @Test
+    void shouldRejectRowsOfAnotherMonth() {
+        TransactionArchive archive = new TransactionArchive(directory.toString(), 16);
+        Transaction april = row(1, LocalDateTime.of(2022, 4, 1, 0, 0), TransactionType.INCOME, "5.00");
+        
+        assertThrows(IllegalArgumentException.class, () -> archive.append(7L, MARCH, List.of(april)));
+    }
+    
+    private static Transaction row(long id, LocalDateTime createdAt, TransactionType type, String amount) {
+        return Transaction.builder()
+                .id(id)
+                .walletId(7L)
+                .type(type)
+                .amount(new BigDecimal(amount))
+                .description("Transação " + id)
+                .createdAt(createdAt)
+                .build();
+    }
+}
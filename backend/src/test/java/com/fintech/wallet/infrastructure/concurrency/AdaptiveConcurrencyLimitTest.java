@@ -0,0 +1,69 @@
+package com.fintech.wallet.infrastructure.concurrency;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+    
+    private static final long MILLIS = 1_000_000L;
+    
+    private final AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 50, 1.5, Duration.ofMillis(100));
+    private long now;
+    
+    @Test
+    void shouldAdmitUpToTheShareOfTheLimit() {
+        for (int i = 0; i < 7; i++) {
+            assertTrue(limit.tryAcquire(0.7));
+        }
+        assertFalse(limit.tryAcquire(0.7));
+        assertTrue(limit.tryAcquire(1.0));
+        assertEquals(8, limit.inFlight());
+    }
+    
+    @Test
+    void shouldGrowWhileLatencyHoldsAndShrinkWhenItClimbs() {
+        runWindows(20, 10 * MILLIS);
+        int grown = limit.limit();
+        assertTrue(grown > 10, "limit " + grown);
+        
+        runWindows(20, 200 * MILLIS);
+        int shrunk = limit.limit();
+        assertTrue(shrunk < grown / 2, "limit " + shrunk);
+        assertTrue(shrunk >= 2);
+    }
+    
+    @Test
+    void shouldNotGrowWhenCallsDoNotUseTheLimit() {
+        for (int window = 0; window < 20; window++) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(limit.tryAcquire(1.0));
+                now += 10 * MILLIS;
+                limit.release(MILLIS, now);
+            }
+        }
+        
+        assertEquals(10, limit.limit());
+    }
+    
+    /**
+     * Windows in which the limit is fully used by calls of the given latency.
+     */
+    private void runWindows(int windows, long latency) {
+        for (int window = 0; window < windows; window++) {
+            int admitted = 0;
+            while (limit.tryAcquire(1.0)) {
+                admitted++;
+            }
+            now += Math.max(latency, 100 * MILLIS);
+            for (int i = 0; i < Math.max(admitted, 10); i++) {
+                if (i >= admitted) {
+                    assertTrue(limit.tryAcquire(1.0));
+                }
+                limit.release(latency, now);
+            }
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.fintech.wallet.infrastructure.concurrency;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class LoadShedderTest {
+    
+    private static final int HELD = 60;
+    
+    // writes pinned at their maximum of 100, windows closing every 10 samples
+    private final LoadShedder loadShedder = new LoadShedder(new SimpleMeterRegistry(), true,
+            20, 4, 200, 100, 2, 100, 1, 1.5, Duration.ZERO);
+    
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+    
+    @Test
+    void shouldKeepSlowImportsOutOfTheWriteLimit() throws Throwable {
+        AdaptiveConcurrencyLimit writes = loadShedder.limit(LoadShedder.Kind.WRITE);
+        AdaptiveConcurrencyLimit imports = loadShedder.limit(LoadShedder.Kind.IMPORT);
+        // other writes in flight, so the windows below count as using the limit
+        for (int i = 0; i < HELD; i++) {
+            assertTrue(writes.tryAcquire(1.0));
+        }
+        MethodInvocation write = mock(MethodInvocation.class);
+        when(write.proceed()).thenAnswer(invocation -> {
+            Thread.sleep(5);
+            return null;
+        });
+        for (int i = 0; i < 10; i++) {
+            call("/api/transactions", write);
+        }
+        
+        MethodInvocation slowImport = mock(MethodInvocation.class);
+        when(slowImport.proceed()).thenAnswer(invocation -> {
+            assertEquals(1, imports.inFlight());
+            assertEquals(HELD, writes.inFlight());
+            // a second import is over the fixed limit of one
+            assertFalse(imports.tryAcquire(1.0));
+            Thread.sleep(500);
+            return null;
+        });
+        call("/api/transactions/import", slowImport);
+        for (int i = 0; i < 10; i++) {
+            call("/api/transactions", write);
+        }
+        
+        assertEquals(100, writes.limit());
+        assertEquals(0, imports.inFlight());
+    }
+    
+    private void call(String pattern, MethodInvocation invocation) throws Throwable {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", pattern);
+        request.setAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE, new Object());
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        loadShedder.invoke(invocation);
+    }
+}
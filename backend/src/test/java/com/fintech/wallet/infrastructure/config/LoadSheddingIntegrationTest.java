@@ -0,0 +1,155 @@
+package com.fintech.wallet.infrastructure.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.application.auth.AuthService;
+import com.fintech.wallet.application.dashboard.DashboardService;
+import com.fintech.wallet.application.wallet.WalletService;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.RegisterDTO;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// A read limit pinned at 4: dashboards (70%) are shed from 3 reads in flight, balances (90%) from 4.
+@SpringBootTest(properties = {
+        "wallet.load-shedding.reads.initial-limit=4",
+        "wallet.load-shedding.reads.min-limit=4",
+        "wallet.load-shedding.reads.max-limit=4"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class LoadSheddingIntegrationTest {
+    
+    private static final int HELD = 3;
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    @SpyBean
+    private WalletRepository walletRepository;
+    
+    private String token;
+    private Long userId;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO(UUID.randomUUID() + "@example.com"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(registered))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        token = "Bearer " + objectMapper.readTree(body).get("token").asText();
+        userId = objectMapper.readTree(body).get("userId").asLong();
+    }
+    
+    @Test
+    void shouldShedLowPriorityReadsFirstWithoutTakingAConnection() throws Exception {
+        CountDownLatch entered = new CountDownLatch(HELD);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger toHold = new AtomicInteger(HELD);
+        Optional<Wallet> wallet = walletRepository.findByUserId(userId);
+        // the first balance reads park inside WalletService, holding their slots
+        doAnswer(invocation -> {
+            if (toHold.getAndDecrement() > 0) {
+                entered.countDown();
+                release.await(10, TimeUnit.SECONDS);
+            }
+            return wallet;
+        }).when(walletRepository).findById(any());
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        ExecutorService pool = Executors.newFixedThreadPool(HELD);
+        try {
+            List<Future<Integer>> held = new ArrayList<>();
+            for (int i = 0; i < HELD; i++) {
+                held.add(pool.submit(() -> mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                        .andReturn().getResponse().getStatus()));
+            }
+            assertTrue(entered.await(10, TimeUnit.SECONDS));
+            
+            long connects = statistics.getConnectCount();
+            mockMvc.perform(get("/api/dashboard").header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isServiceUnavailable());
+            assertEquals(connects, statistics.getConnectCount());
+            
+            mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                    .andExpect(status().isOk());
+            
+            release.countDown();
+            for (Future<Integer> response : held) {
+                assertEquals(200, response.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            release.countDown();
+            pool.shutdownNow();
+        }
+        
+        mockMvc.perform(get("/api/dashboard").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk());
+    }
+    
+    @Test
+    void shouldWrapApplicationServicesButNotAuthentication() {
+        LoadSheddingConfig.ServicePointcut pointcut = new LoadSheddingConfig.ServicePointcut();
+        
+        assertTrue(AopUtils.canApply(pointcut, WalletService.class));
+        assertTrue(AopUtils.canApply(pointcut, DashboardService.class));
+        assertFalse(AopUtils.canApply(pointcut, AuthService.class));
+    }
+    
+    private RegisterDTO registerDTO(String email) {
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setName("Test User");
+        registerDTO.setEmail(email);
+        registerDTO.setPassword("password123");
+        registerDTO.setCountry("BR");
+        registerDTO.setPostalCode("01001-000");
+        registerDTO.setStreet("Praça da Sé");
+        registerDTO.setCity("São Paulo");
+        registerDTO.setState("SP");
+        registerDTO.setPhone("+5511999999999");
+        registerDTO.setDocument("12345678909");
+        registerDTO.setBirthDate(LocalDate.of(1990, 1, 1));
+        return registerDTO;
+    }
+}
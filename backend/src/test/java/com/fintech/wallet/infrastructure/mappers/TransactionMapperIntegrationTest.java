@@ -0,0 +1,141 @@
+package com.fintech.wallet.infrastructure.mappers;
+
+import com.fintech.wallet.application.transaction.TransactionService;
+import com.fintech.wallet.domain.Category;
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.CategoryRepository;
+import com.fintech.wallet.infrastructure.persistence.TransactionRepository;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.TransactionDTO;
+import com.fintech.wallet.interfaces.dto.TransactionPageDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionMapperIntegrationTest {
+    
+    @Autowired
+    private TransactionService transactionService;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private CategoryRepository categoryRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    private Long userId;
+    private Long walletId;
+    private final List<Category> categories = new ArrayList<>();
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        userId = wallet.getUserId();
+        walletId = wallet.getId();
+        
+        for (int i = 0; i < 3; i++) {
+            categories.add(categoryRepository.save(Category.builder()
+                    .name("Categoria " + i)
+                    .type(TransactionType.EXPENSE)
+                    .userId(userId)
+                    .build()));
+        }
+    }
+    
+    @Test
+    void shouldListTransactionsWithConstantStatementCount() {
+        assertEquals(1, statementsToList(5));
+        assertEquals(1, statementsToList(100));
+    }
+    
+    @Test
+    void shouldResolveCategoryNamesInBatch() {
+        insertTransactions(4);
+        entityManager.flush();
+        entityManager.clear();
+        
+        List<TransactionDTO> dtos = transactionService
+                .getTransactions(userId, walletId, null, null, null, null, null, 10)
+                .getItems();
+        
+        for (TransactionDTO dto : dtos) {
+            if (dto.getCategoryId() == null) {
+                assertNull(dto.getCategoryName());
+            } else {
+                Category category = categories.stream()
+                        .filter(c -> c.getId().equals(dto.getCategoryId()))
+                        .findFirst()
+                        .orElseThrow();
+                assertEquals(category.getName(), dto.getCategoryName());
+            }
+        }
+    }
+    
+    /**
+     * Statements issued to list the newest {@code rows} transactions once the category catalog
+     * is warm: only the page query, however many rows come back.
+     */
+    private long statementsToList(int rows) {
+        transactionRepository.deleteAll();
+        insertTransactions(rows);
+        entityManager.flush();
+        entityManager.clear();
+        transactionService.getTransactions(userId, walletId, null, null, null, null, null, 1);
+        statistics.clear();
+        
+        TransactionPageDTO page = transactionService.getTransactions(userId, walletId, null, null, null, null, null, rows);
+        
+        assertEquals(rows, page.getItems().size());
+        return statistics.getPrepareStatementCount();
+    }
+    
+    private void insertTransactions(int rows) {
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            // every fourth row has no category
+            Long categoryId = i % 4 == 3 ? null : categories.get(i % 3).getId();
+            transactions.add(Transaction.builder()
+                    .walletId(walletId)
+                    .type(TransactionType.EXPENSE)
+                    .amount(BigDecimal.ONE)
+                    .categoryId(categoryId)
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+    }
+}
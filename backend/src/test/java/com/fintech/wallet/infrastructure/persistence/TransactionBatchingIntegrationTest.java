@@ -0,0 +1,93 @@
+package com.fintech.wallet.infrastructure.persistence;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@Transactional
+class TransactionBatchingIntegrationTest {
+    
+    private static final int ROWS = 120;
+    private static final int BATCH_SIZE = 50;
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private EntityManager entityManager;
+    
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+    
+    private Statistics statistics;
+    
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    @Test
+    void shouldInsertTransactionsInJdbcBatches() {
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        entityManager.flush();
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int i = 0; i < ROWS; i++) {
+            transactions.add(Transaction.builder()
+                    .walletId(wallet.getId())
+                    .type(TransactionType.INCOME)
+                    .amount(BigDecimal.TEN)
+                    .description("Batch " + i)
+                    .build());
+        }
+        
+        statistics.clear();
+        transactionRepository.saveAll(transactions);
+        entityManager.flush();
+        
+        int idBlocks = (ROWS + BATCH_SIZE - 1) / BATCH_SIZE;
+        assertEquals(ROWS, statistics.getEntityInsertCount());
+        // one sequence call per block of 50 ids plus a single INSERT reused by every JDBC batch
+        assertEquals(idBlocks + 1, statistics.getPrepareStatementCount());
+    }
+    
+    @Test
+    void shouldAssignIdsWithoutFlushingOnRegistration() {
+        statistics.clear();
+        
+        Wallet wallet = createWallet(userRepository, walletRepository);
+        
+        assertNotNull(wallet.getUserId());
+        assertNotNull(wallet.getId());
+        assertEquals(0, statistics.getEntityInsertCount());
+        
+        entityManager.flush();
+        
+        assertEquals(2, statistics.getEntityInsertCount());
+    }
+}
@@ -0,0 +1,218 @@
+package com.fintech.wallet.infrastructure.persistence;
+
+import com.fintech.wallet.domain.Transaction;
+import com.fintech.wallet.domain.TransactionType;
+import com.fintech.wallet.domain.Wallet;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static com.fintech.wallet.WalletFixtures.createWallet;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs the Flyway migrations on a real Postgres and checks with EXPLAIN that the date-range
+ * queries of {@link TransactionRepository} only scan the partitions of the months they ask
+ * for. The statements are the ones Hibernate generates, captured on the way to the driver,
+ * and are explained as prepared statements with a forced generic plan: pruning that only
+ * works while Postgres still plans with the parameter values would not survive in production.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Testcontainers(disabledWithoutDocker = true)
+class TransactionPartitionPruningIntegrationTest {
+    
+    private static final Pattern PARTITION = Pattern.compile("transactions_(\\d{4}_\\d{2}|default)\\b");
+    
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+    
+    @DynamicPropertySource
+    static void postgres(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("wallet.partitions.enabled", () -> "true");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                CapturingInspector.class::getName);
+    }
+    
+    @Autowired
+    private TransactionRepository transactionRepository;
+    
+    @Autowired
+    private TransactionPartitionMaintenance partitionMaintenance;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    
+    private Long walletId;
+    
+    @BeforeEach
+    void setUp() {
+        for (int month = 1; month <= 6; month++) {
+            partitionMaintenance.createPartition(YearMonth.of(2024, month));
+        }
+        walletId = createWallet(userRepository, walletRepository).getId();
+        
+        List<Transaction> transactions = new ArrayList<>();
+        for (int day = 0; day < 180; day++) {
+            transactions.add(Transaction.builder()
+                    .walletId(walletId)
+                    .type(day % 2 == 0 ? TransactionType.INCOME : TransactionType.EXPENSE)
+                    .amount(BigDecimal.TEN)
+                    .createdAt(LocalDateTime.of(2024, 1, 1, 12, 0).plusDays(day))
+                    .build());
+        }
+        transactionRepository.saveAll(transactions);
+        jdbcTemplate.execute("ANALYZE transactions");
+    }
+    
+    @Test
+    void shouldCreateMonthlyPartitionsAhead() {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid " +
+                "WHERE i.inhparent = 'transactions'::regclass", String.class);
+        
+        assertTrue(partitions.contains("transactions_default"));
+        assertTrue(partitions.contains("transactions_" + YearMonth.now().plusMonths(3).toString().replace('-', '_')));
+    }
+    
+    @Test
+    void shouldMoveMonthsOutOfTheDefaultPartition() {
+        transactionRepository.saveAll(List.of(
+                Transaction.builder().walletId(walletId).type(TransactionType.INCOME).amount(BigDecimal.ONE)
+                        .createdAt(LocalDateTime.of(2019, 7, 3, 9, 0)).build(),
+                Transaction.builder().walletId(walletId).type(TransactionType.INCOME).amount(BigDecimal.ONE)
+                        .createdAt(LocalDateTime.of(2019, 7, 28, 9, 0)).build()));
+        assertTrue(partitionMaintenance.monthsInDefaultPartition().contains(YearMonth.of(2019, 7)));
+        
+        partitionMaintenance.createUpcomingPartitions();
+        
+        assertFalse(partitionMaintenance.monthsInDefaultPartition().contains(YearMonth.of(2019, 7)));
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transactions_2019_07", Integer.class));
+        LocalDateTime start = LocalDateTime.of(2019, 7, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2019, 7, 31, 23, 59);
+        String sql = captured(() -> transactionRepository.sumAmountByTypeAndCategory(walletId, start, end));
+        assertEquals(Set.of("2019_07"), scannedPartitions(sql, walletId, start, end));
+    }
+    
+    @Test
+    void shouldPruneListingToRequestedMonths() {
+        LocalDateTime start = LocalDateTime.of(2024, 3, 5, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 4, 10, 0, 0);
+        
+        String sql = captured(() -> transactionRepository.findFilteredTransactions(
+                walletId, null, null, start, end, PageRequest.of(0, 51)));
+        
+        assertEquals(Set.of("2024_03", "2024_04"),
+                scannedPartitions(sql, walletId, new Null("varchar"), new Null("varchar"), new Null("bigint"), new Null("bigint"),
+                        start, end, 0, 51));
+    }
+    
+    @Test
+    void shouldPruneDashboardAggregateToRequestedMonth() {
+        LocalDateTime start = LocalDateTime.of(2024, 2, 1, 0, 0);
+        LocalDateTime end = LocalDateTime.of(2024, 2, 29, 23, 59);
+        
+        String sql = captured(() -> transactionRepository.sumAmountByTypeAndCategory(walletId, start, end));
+        
+        assertEquals(Set.of("2024_02"), scannedPartitions(sql, walletId, start, end));
+    }
+    
+    private String captured(Runnable query) {
+        CapturingInspector.STATEMENTS.clear();
+        query.run();
+        return CapturingInspector.STATEMENTS.stream()
+                .filter(sql -> sql.contains("transactions"))
+                .reduce((first, last) -> last)
+                .orElseThrow();
+    }
+    
+    /**
+     * Prepares the statement with its parameters typed after the given values, {@link Null}
+     * standing for a null of the given SQL type, forces the generic plan and returns the partitions EXPLAIN ANALYZE reports as executed.
+     */
+    private Set<String> scannedPartitions(String sql, Object... values) {
+        StringBuilder numbered = new StringBuilder();
+        int index = 0;
+        for (char c : sql.toCharArray()) {
+            numbered.append(c == '?' ? "$" + (++index) : String.valueOf(c));
+        }
+        assertEquals(values.length, index, "parameter count of " + sql);
+        
+        List<String> types = new ArrayList<>();
+        List<String> literals = new ArrayList<>();
+        for (Object value : values) {
+            types.add(value instanceof Null typed ? typed.type() : value instanceof Long ? "bigint"
+                    : value instanceof Integer ? "integer" : value instanceof LocalDateTime ? "timestamp" : "varchar");
+            literals.add(value instanceof Null ? "NULL" : value instanceof Number ? value.toString() : "'" + value + "'");
+        }
+        
+        String statement = "pruning_" + System.nanoTime();
+        return jdbcTemplate.execute((ConnectionCallback<Set<String>>) connection -> {
+            try (var jdbc = connection.createStatement()) {
+                jdbc.execute("SET plan_cache_mode = force_generic_plan");
+                jdbc.execute("PREPARE " + statement + "(" + String.join(", ", types) + ") AS " + numbered);
+                Set<String> partitions = new TreeSet<>();
+                try (var plan = jdbc.executeQuery("EXPLAIN (ANALYZE, COSTS OFF, TIMING OFF, SUMMARY OFF) EXECUTE "
+                        + statement + "(" + String.join(", ", literals) + ")")) {
+                    while (plan.next()) {
+                        Matcher matcher = PARTITION.matcher(plan.getString(1));
+                        while (matcher.find()) {
+                            partitions.add(matcher.group(1));
+                        }
+                    }
+                }
+                jdbc.execute("DEALLOCATE " + statement);
+                jdbc.execute("RESET plan_cache_mode");
+                return partitions;
+            }
+        });
+    }
+    
+    private record Null(String type) {
+    }
+    
+    public static class CapturingInspector implements StatementInspector {
+        
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+        
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
@@ -0,0 +1,206 @@
+package com.fintech.wallet.infrastructure.qrcode;
+
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QrCodeTest {
+    
+    private static final String PAYLOAD = "00020126580014br.gov.bcb.pix0136123e4567-e12b-12d1-a456-426655440000"
+            + "5204000053039865802BR5913Fulano de Tal6008BRASILIA62070503***63041D3D";
+    
+    @Test
+    void shouldMatchTheByteCapacitiesOfLevelM() {
+        assertEquals(14, QrCode.byteCapacity(1));
+        assertEquals(26, QrCode.byteCapacity(2));
+        assertEquals(84, QrCode.byteCapacity(5));
+        assertEquals(213, QrCode.byteCapacity(10));
+        assertEquals(2331, QrCode.byteCapacity(40));
+        assertArrayEquals(new int[]{6, 34, 60, 86, 112, 138}, QrCode.alignmentPositions(32));
+        assertArrayEquals(new int[]{6, 30, 58, 86, 114, 142, 170}, QrCode.alignmentPositions(40));
+    }
+    
+    @Test
+    void shouldPickTheSmallestVersionThatFits() {
+        assertEquals(1, QrCode.encode("a".repeat(14)).version());
+        assertEquals(2, QrCode.encode("a".repeat(15)).version());
+        assertEquals(10, QrCode.encode("a".repeat(213)).version());
+        assertThrows(IllegalArgumentException.class, () -> QrCode.encode("a".repeat(2332)));
+    }
+    
+    @Test
+    void shouldReadBackWhatWasEncoded() {
+        for (String text : new String[]{"", "PIX", PAYLOAD, "ç".repeat(120), "x".repeat(700)}) {
+            assertEquals(text, read(QrCode.encode(text)), "version " + QrCode.encode(text).version());
+        }
+    }
+    
+    @Test
+    void shouldWriteVersionInformationFromVersionSeven() {
+        QrCode code = QrCode.encode("a".repeat(120));
+        assertEquals(7, code.version());
+        // BCH(18, 6) codeword of version 7 from the standard, least significant bit first
+        int bits = 0;
+        for (int i = 0; i < 18; i++) {
+            if (code.isDark(code.size() - 11 + i % 3, i / 3)) {
+                bits |= 1 << i;
+            }
+        }
+        assertEquals(0b000111110010010100, bits);
+    }
+    
+    @Test
+    void shouldRenderSvgAndPngWithQuietZone() throws Exception {
+        QrCode code = QrCode.encode(PAYLOAD);
+        
+        String svg = new String(QrCodeImages.svg(code), StandardCharsets.UTF_8);
+        int dimension = code.size() + 8;
+        assertTrue(svg.startsWith("<svg xmlns=\"http://www.w3.org/2000/svg\" viewBox=\"0 0 " + dimension + " " + dimension + "\""));
+        // top-left finder: a 7-module dark run at the quiet zone offset
+        assertTrue(svg.contains("M4 4h7v1h-7z"));
+        
+        BufferedImage png = ImageIO.read(new ByteArrayInputStream(QrCodeImages.png(code, 3)));
+        assertEquals(dimension * 3, png.getWidth());
+        for (int y = 0; y < code.size(); y++) {
+            for (int x = 0; x < code.size(); x++) {
+                boolean dark = (png.getRGB((x + 4) * 3 + 1, (y + 4) * 3 + 1) & 0xFFFFFF) == 0;
+                assertEquals(code.isDark(x, y), dark, "module " + x + "," + y);
+            }
+        }
+        assertEquals(0xFFFFFF, png.getRGB(0, 0) & 0xFFFFFF);
+    }
+    
+    /**
+     * Decodes the symbol the way a reader does: format bits, unmasking, codeword order,
+     * block de-interleaving with Reed-Solomon syndromes checked, then the byte segment.
+     */
+    private static String read(QrCode code) {
+        int size = code.size();
+        int format = 0;
+        for (int i = 0; i <= 5; i++) {
+            format |= bit(code.isDark(8, i)) << i;
+        }
+        format |= bit(code.isDark(8, 7)) << 6;
+        format |= bit(code.isDark(8, 8)) << 7;
+        format |= bit(code.isDark(7, 8)) << 8;
+        for (int i = 9; i < 15; i++) {
+            format |= bit(code.isDark(14 - i, 8)) << i;
+        }
+        int second = 0;
+        for (int i = 0; i < 8; i++) {
+            second |= bit(code.isDark(size - 1 - i, 8)) << i;
+        }
+        for (int i = 8; i < 15; i++) {
+            second |= bit(code.isDark(8, size - 15 + i)) << i;
+        }
+        assertEquals(format, second);
+        format ^= 0x5412;
+        int data = format >>> 10;
+        int remainder = data;
+        for (int i = 0; i < 10; i++) {
+            remainder = (remainder << 1) ^ ((remainder >>> 9) * 0x537);
+        }
+        assertEquals(format & 0x3FF, remainder & 0x3FF);
+        assertEquals(0, data >>> 3, "level M");
+        int mask = data & 7;
+        assertEquals(code.mask(), mask);
+        
+        int version = code.version();
+        byte[] raw = new byte[QrCode.rawCodewordCount(version)];
+        int index = 0;
+        for (int right = size - 1; right >= 1; right -= 2) {
+            if (right == 6) {
+                right = 5;
+            }
+            for (int vertical = 0; vertical < size; vertical++) {
+                for (int j = 0; j < 2; j++) {
+                    int x = right - j;
+                    int y = ((right + 1) & 2) == 0 ? size - 1 - vertical : vertical;
+                    if (!code.isFunction(x, y) && index < raw.length * 8) {
+                        if (code.isDark(x, y) ^ QrCode.masked(mask, x, y)) {
+                            raw[index >>> 3] |= (byte) (0x80 >>> (index & 7));
+                        }
+                        index++;
+                    }
+                }
+            }
+        }
+        
+        int blocks = QrCode.errorCorrectionBlocks(version);
+        int eccLength = QrCode.eccCodewordsPerBlock(version);
+        int shortBlocks = blocks - raw.length % blocks;
+        int shortLength = raw.length / blocks;
+        int[][] split = new int[blocks][];
+        for (int j = 0; j < blocks; j++) {
+            split[j] = new int[shortLength + (j < shortBlocks ? 0 : 1)];
+        }
+        int k = 0;
+        int shortData = shortLength - eccLength;
+        for (int i = 0; i < shortData; i++) {
+            for (int j = 0; j < blocks; j++) {
+                split[j][i] = raw[k++] & 0xFF;
+            }
+        }
+        for (int j = shortBlocks; j < blocks; j++) {
+            split[j][shortData] = raw[k++] & 0xFF;
+        }
+        for (int i = 0; i < eccLength; i++) {
+            for (int j = 0; j < blocks; j++) {
+                split[j][split[j].length - eccLength + i] = raw[k++] & 0xFF;
+            }
+        }
+        
+        ByteArrayOutputStream codewords = new ByteArrayOutputStream();
+        for (int[] block : split) {
+            for (int i = 0, root = 1; i < eccLength; i++, root = QrCode.multiply(root, 2)) {
+                int syndrome = 0;
+                for (int value : block) {
+                    syndrome = QrCode.multiply(syndrome, root) ^ value;
+                }
+                assertEquals(0, syndrome, "syndrome " + i);
+            }
+            for (int i = 0; i < block.length - eccLength; i++) {
+                codewords.write(block[i]);
+            }
+        }
+        
+        byte[] bytes = codewords.toByteArray();
+        assertEquals(QrCode.dataCodewordCount(version), bytes.length);
+        BitReader bits = new BitReader(bytes);
+        assertEquals(0b0100, bits.read(4));
+        int length = bits.read(version < 10 ? 8 : 16);
+        byte[] text = new byte[length];
+        for (int i = 0; i < length; i++) {
+            text[i] = (byte) bits.read(8);
+        }
+        return new String(text, StandardCharsets.UTF_8);
+    }
+    
+    private static int bit(boolean dark) {
+        return dark ? 1 : 0;
+    }
+    
+    private static final class BitReader {
+        
+        private final byte[] bytes;
+        private int position;
+        
+        BitReader(byte[] bytes) {
+            this.bytes = bytes;
+        }
+        
+        int read(int count) {
+            int value = 0;
+            for (int i = 0; i < count; i++, position++) {
+                value = value << 1 | ((bytes[position >>> 3] >>> (7 - (position & 7))) & 1);
+            }
+            return value;
+        }
+    }
+}
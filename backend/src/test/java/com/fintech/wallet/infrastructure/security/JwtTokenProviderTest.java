@@ -0,0 +1,51 @@
+package com.fintech.wallet.infrastructure.security;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtTokenProviderTest {
+    
+    private static final String SECRET = "test-secret-key-for-testing-purposes-only-min-256-bits-required";
+    
+    private final JwtTokenProvider tokenProvider = new JwtTokenProvider(SECRET, 60_000L, 100, new SimpleMeterRegistry());
+    
+    @Test
+    void shouldAuthenticateOnceAndServeRepeatsFromCache() {
+        String token = tokenProvider.generateToken(7L, 3L, "user@example.com");
+        
+        Claims claims = tokenProvider.authenticate(token).orElseThrow();
+        
+        assertEquals("7", claims.getSubject());
+        assertEquals("user@example.com", claims.get("email"));
+        assertEquals(3L, claims.get(JwtTokenProvider.WALLET_ID_CLAIM, Long.class));
+        assertSame(claims, tokenProvider.authenticate(token).orElseThrow());
+    }
+    
+    @Test
+    void shouldRejectForgedMalformedAndExpiredTokens() {
+        String token = tokenProvider.generateToken(7L, 3L, "user@example.com");
+        String forged = Jwts.builder()
+                .subject("8")
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor("another-secret-key-for-testing-purposes-only-256-bits".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        String expired = Jwts.builder()
+                .subject("7")
+                .expiration(new Date(System.currentTimeMillis() - 1_000))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        
+        assertTrue(tokenProvider.authenticate(forged).isEmpty());
+        assertTrue(tokenProvider.authenticate(expired).isEmpty());
+        assertTrue(tokenProvider.authenticate("not-a-token").isEmpty());
+        assertTrue(tokenProvider.authenticate(token.substring(0, token.length() - 2)).isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package com.fintech.wallet.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PasswordHasherTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PasswordHasher hasher;
+    
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        hasher.stop();
+    }
+    
+    @Test
+    void shouldHashAndVerifyOffTheCallingThread() {
+        hasher = new PasswordHasher(new BCryptPasswordEncoder(4), meterRegistry, 1, 1);
+        
+        String hash = hasher.encode("password123").join();
+        
+        assertTrue(hasher.matches("password123", hash).join());
+        assertFalse(hasher.matches("wrong", hash).join());
+        assertEquals(2, meterRegistry.get("auth.password").tag("operation", "verify").timer().count());
+    }
+    
+    @Test
+    void shouldRejectWithServiceUnavailableWhenQueueIsFull() {
+        hasher = new PasswordHasher(blockingEncoder(), meterRegistry, 1, 1);
+        CompletableFuture<String> running = hasher.encode("a");
+        CompletableFuture<String> queued = hasher.encode("b");
+        
+        ResponseStatusException e = assertThrows(ResponseStatusException.class, () -> hasher.encode("c"));
+        
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatusCode());
+        assertEquals(1, meterRegistry.get("auth.password.rejected").counter().count());
+        release.countDown();
+        assertEquals("hash", running.join());
+        assertEquals("hash", queued.join());
+    }
+    
+    private PasswordEncoder blockingEncoder() {
+        return new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return "hash";
+            }
+            
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return false;
+            }
+        };
+    }
+}
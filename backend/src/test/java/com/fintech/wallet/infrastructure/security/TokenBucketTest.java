@@ -0,0 +1,56 @@
+package com.fintech.wallet.infrastructure.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBucketTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    @Test
+    void shouldAllowABurstOfCapacityThenRefillAtTheRate() {
+        TokenBucket bucket = new TokenBucket(3, 2);
+        long now = 42 * SECOND;
+        
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, bucket.tryAcquire(now));
+        }
+        assertEquals(SECOND / 2, bucket.tryAcquire(now));
+        assertEquals(SECOND / 4, bucket.tryAcquire(now + SECOND / 4));
+        assertEquals(0, bucket.tryAcquire(now + SECOND / 2));
+        assertTrue(bucket.tryAcquire(now + SECOND / 2) > 0);
+    }
+    
+    @Test
+    void shouldNotAccumulateMoreThanCapacityWhileIdle() {
+        TokenBucket bucket = new TokenBucket(2, 1);
+        
+        long later = 3600 * SECOND;
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(0, bucket.tryAcquire(later));
+        assertEquals(SECOND, bucket.tryAcquire(later));
+    }
+    
+    @Test
+    void shouldHandOutEachTokenOnceUnderContention() {
+        TokenBucket bucket = new TokenBucket(1000, 0.001);
+        AtomicInteger granted = new AtomicInteger();
+        
+        CompletableFuture.allOf(IntStream.range(0, 8)
+                .mapToObj(t -> CompletableFuture.runAsync(() -> {
+                    for (int i = 0; i < 500; i++) {
+                        if (bucket.tryAcquire(0) == 0) {
+                            granted.incrementAndGet();
+                        }
+                    }
+                }))
+                .toArray(CompletableFuture[]::new)).join();
+        
+        assertEquals(1000, granted.get());
+    }
+}
@@ -0,0 +1,74 @@
+package com.fintech.wallet.infrastructure.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WriteRateLimitFilterTest {
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private WriteRateLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        MockEnvironment environment = new MockEnvironment();
+        for (String endpoint : List.of("transactions", "imports", "payments")) {
+            environment.setProperty("wallet.rate-limit." + endpoint + ".capacity", "2");
+            environment.setProperty("wallet.rate-limit." + endpoint + ".refill-per-second", "0.01");
+        }
+        filter = new WriteRateLimitFilter(environment, meterRegistry, true, 100, Duration.ofMinutes(10));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void shouldRejectWritesBeyondTheBucketWithRetryAfter() throws Exception {
+        authenticate(1L);
+        
+        assertEquals(200, perform("POST", "/api/payments").getStatus());
+        assertEquals(200, perform("POST", "/api/payments").getStatus());
+        MockHttpServletResponse rejected = perform("POST", "/api/payments");
+        
+        assertEquals(429, rejected.getStatus());
+        assertEquals("100", rejected.getHeader("Retry-After"));
+        assertEquals(1, meterRegistry.get("ratelimit.rejected").tag("endpoint", "payments").counter().count());
+    }
+    
+    @Test
+    void shouldKeepSeparateBucketsPerUserAndEndpoint() throws Exception {
+        authenticate(1L);
+        perform("POST", "/api/payments");
+        perform("POST", "/api/payments");
+        
+        assertEquals(200, perform("POST", "/api/transactions").getStatus());
+        assertEquals(200, perform("GET", "/api/payments").getStatus());
+        authenticate(2L);
+        assertEquals(200, perform("POST", "/api/payments").getStatus());
+    }
+    
+    private void authenticate(Long userId) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(new WalletPrincipal(userId, userId), null, List.of()));
+    }
+    
+    private MockHttpServletResponse perform(String method, String uri) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest(method, uri), response, new MockFilterChain());
+        return response;
+    }
+}
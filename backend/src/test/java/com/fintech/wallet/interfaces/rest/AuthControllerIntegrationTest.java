@@ -1,24 +1,49 @@
 package com.fintech.wallet.interfaces.rest;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.application.auth.RegisteredEmails;
+import com.fintech.wallet.domain.User;
+import com.fintech.wallet.domain.Wallet;
+import com.fintech.wallet.infrastructure.persistence.UserRepository;
+import com.fintech.wallet.infrastructure.persistence.WalletRepository;
+import com.fintech.wallet.interfaces.dto.AuthResponseDTO;
 import com.fintech.wallet.interfaces.dto.LoginDTO;
 import com.fintech.wallet.interfaces.dto.RegisterDTO;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jakarta.servlet.ServletException;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureWebMvc;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+// Not @Transactional: the user is created on another thread once its password is hashed.
 @SpringBootTest
-@AutoConfigureWebMvc
+@AutoConfigureMockMvc
 @ActiveProfiles("test")
-@Transactional
 class AuthControllerIntegrationTest {
     
     @Autowired
@@ -27,43 +52,165 @@ class AuthControllerIntegrationTest {
     @Autowired
     private ObjectMapper objectMapper;
     
+    @Autowired
+    private WalletRepository walletRepository;
+    
+    @Autowired
+    private UserRepository userRepository;
+    
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    
+    @Autowired
+    private RegisteredEmails registeredEmails;
+    
+    @Value("${jwt.secret}")
+    private String jwtSecret;
+    
     @Test
     void shouldRegisterUser() throws Exception {
-        RegisterDTO registerDTO = new RegisterDTO();
-        registerDTO.setName("Test User");
-        registerDTO.setEmail("test@example.com");
-        registerDTO.setPassword("password123");
+        String email = UUID.randomUUID() + "@example.com";
         
-        mockMvc.perform(post("/api/auth/register")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(registerDTO)))
+        register(email)
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.token").exists())
                 .andExpect(jsonPath("$.userId").exists())
-                .andExpect(jsonPath("$.email").value("test@example.com"));
+                .andExpect(jsonPath("$.email").value(email));
     }
     
     @Test
     void shouldLoginUser() throws Exception {
-        RegisterDTO registerDTO = new RegisterDTO();
-        registerDTO.setName("Test User");
-        registerDTO.setEmail("login@example.com");
-        registerDTO.setPassword("password123");
+        String email = UUID.randomUUID() + "@example.com";
+        register(email);
         
-        mockMvc.perform(post("/api/auth/register")
-                        .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(registerDTO)));
+        login(email, "password123")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.token").exists())
+                .andExpect(jsonPath("$.email").value(email));
+    }
+    
+    @Test
+    void shouldBlockEmailAfterRepeatedFailuresBeforeCheckingPassword() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        register(email);
         
-        LoginDTO loginDTO = new LoginDTO();
-        loginDTO.setEmail("login@example.com");
-        loginDTO.setPassword("password123");
+        for (int i = 0; i < 5; i++) {
+            MvcResult failed = mockMvc.perform(post("/api/auth/login")
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(objectMapper.writeValueAsString(loginDTO(email, "wrong-password"))))
+                    .andReturn();
+            // a wrong password surfaces as the IllegalArgumentException it always was
+            assertThrows(ServletException.class, () -> mockMvc.perform(asyncDispatch(failed)));
+        }
         
+        // even the right password is refused while the email is locked out
         mockMvc.perform(post("/api/auth/login")
                         .contentType(MediaType.APPLICATION_JSON)
-                        .content(objectMapper.writeValueAsString(loginDTO)))
-                .andExpect(status().isOk())
-                .andExpect(jsonPath("$.token").exists())
-                .andExpect(jsonPath("$.email").value("login@example.com"));
+                        .content(objectMapper.writeValueAsString(loginDTO(email, "password123"))))
+                .andExpect(status().isTooManyRequests());
+    }
+    
+    @Test
+    void shouldRefuseEmailsUnknownToTheFilterUntilRefreshed() throws Exception {
+        String email = UUID.randomUUID() + "@example.com";
+        // as if registered through another instance
+        User user = userRepository.save(User.builder()
+                .name("Other Node")
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .build());
+        walletRepository.save(Wallet.builder().userId(user.getId()).balance(BigDecimal.ZERO).build());
+        
+        ServletException refused = assertThrows(ServletException.class, () -> mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginDTO(email, "password123")))));
+        assertEquals("Credenciais inválidas", refused.getCause().getMessage());
+        
+        registeredEmails.refresh();
+        
+        login(email, "password123").andExpect(status().isOk());
+    }
+    
+    @Test
+    void shouldPickUpUsersOfInstancesWhoseClockIsBehind() throws Exception {
+        registeredEmails.refresh();
+        String email = UUID.randomUUID() + "@example.com";
+        // the created_at an instance an hour behind would have set is replaced by the database's
+        User user = userRepository.save(User.builder()
+                .name("Other Node")
+                .email(email)
+                .password(passwordEncoder.encode("password123"))
+                .createdAt(LocalDateTime.now().minusHours(1))
+                .build());
+        walletRepository.save(Wallet.builder().userId(user.getId()).balance(BigDecimal.ZERO).build());
+        LocalDateTime databaseTime = userRepository.databaseTime();
+        assertTrue(user.getCreatedAt().isAfter(databaseTime.minusMinutes(1)) && !user.getCreatedAt().isAfter(databaseTime));
+        
+        registeredEmails.refresh();
+        
+        login(email, "password123").andExpect(status().isOk());
+    }
+    
+    @Test
+    void shouldResolveWalletFromTokenClaimAndFromLegacyToken() throws Exception {
+        String body = register(UUID.randomUUID() + "@example.com")
+                .andReturn().getResponse().getContentAsString();
+        AuthResponseDTO auth = objectMapper.readValue(body, AuthResponseDTO.class);
+        Long walletId = walletRepository.findByUserId(auth.getUserId()).orElseThrow().getId();
+        // issued before tokens carried the wid claim
+        String legacyToken = Jwts.builder()
+                .subject(String.valueOf(auth.getUserId()))
+                .claim("email", auth.getEmail())
+                .expiration(new Date(System.currentTimeMillis() + 60_000))
+                .signWith(Keys.hmacShaKeyFor(jwtSecret.getBytes(StandardCharsets.UTF_8)))
+                .compact();
+        
+        for (String token : List.of(auth.getToken(), legacyToken)) {
+            mockMvc.perform(get("/api/wallet/balance").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.id").value(walletId))
+                    .andExpect(jsonPath("$.userId").value(auth.getUserId()));
+        }
+    }
+    
+    private ResultActions register(String email) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO(email))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+    
+    private ResultActions login(String email, String password) throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(loginDTO(email, password))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(started));
+    }
+    
+    private LoginDTO loginDTO(String email, String password) {
+        LoginDTO loginDTO = new LoginDTO();
+        loginDTO.setEmail(email);
+        loginDTO.setPassword(password);
+        return loginDTO;
+    }
+    
+    private RegisterDTO registerDTO(String email) {
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setName("Test User");
+        registerDTO.setEmail(email);
+        registerDTO.setPassword("password123");
+        registerDTO.setCountry("BR");
+        registerDTO.setPostalCode("01001-000");
+        registerDTO.setStreet("Praça da Sé");
+        registerDTO.setCity("São Paulo");
+        registerDTO.setState("SP");
+        registerDTO.setPhone("+5511999999999");
+        registerDTO.setDocument("12345678909");
+        registerDTO.setBirthDate(LocalDate.of(1990, 1, 1));
+        return registerDTO;
     }
 }
-
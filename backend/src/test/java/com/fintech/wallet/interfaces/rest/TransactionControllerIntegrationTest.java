@@ -0,0 +1,142 @@
+package com.fintech.wallet.interfaces.rest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fintech.wallet.application.idempotency.IdempotencyStore;
+import com.fintech.wallet.interfaces.dto.RegisterDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.hamcrest.Matchers.matchesPattern;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+// Not @Transactional: async handlers run on another thread and must see committed rows.
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TransactionControllerIntegrationTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    private String token;
+    
+    @BeforeEach
+    void setUp() throws Exception {
+        MvcResult registered = mockMvc.perform(post("/api/auth/register")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(registerDTO(UUID.randomUUID() + "@example.com"))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(registered))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        token = "Bearer " + objectMapper.readTree(body).get("token").asText();
+    }
+    
+    @Test
+    void shouldCreateTransactionThroughAsyncDispatch() throws Exception {
+        MvcResult started = mockMvc.perform(post("/api/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"INCOME\",\"amount\":25.00,\"description\":\"Salário\"}"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.amount").value(25.00));
+    }
+    
+    @Test
+    void shouldReplayRetriesWithTheSameIdempotencyKey() throws Exception {
+        String key = UUID.randomUUID().toString();
+        String body = "{\"type\":\"INCOME\",\"amount\":25.00,\"description\":\"Salário\"}";
+        
+        String first = mockMvc.perform(asyncDispatch(postTransaction(key, body)))
+                .andExpect(status().isCreated())
+                .andReturn().getResponse().getContentAsString();
+        mockMvc.perform(asyncDispatch(postTransaction(key, body)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string(IdempotencyStore.REPLAYED_HEADER, "true"))
+                .andExpect(jsonPath("$.id").value(objectMapper.readTree(first).get("id").asLong()));
+        
+        mockMvc.perform(get("/api/wallet/balance").header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balance").value(25.00));
+    }
+    
+    @Test
+    void shouldRefuseAnIdempotencyKeyReusedForAnotherRequest() throws Exception {
+        String key = UUID.randomUUID().toString();
+        mockMvc.perform(asyncDispatch(postTransaction(key, "{\"type\":\"INCOME\",\"amount\":25.00}")))
+                .andExpect(status().isCreated());
+        
+        mockMvc.perform(post("/api/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header(IdempotencyStore.HEADER, key)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"INCOME\",\"amount\":26.00}"))
+                .andExpect(status().isUnprocessableEntity());
+    }
+    
+    @Test
+    void shouldStreamExport() throws Exception {
+        mockMvc.perform(post("/api/transactions/import")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .contentType("text/csv")
+                        .content("type,amount,description,createdAt\nINCOME,10.00,\"Bônus, anual\",2024-01-02\n"))
+                .andExpect(status().isOk());
+        
+        MvcResult started = mockMvc.perform(get("/api/transactions/export")
+                        .header(HttpHeaders.AUTHORIZATION, token))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"transactions.csv\""))
+                .andExpect(content().string(matchesPattern(
+                        "id,type,amount,description,categoryId,createdAt\n\\d+,INCOME,10.00,\"Bônus, anual\",,2024-01-02T00:00\n")));
+    }
+    
+    private MvcResult postTransaction(String idempotencyKey, String body) throws Exception {
+        return mockMvc.perform(post("/api/transactions")
+                        .header(HttpHeaders.AUTHORIZATION, token)
+                        .header(IdempotencyStore.HEADER, idempotencyKey)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(body))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+    }
+    
+    private RegisterDTO registerDTO(String email) {
+        RegisterDTO registerDTO = new RegisterDTO();
+        registerDTO.setName("Test User");
+        registerDTO.setEmail(email);
+        registerDTO.setPassword("password123");
+        registerDTO.setCountry("BR");
+        registerDTO.setPostalCode("01001-000");
+        registerDTO.setStreet("Praça da Sé");
+        registerDTO.setCity("São Paulo");
+        registerDTO.setState("SP");
+        registerDTO.setPhone("+5511999999999");
+        registerDTO.setDocument("12345678909");
+        registerDTO.setBirthDate(LocalDate.of(1990, 1, 1));
+        return registerDTO;
+    }
+}
@@ -1,6 +1,6 @@
 import { useState, useEffect } from 'react'
 import { useTranslation } from 'react-i18next'
-import { dashboardService, Dashboard } from '../services/dashboardService'
+import { dashboardService, Dashboard, SeriesGranularity, SeriesPoint } from '../services/dashboardService'
 import { Card } from '@/app/shared/components/Card'
 import { Button } from '@/app/shared/components/Button'
 import { formatCurrency } from '@/app/shared/utils/format'
@@ -21,9 +21,16 @@ import {
 } from 'recharts'
 import { TrendingUp, TrendingDown, Wallet, Calendar } from 'lucide-react'
 
+function toLocalDate(date: Date) {
+  const month = String(date.getMonth() + 1).padStart(2, '0')
+  const day = String(date.getDate()).padStart(2, '0')
+  return `${date.getFullYear()}-${month}-${day}`
+}
+
 export function DashboardPage() {
   const { t, i18n } = useTranslation()
   const [dashboard, setDashboard] = useState<Dashboard | null>(null)
+  const [series, setSeries] = useState<SeriesPoint[]>([])
   const [isLoading, setIsLoading] = useState(true)
   const [period, setPeriod] = useState<'month' | 'quarter' | 'year'>('month')
 
@@ -46,8 +53,14 @@ export function DashboardPage() {
         startDate.setFullYear(startDate.getFullYear() - 1)
       }
 
-      const data = await dashboardService.getDashboard(startDate.toISOString(), endDate.toISOString())
+      const granularity: SeriesGranularity = period === 'month' ? 'day' : period === 'quarter' ? 'week' : 'month'
+      const zone = Intl.DateTimeFormat().resolvedOptions().timeZone
+      const [data, trend] = await Promise.all([
+        dashboardService.getDashboard(startDate.toISOString(), endDate.toISOString()),
+        dashboardService.getSeries(granularity, toLocalDate(startDate), toLocalDate(endDate), zone),
+      ])
       setDashboard(data)
+      setSeries(trend.points)
     } catch (error) {
     } finally {
       setIsLoading(false)
@@ -157,16 +170,16 @@ export function DashboardPage() {
               </Card>
             </div>
 
-            {dashboard.transactionsByDate && dashboard.transactionsByDate.length > 0 && (
+            {series.length > 0 && (
               <Card className="p-6">
                 <h3 className="text-lg font-semibold text-[#1f2937] dark:text-[#f9fafb] mb-6 flex items-center gap-2">
                   <Calendar className="w-5 h-5 text-primary" />
                   {t('dashboard.incomeVsExpenses')}
                 </h3>
                 <ResponsiveContainer width="100%" height={300}>
-                  <LineChart data={dashboard.transactionsByDate}>
+                  <LineChart data={series}>
                     <CartesianGrid strokeDasharray="3 3" stroke="#e5e7eb" className="dark:stroke-[#334155]" />
-                    <XAxis dataKey="date" stroke="#6b7280" className="dark:stroke-[#9ca3af]" fontSize={12} />
+                    <XAxis dataKey="start" stroke="#6b7280" className="dark:stroke-[#9ca3af]" fontSize={12} />
                     <YAxis stroke="#6b7280" className="dark:stroke-[#9ca3af]" fontSize={12} />
                     <Tooltip content={<CustomTooltip />} />
                     <Legend />
@@ -11,7 +11,21 @@ export interface Dashboard {
   balance: number
   expensesByCategory: CategorySummary[]
   incomeByCategory: CategorySummary[]
-  transactionsByDate: Array<{ date: string; income: number; expense: number }>
+}
+
+export type SeriesGranularity = 'day' | 'week' | 'month'
+
+export interface SeriesPoint {
+  start: string
+  income: number
+  expense: number
+  net: number
+}
+
+export interface DashboardSeries {
+  granularity: SeriesGranularity
+  zone: string
+  points: SeriesPoint[]
 }
 
 class DashboardService {
@@ -24,6 +38,24 @@ class DashboardService {
     })
     return response.data
   }
+
+  // startDate and endDate are calendar days (YYYY-MM-DD) in the given IANA time zone
+  async getSeries(
+    granularity: SeriesGranularity,
+    startDate: string,
+    endDate: string,
+    zone: string
+  ): Promise<DashboardSeries> {
+    const response = await apiClient.get<DashboardSeries>('/dashboard/series', {
+      params: {
+        granularity,
+        startDate,
+        endDate,
+        zone,
+      },
+    })
+    return response.data
+  }
 }
 
 export const dashboardService = new DashboardService()
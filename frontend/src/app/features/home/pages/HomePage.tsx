@@ -42,7 +42,7 @@ export function HomePage() {
         transactionService.getTransactions({ limit: 5 }),
       ])
       setBalance(balanceData.balance)
-      setRecentTransactions(transactionsData)
+      setRecentTransactions(transactionsData.items)
     } catch (error) {
     } finally {
       setIsLoading(false)
@@ -2,15 +2,30 @@ import apiClient from '@/app/core/services/apiClient'
 
 export type PaymentMethod = 'PIX' | 'TRANSFER' | 'BILL' | 'CARD'
 
+export type PaymentStatus = 'PENDING' | 'COMPLETED' | 'FAILED' | 'UNCONFIRMED'
+
 export interface Payment {
   id: number
   amount: number
   method: PaymentMethod
+  recipient?: string
   description?: string
-  status: string
+  pixKey?: string
+  bankCode?: string
+  bankAgency?: string
+  bankAccount?: string
+  status: PaymentStatus
+  failureReason?: string
+  transactionId?: number
   createdAt: string
 }
 
+export interface PaymentPage {
+  items: Payment[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
 export interface CreatePaymentDTO {
   method: PaymentMethod
   amount: number
@@ -28,17 +43,31 @@ class PaymentService {
     return response.data
   }
 
-  async getPayments(): Promise<Payment[]> {
-    const response = await apiClient.get<Payment[]>('/payments')
+  async getPayments(params?: {
+    method?: PaymentMethod
+    status?: PaymentStatus
+    startDate?: string
+    endDate?: string
+    cursor?: string
+    limit?: number
+  }): Promise<PaymentPage> {
+    const response = await apiClient.get<PaymentPage>('/payments', { params })
+    return response.data
+  }
+
+  async getPayment(id: number): Promise<Payment> {
+    const response = await apiClient.get<Payment>(`/payments/${id}`)
     return response.data
   }
 
   async generatePixQrCode(amount: number, description?: string): Promise<string> {
-    const response = await apiClient.post<{ qrCode: string }>('/payments/pix/qrcode', {
-      amount,
-      description,
-    })
-    return response.data.qrCode
+    // the body is the rendered SVG; the BR Code itself ("Pix Copia e Cola") comes in a header
+    const response = await apiClient.post<string>(
+      '/payments/pix/qrcode',
+      { amount, description },
+      { responseType: 'text' }
+    )
+    return response.headers['pix-payload']
   }
 }
 
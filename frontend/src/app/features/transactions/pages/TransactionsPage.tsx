@@ -18,9 +18,19 @@ import {
   Receipt
 } from 'lucide-react'
 
+type TransactionFilters = {
+  type?: TransactionType
+  categoryId?: number
+  startDate?: string
+  endDate?: string
+}
+
 export function TransactionsPage() {
   const { t } = useTranslation()
   const [transactions, setTransactions] = useState<Transaction[]>([])
+  const [nextCursor, setNextCursor] = useState<string | undefined>()
+  const [activeParams, setActiveParams] = useState<TransactionFilters>({})
+  const [isLoadingMore, setIsLoadingMore] = useState(false)
   const [categories, setCategories] = useState<any[]>([])
   const [isLoading, setIsLoading] = useState(true)
   const [showCreateForm, setShowCreateForm] = useState(false)
@@ -39,8 +49,10 @@ export function TransactionsPage() {
   const fetchData = async () => {
     try {
       setIsLoading(true)
-      const data = await transactionService.getTransactions()
-      setTransactions(data)
+      const page = await transactionService.getTransactions()
+      setTransactions(page.items)
+      setNextCursor(page.nextCursor)
+      setActiveParams({})
     } catch (error) {
     } finally {
       setIsLoading(false)
@@ -50,20 +62,17 @@ export function TransactionsPage() {
   const applyFilters = async () => {
     try {
       setIsLoading(true)
-      const params: {
-        type?: TransactionType
-        categoryId?: number
-        startDate?: string
-        endDate?: string
-      } = {}
+      const params: TransactionFilters = {}
 
       if (filterType) params.type = filterType
       if (filterCategory) params.categoryId = Number.parseInt(filterCategory)
       if (filterStartDate) params.startDate = filterStartDate
       if (filterEndDate) params.endDate = filterEndDate
 
-      const data = await transactionService.getTransactions(params)
-      setTransactions(data)
+      const page = await transactionService.getTransactions(params)
+      setTransactions(page.items)
+      setNextCursor(page.nextCursor)
+      setActiveParams(params)
       setShowFilters(false)
     } catch (error) {
     } finally {
@@ -71,6 +80,19 @@ export function TransactionsPage() {
     }
   }
 
+  const loadMore = async () => {
+    if (!nextCursor) return
+    try {
+      setIsLoadingMore(true)
+      const page = await transactionService.getTransactions({ ...activeParams, cursor: nextCursor })
+      setTransactions((current) => [...current, ...page.items])
+      setNextCursor(page.nextCursor)
+    } catch (error) {
+    } finally {
+      setIsLoadingMore(false)
+    }
+  }
+
   const clearFilters = () => {
     setFilterType('')
     setFilterCategory('')
@@ -313,6 +335,13 @@ export function TransactionsPage() {
                   </Card>
                 </div>
               ))}
+              {nextCursor && (
+                <div className="flex justify-center">
+                  <Button onClick={loadMore} variant="outline" disabled={isLoadingMore}>
+                    {t('transactions.loadMore')}
+                  </Button>
+                </div>
+              )}
             </div>
           )}
         </div>
@@ -21,6 +21,12 @@ export interface Category {
   icon?: string
 }
 
+export interface TransactionPage {
+  items: Transaction[]
+  nextCursor?: string
+  hasMore: boolean
+}
+
 export interface CreateTransactionDTO {
   type: TransactionType
   amount: number
@@ -39,14 +45,11 @@ class TransactionService {
     categoryId?: number
     startDate?: string
     endDate?: string
+    cursor?: string
     limit?: number
-  }): Promise<Transaction[]> {
-    const response = await apiClient.get<Transaction[]>('/transactions', { params })
-    let transactions = response.data
-    if (params?.limit) {
-      transactions = transactions.slice(0, params.limit)
-    }
-    return transactions.sort((a, b) => new Date(b.createdAt).getTime() - new Date(a.createdAt).getTime())
+  }): Promise<TransactionPage> {
+    const response = await apiClient.get<TransactionPage>('/transactions', { params })
+    return response.data
   }
 
   async getCategories(type?: TransactionType): Promise<Category[]> {